@@ -17,6 +17,18 @@ public class Errors {
     public static final String INVALID_PATH_VARIABLE_CODE = "PV001";
     public static final String INVALID_PATH_VARIABLE = "Invalid path variable.";
 
+    public static final String INVALID_RANGE_CODE = "IR001";
+    public static final String INVALID_RANGE = "Invalid time range: from must be before to and step a whole number of hours.";
+
+    public static final String INVALID_EXPORT_FORMAT_CODE = "EF001";
+    public static final String INVALID_EXPORT_FORMAT = "Invalid export format: use csv or ndjson.";
+
+    public static final String INVALID_METRIC_BATCH_CODE = "MB001";
+    public static final String INVALID_METRIC_BATCH = "Invalid metric batch: every event needs a known metric name and a value, and the batch must not exceed the event or metric hour limits.";
+
+    public static final String SERVICE_OVERLOADED_CODE = "SO001";
+    public static final String SERVICE_OVERLOADED = "The service is busy. Please retry shortly.";
+
     public static final String INVALID_CREDENTIALS_CODE = "IC001";
     public static final String INVALID_CREDENTIALS = "Invalid credentials.";
 
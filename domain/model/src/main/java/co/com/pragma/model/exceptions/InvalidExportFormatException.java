@@ -0,0 +1,10 @@
+package co.com.pragma.model.exceptions;
+
+import co.com.pragma.model.constants.Errors;
+
+public class InvalidExportFormatException extends CustomException {
+
+    public InvalidExportFormatException() {
+        super(Errors.INVALID_EXPORT_FORMAT, Errors.INVALID_EXPORT_FORMAT_CODE);
+    }
+}
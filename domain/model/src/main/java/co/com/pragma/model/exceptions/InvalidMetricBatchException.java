@@ -0,0 +1,10 @@
+package co.com.pragma.model.exceptions;
+
+import co.com.pragma.model.constants.Errors;
+
+public class InvalidMetricBatchException extends CustomException {
+
+    public InvalidMetricBatchException() {
+        super(Errors.INVALID_METRIC_BATCH, Errors.INVALID_METRIC_BATCH_CODE);
+    }
+}
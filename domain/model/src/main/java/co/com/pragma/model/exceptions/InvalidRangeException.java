@@ -0,0 +1,10 @@
+package co.com.pragma.model.exceptions;
+
+import co.com.pragma.model.constants.Errors;
+
+public class InvalidRangeException extends CustomException {
+
+    public InvalidRangeException() {
+        super(Errors.INVALID_RANGE, Errors.INVALID_RANGE_CODE);
+    }
+}
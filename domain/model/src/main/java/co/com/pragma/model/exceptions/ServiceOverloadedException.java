@@ -0,0 +1,28 @@
+package co.com.pragma.model.exceptions;
+
+import co.com.pragma.model.constants.Errors;
+import lombok.Getter;
+
+import java.time.Duration;
+
+import static java.net.HttpURLConnection.HTTP_UNAVAILABLE;
+
+/**
+ * Raised when a request is shed because the service is at its concurrency limit. It is thrown
+ * on every rejected request while overloaded, so no stack trace is captured.
+ */
+@Getter
+public class ServiceOverloadedException extends CustomException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(Duration retryAfter) {
+        super(Errors.SERVICE_OVERLOADED, Errors.SERVICE_OVERLOADED_CODE, HTTP_UNAVAILABLE);
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -1,12 +1,67 @@
 package co.com.pragma.model.logs.gateways;
 
+import java.util.function.Supplier;
+
+/**
+ * Logging for the domain and the adapters. Calls with up to two arguments bind to the fixed
+ * arity methods, which allocate nothing when the level is off; the {@link Supplier} variants
+ * only compute their argument when the level is on, though a lambda that captures a variable
+ * is itself created on every call.
+ */
 public interface LoggerPort {
 
+    boolean isDebugEnabled();
+
+    boolean isInfoEnabled();
+
+    boolean isWarnEnabled();
+
+    boolean isErrorEnabled();
+
+    void debug(String message);
+
+    void debug(String message, Object arg);
+
+    void debug(String message, Object arg1, Object arg2);
+
+    void debug(String message, Supplier<?> arg);
+
     void debug(String message, Object... args);
 
+    void info(String message);
+
+    void info(String message, Object arg);
+
+    void info(String message, Object arg1, Object arg2);
+
+    void info(String message, Supplier<?> arg);
+
     void info(String message, Object... args);
 
+    /**
+     * Logs at info one call in N for {@code callSite}, N being configured per call site. Meant
+     * for lines written on every successful event; failures should use {@link #error}, which
+     * is never sampled.
+     */
+    void infoSampled(String callSite, String message, Object arg);
+
+    void warn(String message);
+
+    void warn(String message, Object arg);
+
+    void warn(String message, Object arg1, Object arg2);
+
+    void warn(String message, Supplier<?> arg);
+
     void warn(String message, Object... args);
 
+    void error(String message);
+
+    void error(String message, Object arg);
+
+    void error(String message, Object arg1, Object arg2);
+
+    void error(String message, Supplier<?> arg);
+
     void error(String message, Object... args);
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package co.com.pragma.model.metric;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static co.com.pragma.model.constants.Metrics.AMOUNT_METRIC;
+import static co.com.pragma.model.constants.Metrics.QUANTITY_METRIC;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@ToString
+public class Approval {
+    private BigDecimal amount;
+    private Instant eventTime;
+
+    public List<Metric> toDeltas() {
+        return List.of(
+                Metric.builder().name(QUANTITY_METRIC).value(BigDecimal.ONE).eventTime(eventTime).build(),
+                Metric.builder().name(AMOUNT_METRIC).value(amount).eventTime(eventTime).build()
+        );
+    }
+}
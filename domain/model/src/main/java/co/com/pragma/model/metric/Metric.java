@@ -2,6 +2,7 @@ package co.com.pragma.model.metric;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Getter
 @Setter
@@ -12,4 +13,6 @@ import java.math.BigDecimal;
 public class Metric {
     private String name;
     private BigDecimal value;
+    private Instant eventTime;
+    private Long version;
 }
@@ -0,0 +1,52 @@
+package co.com.pragma.model.metric;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Event-time bucket of a metric. Buckets are one hour wide, aligned to UTC, and stored
+ * as independent items keyed by {@code <metric>@<yyyy-MM-dd'T'HH>}.
+ */
+public record MetricBucket(String name, Instant start) {
+
+    public static final Duration SIZE = Duration.ofHours(1);
+    public static final String SEPARATOR = "@";
+
+    private static final DateTimeFormatter KEY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH")
+            .withZone(ZoneOffset.UTC);
+
+    public static MetricBucket of(String name, Instant eventTime) {
+        return new MetricBucket(name, startOf(eventTime));
+    }
+
+    /**
+     * Reads a bucket back from its key, or returns empty when the key is a plain metric name.
+     */
+    public static Optional<MetricBucket> parse(String key) {
+        int separator = key.lastIndexOf(SEPARATOR);
+        if (separator < 0) return Optional.empty();
+        try {
+            Instant start = Instant.parse(key.substring(separator + 1) + ":00:00Z");
+            return Optional.of(new MetricBucket(key.substring(0, separator), start));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static Instant startOf(Instant eventTime) {
+        return eventTime.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    public Instant end() {
+        return start.plus(SIZE);
+    }
+
+    public String key() {
+        return name + SEPARATOR + KEY_FORMAT.format(start);
+    }
+}
@@ -0,0 +1,82 @@
+package co.com.pragma.model.metric;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Event-time progress of a single poller. A bucket is flushed once an event past its end has
+ * been seen; an event still landing in it within the allowed lateness is a late, corrective
+ * delta. The watermark trails the highest event time by the allowed lateness, and buckets
+ * ending at or before it are closed: events for them only count in the running total.
+ * <p>
+ * Event times further ahead of the receive time than the allowed clock skew are pulled back,
+ * so one sender with a wrong clock cannot push the watermark into the future and close every
+ * bucket after it.
+ */
+public class Watermark {
+
+    public enum Timing {
+        ON_TIME,
+        LATE,
+        EXPIRED
+    }
+
+    private final Duration allowedLateness;
+    private final Duration maxClockSkew;
+    private final AtomicLong maxEventTime = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong lateEvents = new AtomicLong();
+    private final AtomicLong expiredEvents = new AtomicLong();
+
+    public Watermark(Duration allowedLateness) {
+        this(allowedLateness, Duration.ZERO);
+    }
+
+    public Watermark(Duration allowedLateness, Duration maxClockSkew) {
+        this.allowedLateness = Objects.requireNonNullElse(allowedLateness, Duration.ZERO);
+        this.maxClockSkew = Objects.requireNonNullElse(maxClockSkew, Duration.ZERO);
+    }
+
+    /**
+     * The event time to use for an event received at {@code receivedAt}.
+     */
+    public Instant clamp(Instant eventTime, Instant receivedAt) {
+        Instant latest = receivedAt.plus(maxClockSkew);
+        return eventTime.isAfter(latest) ? latest : eventTime;
+    }
+
+    /**
+     * Records an event and reports whether its bucket was still open, flushed but within the
+     * allowed lateness, or already closed.
+     */
+    public Timing advance(Instant eventTime) {
+        long previous = maxEventTime.getAndAccumulate(eventTime.toEpochMilli(), Math::max);
+        Instant bucketEnd = MetricBucket.startOf(eventTime).plus(MetricBucket.SIZE);
+        if (previous == Long.MIN_VALUE || bucketEnd.toEpochMilli() > previous) return Timing.ON_TIME;
+        if (bucketEnd.isAfter(current())) {
+            lateEvents.incrementAndGet();
+            return Timing.LATE;
+        }
+        expiredEvents.incrementAndGet();
+        return Timing.EXPIRED;
+    }
+
+    public Instant current() {
+        long max = maxEventTime.get();
+        return max == Long.MIN_VALUE ? null : Instant.ofEpochMilli(max).minus(allowedLateness);
+    }
+
+    public Duration lag(Instant now) {
+        Instant current = current();
+        return current == null ? Duration.ZERO : Duration.between(current, now);
+    }
+
+    public long lateEvents() {
+        return lateEvents.get();
+    }
+
+    public long expiredEvents() {
+        return expiredEvents.get();
+    }
+}
@@ -1,10 +1,33 @@
 package co.com.pragma.model.metric.gateways;
 
 import co.com.pragma.model.metric.Metric;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 public interface MetricRepository {
     Mono<Metric> saveMetric(Metric metric);
 
+    /**
+     * Adds the delta and returns the stored item it was added to. A counter spread over
+     * several items returns only the one written; {@link #getMetric(String)} adds them up.
+     */
+    Mono<Metric> incrementMetric(Metric delta);
+
+    Mono<Void> incrementMetrics(List<Metric> deltas);
+
     Mono<Metric> getMetric(String name);
+
+    Flux<Metric> getMetrics(Collection<String> names);
+
+    /**
+     * Hourly buckets of the metric starting in {@code [from, to)}, in time order, each one with
+     * its start as event time. Buckets that were never written are omitted.
+     */
+    Flux<Metric> getBuckets(String name, Instant from, Instant to);
+
+    Flux<Metric> scanMetrics(int segments);
 }
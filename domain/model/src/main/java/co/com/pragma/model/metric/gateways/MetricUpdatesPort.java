@@ -0,0 +1,16 @@
+package co.com.pragma.model.metric.gateways;
+
+import co.com.pragma.model.metric.Metric;
+import reactor.core.publisher.Flux;
+
+/**
+ * Live feed of metric values written by this instance. Publishing never waits for
+ * subscribers: a subscriber that falls behind only receives the latest value of each metric.
+ */
+public interface MetricUpdatesPort {
+    boolean hasSubscribers();
+
+    void publish(Metric metric);
+
+    Flux<Metric> updates();
+}
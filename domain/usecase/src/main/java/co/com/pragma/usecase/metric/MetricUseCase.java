@@ -1,30 +1,86 @@
 package co.com.pragma.usecase.metric;
 
+import co.com.pragma.model.exceptions.InvalidMetricBatchException;
 import co.com.pragma.model.exceptions.InvalidPathVariableException;
+import co.com.pragma.model.exceptions.InvalidRangeException;
 import co.com.pragma.model.logs.gateways.LoggerPort;
+import co.com.pragma.model.metric.Approval;
 import co.com.pragma.model.metric.Metric;
+import co.com.pragma.model.metric.MetricBucket;
 import co.com.pragma.model.metric.gateways.MetricRepository;
+import co.com.pragma.model.metric.gateways.MetricUpdatesPort;
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import static co.com.pragma.model.constants.Metrics.AMOUNT_METRIC;
 import static co.com.pragma.model.constants.Metrics.QUANTITY_METRIC;
 
 @RequiredArgsConstructor
 public class MetricUseCase {
+    private static final Duration MAX_SERIES_RANGE = Duration.ofDays(400);
+    private static final String METRIC_SAVED_SITE = "metric-saved";
+    private static final String APPROVAL_SAVED_SITE = "approval-saved";
+    /**
+     * Items a single atomic repository write can hold. Updates to the same total or bucket are
+     * folded into one item, so a batch counts its distinct totals and buckets.
+     */
+    private static final int MAX_ITEMS_PER_WRITE = 100;
+
     private final MetricRepository repository;
     private final LoggerPort logger;
+    private final MetricUpdatesPort updates;
 
-    public Mono<Metric> saveMetric(Metric metric) {
-        logger.info("Saving metric {}", metric);
-        return repository.getMetric(metric.getName())
-                .switchIfEmpty(Mono.just(Metric.builder().name(metric.getName()).value(BigDecimal.ZERO).build()))
-                .map(metricDb -> metricDb.toBuilder().value(metricDb.getValue().add(metric.getValue())).build())
-                .flatMap(repository::saveMetric)
+    /**
+     * Adds the metric to its running total and to the bucket of its event time in one atomic
+     * write, so a redelivered message can never find the total counted and the bucket not.
+     */
+    public Mono<Void> saveMetric(Metric metric) {
+        logger.debug("Saving metric {}", metric);
+        return repository.incrementMetrics(withBuckets(List.of(metric)))
                 .doOnError(ex -> logger.error("Error saving metric", ex))
-                .doOnSuccess(metricDb -> logger.info("Metric saved {}", metricDb));
+                .doOnSuccess(ignored -> logger.infoSampled(METRIC_SAVED_SITE, "Metric saved {}", metric))
+                .then(Mono.defer(() -> publishUpdates(List.of(metric.getName()))));
+    }
+
+    public Mono<Void> saveApproval(Approval approval) {
+        logger.debug("Saving approval {}", approval);
+        List<Metric> deltas = approval.toDeltas();
+        return repository.incrementMetrics(withBuckets(deltas))
+                .doOnError(ex -> logger.error("Error saving approval", ex))
+                .doOnSuccess(ignored -> logger.infoSampled(APPROVAL_SAVED_SITE, "Approval saved {}", approval))
+                .then(Mono.defer(() -> publishUpdates(deltas.stream().map(Metric::getName).toList())));
+    }
+
+    /**
+     * Adds a batch of deltas that were already folded per metric and hour, each one to its
+     * running total and to the bucket of its event time, in one atomic write. A batch that
+     * does not fit a single write is rejected rather than split: a failure halfway through a
+     * split batch would leave part of it counted, and a client retrying the batch would count
+     * that part twice.
+     */
+    public Mono<Void> saveMetrics(List<Metric> deltas) {
+        if (deltas.isEmpty()) return Mono.empty();
+        List<Metric> updates = withBuckets(deltas);
+        if (updates.stream().map(Metric::getName).distinct().count() > MAX_ITEMS_PER_WRITE) {
+            return Mono.error(new InvalidMetricBatchException());
+        }
+        logger.info("Saving {} metric deltas", deltas.size());
+        return repository.incrementMetrics(updates)
+                .doOnError(ex -> logger.error("Error saving metrics", ex))
+                .doOnSuccess(ignored -> logger.info("Saved {} metric deltas", deltas.size()))
+                .then(Mono.defer(() -> publishUpdates(deltas.stream().map(Metric::getName).distinct().toList())));
     }
 
     public Mono<Metric> getMetric(String name) {
@@ -34,6 +90,133 @@ public class MetricUseCase {
                 .doOnSuccess(metricDb -> logger.info("Metric retrieved {}", metricDb));
     }
 
+    public Flux<Metric> getMetrics(Collection<String> names) {
+        if (names == null || names.isEmpty()) return Flux.error(new InvalidPathVariableException());
+        return Flux.fromIterable(names)
+                .concatMap(this::validateMetricName)
+                .collectList()
+                .flatMapMany(repository::getMetrics)
+                .doOnError(ex -> logger.error("Error getting metrics", ex))
+                .doOnComplete(() -> logger.info("Metrics retrieved {}", names));
+    }
+
+    /**
+     * Current values of the requested metrics followed by every later change. Values that
+     * are not newer than the last one sent for that metric are skipped, so an update racing
+     * the initial read is never followed by an older snapshot.
+     */
+    public Flux<Metric> streamMetrics(Collection<String> names) {
+        if (names == null || names.isEmpty()) return Flux.error(new InvalidPathVariableException());
+        return Flux.fromIterable(names)
+                .concatMap(this::validateMetricName)
+                .collect(Collectors.toSet())
+                .flatMapMany(valid -> {
+                    Map<String, Long> sent = new ConcurrentHashMap<>();
+                    return Flux.merge(updates.updates().filter(metric -> valid.contains(metric.getName())),
+                                    repository.getMetrics(valid))
+                            .filter(metric -> isNewer(metric, sent));
+                })
+                .doOnSubscribe(subscription -> logger.info("Streaming metrics {}", names))
+                .doOnError(ex -> logger.error("Error streaming metrics", ex));
+    }
+
+    /**
+     * Values of the metric over {@code [from, to)} downsampled to {@code step}: the hourly
+     * buckets of each step are added into a running sum as they are read, so a long step never
+     * holds its buckets in memory, and steps without buckets are reported as zero. Steps are
+     * aligned to the hour {@code from} falls in, so a range that starts at midnight with a one
+     * day step yields calendar days in UTC.
+     */
+    public Flux<Metric> getSeries(String name, Instant from, Instant to, Duration step) {
+        if (!isValidRange(from, to, step)) return Flux.error(new InvalidRangeException());
+        Instant start = MetricBucket.startOf(from);
+        return validateMetricName(name)
+                .flatMapMany(valid -> withEmptySteps(name, start, to, step,
+                        repository.getBuckets(valid, start, to)
+                                .windowUntilChanged(bucket -> stepOf(bucket.getEventTime(), start, step))
+                                .concatMap(buckets -> buckets
+                                        .reduce((sum, bucket) -> sum.toBuilder().value(sum.getValue().add(bucket.getValue())).build())
+                                        .map(sum -> Metric.builder()
+                                                .name(name)
+                                                .eventTime(stepOf(sum.getEventTime(), start, step))
+                                                .value(sum.getValue())
+                                                .build()))))
+                .doOnSubscribe(subscription -> logger.info("Reading series of {} from {} to {} every {}", name, from, to, step))
+                .doOnError(ex -> logger.error("Error reading series", ex));
+    }
+
+    public Flux<Metric> exportMetrics(int segments) {
+        logger.info("Exporting metrics with {} segments", segments);
+        return repository.scanMetrics(segments)
+                .doOnError(ex -> logger.error("Error exporting metrics", ex))
+                .doOnComplete(() -> logger.info("Metrics exported with {} segments", segments));
+    }
+
+    /**
+     * Reads back the totals just written for live subscribers. A failed read only costs the
+     * subscribers this update; the write itself is already stored.
+     */
+    private Mono<Void> publishUpdates(List<String> names) {
+        if (!updates.hasSubscribers()) return Mono.empty();
+        return repository.getMetrics(names)
+                .doOnNext(updates::publish)
+                .doOnError(ex -> logger.error("Error publishing metric updates", ex))
+                .onErrorResume(ex -> Mono.empty())
+                .then();
+    }
+
+    private static boolean isValidRange(Instant from, Instant to, Duration step) {
+        if (from == null || to == null || step == null || !from.isBefore(to)) return false;
+        if (Duration.between(from, to).compareTo(MAX_SERIES_RANGE) > 0) return false;
+        return step.compareTo(MetricBucket.SIZE) >= 0 && step.toNanos() % MetricBucket.SIZE.toNanos() == 0;
+    }
+
+    private static Instant stepOf(Instant time, Instant start, Duration step) {
+        long steps = Duration.between(start, time).toNanos() / step.toNanos();
+        return start.plus(step.multipliedBy(steps));
+    }
+
+    private static Flux<Metric> withEmptySteps(String name, Instant start, Instant to, Duration step, Flux<Metric> points) {
+        return Flux.defer(() -> {
+            AtomicReference<Instant> next = new AtomicReference<>(start);
+            return points
+                    .concatMap(point -> {
+                        Flux<Metric> gap = emptySteps(name, next.get(), point.getEventTime(), step);
+                        next.set(point.getEventTime().plus(step));
+                        return gap.concatWith(Mono.just(point));
+                    })
+                    .concatWith(Flux.defer(() -> emptySteps(name, next.get(), to, step)));
+        });
+    }
+
+    private static Flux<Metric> emptySteps(String name, Instant from, Instant until, Duration step) {
+        return Flux.generate(() -> from, (time, sink) -> {
+            if (time.isBefore(until)) {
+                sink.next(Metric.builder().name(name).eventTime(time).value(BigDecimal.ZERO).build());
+            } else {
+                sink.complete();
+            }
+            return time.plus(step);
+        });
+    }
+
+    private static boolean isNewer(Metric metric, Map<String, Long> sent) {
+        if (metric.getVersion() == null) return true;
+        Long previous = sent.get(metric.getName());
+        if (previous != null && previous >= metric.getVersion()) return false;
+        sent.put(metric.getName(), metric.getVersion());
+        return true;
+    }
+
+    private List<Metric> withBuckets(List<Metric> deltas) {
+        List<Metric> updates = new ArrayList<>(deltas);
+        deltas.stream()
+                .filter(delta -> delta.getEventTime() != null)
+                .map(delta -> delta.toBuilder().name(MetricBucket.of(delta.getName(), delta.getEventTime()).key()).build())
+                .forEach(updates::add);
+        return updates;
+    }
+
     private Mono<String> validateMetricName(String name) {
         if (name == null || name.isBlank()) return Mono.error(new InvalidPathVariableException());
         if (name.equals(QUANTITY_METRIC)) return Mono.just(name);
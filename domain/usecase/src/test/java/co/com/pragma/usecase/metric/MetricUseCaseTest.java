@@ -1,21 +1,34 @@
 package co.com.pragma.usecase.metric;
 
 import co.com.pragma.model.constants.Metrics;
+import co.com.pragma.model.exceptions.InvalidMetricBatchException;
 import co.com.pragma.model.exceptions.InvalidPathVariableException;
+import co.com.pragma.model.exceptions.InvalidRangeException;
 import co.com.pragma.model.logs.gateways.LoggerPort;
+import co.com.pragma.model.metric.Approval;
 import co.com.pragma.model.metric.Metric;
 import co.com.pragma.model.metric.gateways.MetricRepository;
+import co.com.pragma.model.metric.gateways.MetricUpdatesPort;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -28,6 +41,9 @@ class MetricUseCaseTest {
     @Mock
     private LoggerPort logger;
 
+    @Mock
+    private MetricUpdatesPort updates;
+
     @InjectMocks
     private MetricUseCase metricUseCase;
 
@@ -35,41 +51,58 @@ class MetricUseCaseTest {
     void saveMetric_whenMetricIsNew_shouldSaveWithValue() {
         // Arrange
         Metric newMetric = Metric.builder().name("new_metric").value(new BigDecimal("10")).build();
-        when(repository.getMetric("new_metric")).thenReturn(Mono.empty());
-        when(repository.saveMetric(any(Metric.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(repository.incrementMetrics(anyList())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(metricUseCase.saveMetric(newMetric))
-                .expectNextMatches(saved -> saved.getName().equals("new_metric") && saved.getValue().compareTo(new BigDecimal("10")) == 0)
                 .verifyComplete();
 
-        verify(repository).getMetric("new_metric");
-        verify(repository).saveMetric(any(Metric.class));
+        verify(repository).incrementMetrics(argThat(deltas -> deltas.size() == 1
+                && deltas.get(0).getName().equals("new_metric") && deltas.get(0).getValue().compareTo(new BigDecimal("10")) == 0));
+        verify(repository, never()).saveMetric(any(Metric.class));
+        verify(repository, never()).incrementMetric(any(Metric.class));
+        verify(logger).infoSampled("metric-saved", "Metric saved {}", newMetric);
     }
 
     @Test
-    void saveMetric_whenMetricExists_shouldUpdateValue() {
+    void saveMetric_whenEventTimeIsPresent_shouldUpdateTotalAndBucketInOneWrite() {
         // Arrange
-        Metric incomingMetric = Metric.builder().name("existing_metric").value(new BigDecimal("5")).build();
-        Metric existingMetricInDb = Metric.builder().name("existing_metric").value(new BigDecimal("10")).build();
+        Instant eventTime = Instant.parse("2025-03-01T23:59:30Z");
+        Metric incomingMetric = Metric.builder().name("quantity").value(BigDecimal.ONE).eventTime(eventTime).build();
+        when(repository.incrementMetrics(anyList())).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.saveMetric(incomingMetric))
+                .verifyComplete();
+
+        verify(repository).incrementMetrics(argThat(deltas -> deltas.size() == 2
+                && deltas.stream().anyMatch(m -> m.getName().equals("quantity"))
+                && deltas.stream().anyMatch(m -> m.getName().equals("quantity@2025-03-01T23")
+                && m.getValue().compareTo(BigDecimal.ONE) == 0)));
+        verify(repository, never()).incrementMetric(any(Metric.class));
+    }
 
-        when(repository.getMetric("existing_metric")).thenReturn(Mono.just(existingMetricInDb));
-        when(repository.saveMetric(any(Metric.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    @Test
+    void saveMetric_whenSomeoneIsStreaming_shouldPublishTheNewTotal() {
+        // Arrange
+        Metric incomingMetric = Metric.builder().name("quantity").value(BigDecimal.ONE).build();
+        Metric stored = Metric.builder().name("quantity").value(new BigDecimal("15")).version(3L).build();
+        when(repository.incrementMetrics(anyList())).thenReturn(Mono.empty());
+        when(updates.hasSubscribers()).thenReturn(true);
+        when(repository.getMetrics(List.of("quantity"))).thenReturn(Flux.just(stored));
 
         // Act & Assert
         StepVerifier.create(metricUseCase.saveMetric(incomingMetric))
-                .expectNextMatches(saved -> saved.getValue().compareTo(new BigDecimal("15")) == 0)
                 .verifyComplete();
 
-        verify(repository).getMetric("existing_metric");
-        verify(repository).saveMetric(argThat(m -> m.getValue().compareTo(new BigDecimal("15")) == 0));
+        verify(updates).publish(stored);
     }
 
     @Test
     void saveMetric_whenRepositoryFails_shouldReturnError() {
         // Arrange
         Metric metric = Metric.builder().name("any_metric").value(BigDecimal.ONE).build();
-        when(repository.getMetric(anyString())).thenReturn(Mono.error(new RuntimeException("DB Error")));
+        when(repository.incrementMetrics(anyList())).thenReturn(Mono.error(new RuntimeException("DB Error")));
 
         // Act & Assert
         StepVerifier.create(metricUseCase.saveMetric(metric))
@@ -79,6 +112,143 @@ class MetricUseCaseTest {
         verify(logger).error(eq("Error saving metric"), any(RuntimeException.class));
     }
 
+    @Test
+    void saveApproval_shouldIncrementCorrelatedMetricsInOneCall() {
+        // Arrange
+        Approval approval = Approval.builder()
+                .amount(new BigDecimal("2500"))
+                .eventTime(Instant.parse("2025-03-01T10:15:00Z"))
+                .build();
+        when(repository.incrementMetrics(anyList())).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.saveApproval(approval))
+                .verifyComplete();
+
+        verify(repository).incrementMetrics(argThat(deltas -> deltas.size() == 4
+                && deltas.stream().anyMatch(m -> m.getName().equals(Metrics.QUANTITY_METRIC) && m.getValue().compareTo(BigDecimal.ONE) == 0)
+                && deltas.stream().anyMatch(m -> m.getName().equals(Metrics.AMOUNT_METRIC) && m.getValue().compareTo(new BigDecimal("2500")) == 0)
+                && deltas.stream().anyMatch(m -> m.getName().equals("quantity@2025-03-01T10"))
+                && deltas.stream().anyMatch(m -> m.getName().equals("amount@2025-03-01T10"))));
+        verify(repository, never()).incrementMetric(any(Metric.class));
+        verify(logger).infoSampled("approval-saved", "Approval saved {}", approval);
+    }
+
+    @Test
+    void saveApproval_whenSomeoneIsStreaming_shouldPublishTheNewTotals() {
+        // Arrange
+        Approval approval = Approval.builder().amount(BigDecimal.TEN).build();
+        Metric quantity = Metric.builder().name(Metrics.QUANTITY_METRIC).value(new BigDecimal("3")).build();
+        Metric amount = Metric.builder().name(Metrics.AMOUNT_METRIC).value(new BigDecimal("30")).build();
+        when(repository.incrementMetrics(anyList())).thenReturn(Mono.empty());
+        when(updates.hasSubscribers()).thenReturn(true);
+        when(repository.getMetrics(List.of(Metrics.QUANTITY_METRIC, Metrics.AMOUNT_METRIC))).thenReturn(Flux.just(quantity, amount));
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.saveApproval(approval))
+                .verifyComplete();
+
+        verify(updates).publish(quantity);
+        verify(updates).publish(amount);
+    }
+
+    @Test
+    void saveApproval_whenReadingTotalsForStreamFails_shouldStillComplete() {
+        // Arrange
+        Approval approval = Approval.builder().amount(BigDecimal.TEN).build();
+        when(repository.incrementMetrics(anyList())).thenReturn(Mono.empty());
+        when(updates.hasSubscribers()).thenReturn(true);
+        when(repository.getMetrics(anyCollection())).thenReturn(Flux.error(new RuntimeException("DB Error")));
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.saveApproval(approval))
+                .verifyComplete();
+
+        verify(updates, never()).publish(any(Metric.class));
+        verify(logger).error(eq("Error publishing metric updates"), any(RuntimeException.class));
+    }
+
+    @Test
+    void saveApproval_whenRepositoryFails_shouldReturnError() {
+        // Arrange
+        Approval approval = Approval.builder().amount(BigDecimal.TEN).build();
+        when(repository.incrementMetrics(anyList())).thenReturn(Mono.error(new RuntimeException("Transaction canceled")));
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.saveApproval(approval))
+                .expectError(RuntimeException.class)
+                .verify();
+
+        verify(repository).incrementMetrics(argThat(deltas -> deltas.size() == 2));
+        verify(logger).error(eq("Error saving approval"), any(RuntimeException.class));
+    }
+
+    @Test
+    void saveMetrics_shouldIncrementTotalsAndBucketsInOneCall() {
+        // Arrange
+        List<Metric> deltas = List.of(
+                Metric.builder().name(Metrics.QUANTITY_METRIC).value(new BigDecimal("3")).eventTime(Instant.parse("2025-03-01T10:00:00Z")).build(),
+                Metric.builder().name(Metrics.QUANTITY_METRIC).value(new BigDecimal("2")).eventTime(Instant.parse("2025-03-01T11:00:00Z")).build());
+        when(repository.incrementMetrics(anyList())).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.saveMetrics(deltas))
+                .verifyComplete();
+
+        verify(repository).incrementMetrics(argThat(written -> written.size() == 4
+                && written.stream().filter(m -> m.getName().equals(Metrics.QUANTITY_METRIC)).count() == 2
+                && written.stream().anyMatch(m -> m.getName().equals("quantity@2025-03-01T10") && m.getValue().compareTo(new BigDecimal("3")) == 0)
+                && written.stream().anyMatch(m -> m.getName().equals("quantity@2025-03-01T11") && m.getValue().compareTo(new BigDecimal("2")) == 0)));
+    }
+
+    @Test
+    void saveMetrics_whenBatchFillsOneWrite_shouldWriteItAtOnce() {
+        // Arrange: 99 buckets of one metric and the total they all add to
+        List<Metric> deltas = hourlyDeltas(Metrics.AMOUNT_METRIC, 99);
+        when(repository.incrementMetrics(anyList())).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.saveMetrics(deltas))
+                .verifyComplete();
+
+        verify(repository).incrementMetrics(argThat(written -> written.size() == 198));
+    }
+
+    @Test
+    void saveMetrics_whenBackfillingTwoMetrics_shouldCountEachTotalOnce() {
+        // Arrange: 50 deltas that touch 2 totals and 50 buckets
+        List<Metric> deltas = new ArrayList<>(hourlyDeltas(Metrics.QUANTITY_METRIC, 25));
+        deltas.addAll(hourlyDeltas(Metrics.AMOUNT_METRIC, 25));
+        when(repository.incrementMetrics(anyList())).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.saveMetrics(deltas))
+                .verifyComplete();
+
+        verify(repository).incrementMetrics(anyList());
+    }
+
+    @Test
+    void saveMetrics_whenBatchDoesNotFitOneWrite_shouldRejectItWithoutWriting() {
+        // Arrange: a split batch could fail halfway and be counted twice when retried
+        List<Metric> deltas = hourlyDeltas(Metrics.AMOUNT_METRIC, 100);
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.saveMetrics(deltas))
+                .expectError(InvalidMetricBatchException.class)
+                .verify();
+
+        verify(repository, never()).incrementMetrics(anyList());
+    }
+
+    @Test
+    void saveMetrics_whenBatchIsEmpty_shouldNotWrite() {
+        StepVerifier.create(metricUseCase.saveMetrics(List.of()))
+                .verifyComplete();
+
+        verify(repository, never()).incrementMetrics(anyList());
+    }
+
     @Test
     void getMetric_whenNameIsValid_shouldReturnMetric() {
         // Arrange
@@ -119,6 +289,59 @@ class MetricUseCaseTest {
         verify(logger).error(eq("Error getting metric"), any(InvalidPathVariableException.class));
     }
 
+    @Test
+    void getMetrics_whenNamesAreValid_shouldReadThemInOneCall() {
+        // Arrange
+        List<String> names = List.of(Metrics.QUANTITY_METRIC, Metrics.AMOUNT_METRIC);
+        Metric quantity = Metric.builder().name(Metrics.QUANTITY_METRIC).value(BigDecimal.TEN).build();
+        Metric amount = Metric.builder().name(Metrics.AMOUNT_METRIC).value(new BigDecimal("2500")).build();
+        when(repository.getMetrics(names)).thenReturn(Flux.just(quantity, amount));
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.getMetrics(names))
+                .expectNext(quantity, amount)
+                .verifyComplete();
+
+        verify(repository).getMetrics(names);
+        verify(repository, never()).getMetric(anyString());
+    }
+
+    @Test
+    void getMetrics_whenAnyNameIsInvalid_shouldReturnError() {
+        // Act & Assert
+        StepVerifier.create(metricUseCase.getMetrics(List.of(Metrics.QUANTITY_METRIC, "invalid_metric_name")))
+                .expectError(InvalidPathVariableException.class)
+                .verify();
+
+        verify(repository, never()).getMetrics(anyCollection());
+        verify(logger).error(eq("Error getting metrics"), any(InvalidPathVariableException.class));
+    }
+
+    @Test
+    void getMetrics_whenNoNamesAreGiven_shouldReturnError() {
+        // Act & Assert
+        StepVerifier.create(metricUseCase.getMetrics(List.of()))
+                .expectError(InvalidPathVariableException.class)
+                .verify();
+
+        verify(repository, never()).getMetrics(anyCollection());
+    }
+
+    @Test
+    void exportMetrics_shouldStreamEveryScannedMetric() {
+        // Arrange
+        Metric quantity = Metric.builder().name(Metrics.QUANTITY_METRIC).value(BigDecimal.TEN).build();
+        Metric bucket = Metric.builder().name("quantity@2025-03-01T10").value(BigDecimal.ONE).build();
+        when(repository.scanMetrics(4)).thenReturn(Flux.just(quantity, bucket));
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.exportMetrics(4))
+                .expectNext(quantity, bucket)
+                .verifyComplete();
+
+        verify(logger).info("Metrics exported with {} segments", 4);
+    }
+
     @Test
     void getMetric_whenNameIsNull_shouldReturnError() {
         // Act & Assert
@@ -138,4 +361,100 @@ class MetricUseCaseTest {
 
         verify(repository, never()).getMetric(anyString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamMetrics_shouldSendSnapshotThenOnlyNewerValues() {
+        // Arrange
+        Sinks.Many<Metric> live = Sinks.many().multicast().directBestEffort();
+        Metric snapshot = Metric.builder().name(Metrics.QUANTITY_METRIC).value(BigDecimal.TEN).version(5L).build();
+        when(updates.updates()).thenReturn(live.asFlux());
+        when(repository.getMetrics(anyCollection())).thenReturn(Flux.just(snapshot));
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.streamMetrics(List.of(Metrics.QUANTITY_METRIC)))
+                .expectNext(snapshot)
+                .then(() -> {
+                    live.tryEmitNext(Metric.builder().name(Metrics.QUANTITY_METRIC).value(BigDecimal.ONE).version(4L).build());
+                    live.tryEmitNext(Metric.builder().name(Metrics.AMOUNT_METRIC).value(BigDecimal.ONE).version(9L).build());
+                    live.tryEmitNext(Metric.builder().name(Metrics.QUANTITY_METRIC).value(new BigDecimal("11")).version(6L).build());
+                })
+                .expectNextMatches(metric -> metric.getVersion() == 6L)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void streamMetrics_whenNameIsInvalid_shouldReturnError() {
+        StepVerifier.create(metricUseCase.streamMetrics(List.of("invalid")))
+                .expectError(InvalidPathVariableException.class)
+                .verify();
+
+        verify(updates, never()).updates();
+    }
+
+    @Test
+    void getSeries_shouldAddUpBucketsOfEachStepAndFillEmptySteps() {
+        // Arrange: buckets at 00:00 and 01:00 fall in the first two-hour step, 06:00 in the fourth
+        Instant from = Instant.parse("2025-01-01T00:30:00Z");
+        Instant to = Instant.parse("2025-01-01T10:00:00Z");
+        when(repository.getBuckets(eq(Metrics.QUANTITY_METRIC), any(Instant.class), eq(to))).thenReturn(Flux.just(
+                bucket("2025-01-01T00:00:00Z", "2"),
+                bucket("2025-01-01T01:00:00Z", "3"),
+                bucket("2025-01-01T06:00:00Z", "4")));
+
+        // Act & Assert
+        StepVerifier.create(metricUseCase.getSeries(Metrics.QUANTITY_METRIC, from, to, Duration.ofHours(2)))
+                .expectNextMatches(point -> isPoint(point, "2025-01-01T00:00:00Z", "5"))
+                .expectNextMatches(point -> isPoint(point, "2025-01-01T02:00:00Z", "0"))
+                .expectNextMatches(point -> isPoint(point, "2025-01-01T04:00:00Z", "0"))
+                .expectNextMatches(point -> isPoint(point, "2025-01-01T06:00:00Z", "4"))
+                .expectNextMatches(point -> isPoint(point, "2025-01-01T08:00:00Z", "0"))
+                .verifyComplete();
+
+        verify(repository).getBuckets(Metrics.QUANTITY_METRIC, Instant.parse("2025-01-01T00:00:00Z"), to);
+    }
+
+    @Test
+    void getSeries_whenRangeIsInvalid_shouldReturnErrorWithoutReading() {
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+
+        StepVerifier.create(metricUseCase.getSeries(Metrics.QUANTITY_METRIC, from, from, Duration.ofHours(1)))
+                .expectError(InvalidRangeException.class)
+                .verify();
+        StepVerifier.create(metricUseCase.getSeries(Metrics.QUANTITY_METRIC, from, from.plus(Duration.ofDays(1)), Duration.ofMinutes(90)))
+                .expectError(InvalidRangeException.class)
+                .verify();
+        StepVerifier.create(metricUseCase.getSeries(Metrics.QUANTITY_METRIC, from, from.plus(Duration.ofDays(500)), Duration.ofDays(1)))
+                .expectError(InvalidRangeException.class)
+                .verify();
+
+        verify(repository, never()).getBuckets(anyString(), any(Instant.class), any(Instant.class));
+    }
+
+    @Test
+    void getSeries_whenNameIsInvalid_shouldReturnError() {
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+
+        StepVerifier.create(metricUseCase.getSeries("invalid", from, from.plus(Duration.ofDays(1)), Duration.ofHours(1)))
+                .expectError(InvalidPathVariableException.class)
+                .verify();
+
+        verify(repository, never()).getBuckets(anyString(), any(Instant.class), any(Instant.class));
+    }
+
+    private static List<Metric> hourlyDeltas(String name, int hours) {
+        Instant start = Instant.parse("2025-03-01T00:00:00Z");
+        return IntStream.range(0, hours)
+                .mapToObj(hour -> Metric.builder().name(name).value(BigDecimal.ONE)
+                        .eventTime(start.plus(Duration.ofHours(hour))).build())
+                .toList();
+    }
+
+    private static Metric bucket(String hour, String value) {
+        return Metric.builder().name(Metrics.QUANTITY_METRIC).eventTime(Instant.parse(hour)).value(new BigDecimal(value)).build();
+    }
+
+    private static boolean isPoint(Metric point, String time, String value) {
+        return point.getEventTime().equals(Instant.parse(time)) && point.getValue().compareTo(new BigDecimal(value)) == 0;
+    }
+}
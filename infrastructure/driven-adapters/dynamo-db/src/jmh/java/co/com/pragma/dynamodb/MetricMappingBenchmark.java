@@ -0,0 +1,112 @@
+package co.com.pragma.dynamodb;
+
+import co.com.pragma.model.metric.Metric;
+import org.openjdk.jmh.annotations.*;
+import org.reactivecommons.utils.ObjectMapper;
+import org.reactivecommons.utils.ObjectMapperImp;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous bean schema plus reflective ObjectMapper against the static schema
+ * plus hand-written mappers, for both schema creation and per-item mapping.
+ * Run with {@code ./gradlew :dynamo-db:jmh}; the gc profiler reports allocations per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricMappingBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapperImp();
+    private TableSchema<BeanMetricEntity> beanSchema;
+    private Map<String, AttributeValue> item;
+    private Metric metric;
+    private MetricEntity entity;
+
+    @Setup
+    public void setUp() {
+        beanSchema = TableSchema.fromBean(BeanMetricEntity.class);
+        metric = Metric.builder().name("quantity").value(new BigDecimal("1250.75")).build();
+        entity = new MetricEntity("quantity", new BigDecimal("1250.75"));
+        item = MetricEntity.TABLE_SCHEMA.itemToMap(entity, true);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public TableSchema<BeanMetricEntity> createBeanSchema() {
+        return TableSchema.fromBean(BeanMetricEntity.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public TableSchema<MetricEntity> createStaticSchema() {
+        return MetricEntity.buildTableSchema();
+    }
+
+    @Benchmark
+    public Metric readWithBeanSchemaAndObjectMapper() {
+        return objectMapper.map(beanSchema.mapToItem(item), Metric.class);
+    }
+
+    @Benchmark
+    public Metric readWithStaticSchemaAndMapper() {
+        return MetricEntityMapper.toModel(MetricEntity.TABLE_SCHEMA.mapToItem(item));
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> writeWithBeanSchemaAndObjectMapper() {
+        return beanSchema.itemToMap(objectMapper.map(metric, BeanMetricEntity.class), true);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> writeWithStaticSchemaAndMapper() {
+        return MetricEntity.TABLE_SCHEMA.itemToMap(MetricEntityMapper.toEntity(metric), true);
+    }
+
+    /**
+     * Annotated copy of the entity as it was mapped before the static schema.
+     */
+    @DynamoDbBean
+    public static class BeanMetricEntity {
+        private String name;
+        private BigDecimal value;
+        private Integer shards;
+
+        @DynamoDbPartitionKey
+        @DynamoDbAttribute(MetricEntity.NAME_ATTRIBUTE)
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @DynamoDbAttribute(MetricEntity.VALUE_ATTRIBUTE)
+        public BigDecimal getValue() {
+            return value;
+        }
+
+        public void setValue(BigDecimal value) {
+            this.value = value;
+        }
+
+        @DynamoDbAttribute(MetricEntity.SHARDS_ATTRIBUTE)
+        public Integer getShards() {
+            return shards;
+        }
+
+        public void setShards(Integer shards) {
+            this.shards = shards;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package co.com.pragma.dynamodb;
+
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing a day of hourly buckets as 24 items against a single day item with one
+ * attribute per slot. Run with {@code ./gradlew :dynamo-db:jmh}; the gc profiler reports
+ * allocations per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PackedSeriesBenchmark {
+
+    private BigDecimal[] slots;
+    private List<MetricEntity> hourlyItems;
+
+    @Setup
+    public void setUp() {
+        slots = new BigDecimal[PackedDay.SLOTS];
+        hourlyItems = new ArrayList<>(PackedDay.SLOTS);
+        for (int hour = 0; hour < PackedDay.SLOTS; hour++) {
+            slots[hour] = new BigDecimal(1000 + hour * 37L).movePointLeft(2);
+            hourlyItems.add(new MetricEntity(String.format("amount@2025-03-01T%02d", hour), slots[hour]));
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, AttributeValue>> writeDayAsItems() {
+        List<Map<String, AttributeValue>> items = new ArrayList<>(hourlyItems.size());
+        for (MetricEntity item : hourlyItems) {
+            items.add(MetricEntity.TABLE_SCHEMA.itemToMap(item, true));
+        }
+        return items;
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> writeDayAsSlotAttributes() {
+        MetricEntity day = new MetricEntity("amount@2025-03-01", null);
+        for (int hour = 0; hour < PackedDay.SLOTS; hour++) {
+            day.setSlot(hour, slots[hour]);
+        }
+        day.setVersion(1L);
+        return MetricEntity.TABLE_SCHEMA.itemToMap(day, true);
+    }
+}
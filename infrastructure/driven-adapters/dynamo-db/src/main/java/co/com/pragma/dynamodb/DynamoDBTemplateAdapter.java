@@ -1,28 +1,497 @@
 package co.com.pragma.dynamodb;
 
+import co.com.pragma.dynamodb.helper.CacheSettings;
+import co.com.pragma.dynamodb.helper.HedgeSettings;
+import co.com.pragma.dynamodb.helper.HotKeyDetector;
+import co.com.pragma.dynamodb.helper.ReadCapacityLimiter;
+import co.com.pragma.dynamodb.helper.ReadThroughCache;
 import co.com.pragma.dynamodb.helper.TemplateAdapterOperations;
 import co.com.pragma.model.metric.Metric;
+import co.com.pragma.model.metric.MetricBucket;
 import co.com.pragma.model.metric.gateways.MetricRepository;
-import org.reactivecommons.utils.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static co.com.pragma.dynamodb.MetricEntity.SHARDS_ATTRIBUTE;
+import static co.com.pragma.dynamodb.MetricEntity.VALUE_ATTRIBUTE;
+import static co.com.pragma.dynamodb.MetricEntity.VERSION_ATTRIBUTE;
 
 
 @Repository
 public class DynamoDBTemplateAdapter extends TemplateAdapterOperations<Metric, String, MetricEntity> implements MetricRepository {
 
-    public DynamoDBTemplateAdapter(DynamoDbEnhancedAsyncClient connectionFactory, ObjectMapper mapper) {
-        super(connectionFactory, mapper, d -> mapper.map(d, Metric.class), "reporte_aprobados");
+    private static final String SHARD_SEPARATOR = "#";
+    private static final String ADD_VALUE = "ADD " + VALUE_ATTRIBUTE + " :delta, " + VERSION_ATTRIBUTE + " :one";
+    private static final AttributeValue ONE = AttributeValue.builder().n("1").build();
+    private static final RetryBackoffSpec CONFLICT_RETRY = Retry.backoff(2, Duration.ofMillis(20))
+            .filter(HotKeyDetector::isTransactionConflict)
+            .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    private static final Comparator<Metric> BY_NAME = Comparator.comparing(Metric::getName);
+    private static final int RANGE_CHUNK_KEYS = 100;
+    private static final Duration DAY = Duration.ofDays(1);
+
+    private final HotKeyDetector hotKeys;
+    private final ReadCapacityLimiter readCapacity;
+    private final MetricLayout layout;
+    private final PackedMigration migration;
+    private final ReadThroughCache<String, Metric> cache;
+
+    public DynamoDBTemplateAdapter(DynamoDbEnhancedAsyncClient connectionFactory, DynamoDbAsyncClient client,
+                                   HotKeyDetector hotKeys, ReadCapacityLimiter readCapacity, MetricLayout layout,
+                                   PackedMigration migration, CacheSettings cacheSettings, HedgeSettings hedgeSettings,
+                                   MeterRegistry meterRegistry) {
+        super(connectionFactory, client, MetricEntity.TABLE_SCHEMA, MetricEntityMapper::toEntity,
+                MetricEntityMapper::toModel, "reporte_aprobados", hedgeSettings);
+        this.hotKeys = hotKeys;
+        this.readCapacity = readCapacity;
+        this.layout = layout;
+        this.migration = migration;
+        this.cache = new ReadThroughCache<>("metrics", cacheSettings, meterRegistry, this::readMetric);
+        inFlightReads().bindTo(meterRegistry);
+        hedgedReads().bindTo(meterRegistry);
     }
 
     @Override
     public Mono<Metric> saveMetric(Metric metric) {
-        return save(metric);
+        return save(metric).doOnSuccess(saved -> invalidate(metric.getName()));
+    }
+
+    /**
+     * Adds the delta to the item it lands on and returns that item as written. For a sharded
+     * counter that is a single shard, not the total: the shards are only added up when the
+     * counter is read, so a hot counter is not read back in full on every write.
+     */
+    @Override
+    public Mono<Metric> incrementMetric(Metric delta) {
+        String name = delta.getName();
+        if (isPacked(name)) {
+            PackedDay day = PackedDay.of(MetricBucket.parse(name).orElseThrow());
+            ItemUpdate<String> slot = slotUpdate(day.key(), Map.of(day.slot(), delta.getValue()));
+            return update(slot.id(), slot.expression(), slot.values(), slot.condition())
+                    .doOnSuccess(written -> invalidate(name))
+                    .map(written -> bucketOf(name, List.of(written), day));
+        }
+        int shard = hotKeys.shardFor(name);
+        return announceShards(name)
+                .then(update(shardKey(name, shard), ADD_VALUE, Map.of(":delta", number(delta.getValue()), ":one", ONE), null))
+                .doOnError(HotKeyDetector::isContended, e -> hotKeys.recordThrottle(name))
+                .doOnSuccess(updated -> invalidate(name))
+                .map(updated -> Metric.builder().name(name).value(updated.getValue()).version(updated.getVersion()).build());
+    }
+
+    @Override
+    public Mono<Void> incrementMetrics(List<Metric> deltas) {
+        List<String> names = deltas.stream().map(Metric::getName).distinct().toList();
+        return writeMetrics(deltas).doOnSuccess(written -> invalidateAll(names));
+    }
+
+    /**
+     * Adds every delta in one transaction: totals to their own items and, in the packed
+     * layout, bucket deltas to the slot attributes of their day items. Every update is a plain
+     * {@code ADD}, so nothing is read first and concurrent writers never invalidate each other;
+     * a transaction that lost to another one on the same items is sent again.
+     * <p>
+     * The shards are picked before the widths are announced, as in {@link #incrementMetric},
+     * so a shard count raised by picking them is persisted before anything lands on the new
+     * shards. A contended write only widens the totals whose items were contended.
+     */
+    private Mono<Void> writeMetrics(List<Metric> deltas) {
+        Map<Boolean, List<Metric>> byLayout = deltas.stream()
+                .collect(Collectors.partitioningBy(delta -> isPacked(delta.getName())));
+        Map<String, BigDecimal> byName = sumByName(byLayout.get(false));
+        Map<String, Map<Integer, BigDecimal>> slotsByDay = slotsByDay(byLayout.get(true));
+        return Mono.defer(() -> {
+                    List<ItemUpdate<String>> updates = new ArrayList<>(itemUpdates(byName));
+                    slotsByDay.forEach((key, slots) -> updates.add(slotUpdate(key, slots)));
+                    return Flux.fromIterable(byName.keySet())
+                            .concatMap(this::announceShards)
+                            .then(transactUpdate(updates))
+                            .doOnError(HotKeyDetector::isContended,
+                                    e -> contendedTotals(e, updates).forEach(hotKeys::recordThrottle));
+                })
+                .retryWhen(CONFLICT_RETRY);
+    }
+
+    /**
+     * Totals whose items the failed write was contended on. A cancelled transaction names the
+     * reason of every item; any other failure is attributed to every total written.
+     */
+    private static Set<String> contendedTotals(Throwable error, List<ItemUpdate<String>> updates) {
+        List<CancellationReason> reasons = error instanceof TransactionCanceledException canceled
+                && canceled.hasCancellationReasons() ? canceled.cancellationReasons() : List.of();
+        boolean perItem = reasons.size() == updates.size();
+        Set<String> totals = new LinkedHashSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            String name = baseName(updates.get(i).id());
+            if (isTotal(name) && (!perItem || HotKeyDetector.isContended(reasons.get(i)))) totals.add(name);
+        }
+        return totals;
+    }
+
+    /**
+     * Running totals are the only keys without a bucket or day suffix.
+     */
+    private static boolean isTotal(String name) {
+        return !name.contains(MetricBucket.SEPARATOR);
     }
 
     @Override
     public Mono<Metric> getMetric(String name) {
-        return getById(name);
+        return cache.get(name);
+    }
+
+    /**
+     * Drops the cached value after a write. The read in flight is forgotten first, so the
+     * reload cannot join a GetItem that started before the write and return the older value.
+     */
+    private void invalidate(String name) {
+        inFlightReads().forget(readKey(name));
+        cache.invalidate(name);
+    }
+
+    private void invalidateAll(List<String> names) {
+        names.forEach(name -> inFlightReads().forget(readKey(name)));
+        cache.invalidateAll(names);
+    }
+
+    private String readKey(String name) {
+        return isPacked(name) ? PackedDay.of(MetricBucket.parse(name).orElseThrow()).key() : name;
+    }
+
+    private Mono<Metric> readMetric(String name) {
+        if (isPacked(name)) {
+            MetricBucket bucket = MetricBucket.parse(name).orElseThrow();
+            PackedDay day = PackedDay.of(bucket);
+            if (!migration.hasItemBuckets(bucket.start())) {
+                return findById(day.key()).map(entity -> bucketOf(name, List.of(entity), day));
+            }
+            return batchGetById(List.of(day.key(), name)).collectList()
+                    .filter(items -> !items.isEmpty())
+                    .map(items -> bucketOf(name, items, day));
+        }
+        int width = hotKeys.readWidth(name);
+        if (width <= 1) {
+            return findById(name)
+                    .flatMap(base -> shardsOf(base) <= 1
+                            ? Mono.justOrEmpty(toModel(base))
+                            : completeShards(name, 1, List.of(base)));
+        }
+        return readShards(name, 0, width).collectList()
+                .filter(items -> !items.isEmpty())
+                .flatMap(items -> completeShards(name, width, items));
+    }
+
+    @Override
+    public Flux<Metric> getMetrics(Collection<String> names) {
+        Map<Boolean, List<String>> byLayout = names.stream().distinct()
+                .collect(Collectors.partitioningBy(this::isPacked));
+        return getItemMetrics(byLayout.get(false)).concatWith(getPackedMetrics(byLayout.get(true)));
+    }
+
+    private Flux<Metric> getItemMetrics(List<String> distinctNames) {
+        Map<String, Integer> widths = distinctNames.stream()
+                .collect(Collectors.toMap(Function.identity(), name -> Math.max(1, hotKeys.readWidth(name))));
+        List<String> keys = distinctNames.stream()
+                .flatMap(name -> IntStream.range(0, widths.get(name)).mapToObj(shard -> shardKey(name, shard)))
+                .toList();
+        return batchGetById(keys)
+                .collectMultimap(entity -> baseName(entity.getName()))
+                .flatMapMany(byName -> Flux.fromIterable(distinctNames)
+                        .filter(byName::containsKey)
+                        .concatMap(name -> completeShards(name, widths.get(name), List.copyOf(byName.get(name)))));
+    }
+
+    /**
+     * Generates the keys covering the range lazily and reads them a chunk at a time, so only
+     * one chunk of keys and items is held in memory whatever the length of the range.
+     */
+    @Override
+    public Flux<Metric> getBuckets(String name, Instant from, Instant to) {
+        Instant start = MetricBucket.startOf(from);
+        Flux<Metric> stored = layout == MetricLayout.PACKED
+                ? readPackedRange(name, start, to)
+                : readItemRange(name, start, to);
+        return stored
+                .map(bucket -> bucket.toBuilder()
+                        .name(name)
+                        .eventTime(MetricBucket.parse(bucket.getName()).orElseThrow().start())
+                        .build())
+                .filter(bucket -> !bucket.getEventTime().isBefore(start) && bucket.getEventTime().isBefore(to));
+    }
+
+    private Flux<Metric> readItemRange(String name, Instant start, Instant to) {
+        return instants(start, to, MetricBucket.SIZE)
+                .map(hour -> new MetricBucket(name, hour).key())
+                .buffer(RANGE_CHUNK_KEYS)
+                .concatMap(this::getItemMetrics, 1);
+    }
+
+    /**
+     * Reads the day items of the range. The hours written before the switch to the packed
+     * layout are also read from their bucket items, and both parts of an hour are added up.
+     */
+    private Flux<Metric> readPackedRange(String name, Instant start, Instant to) {
+        Flux<Metric> packed = instants(start.truncatedTo(ChronoUnit.DAYS), to, DAY)
+                .map(day -> PackedDay.of(new MetricBucket(name, day)).key())
+                .buffer(RANGE_CHUNK_KEYS)
+                .concatMap(keys -> batchGetById(keys)
+                        .collectMap(MetricEntity::getName)
+                        .flatMapIterable(stored -> keys.stream().filter(stored::containsKey).map(stored::get).toList()), 1)
+                .concatMapIterable(DynamoDBTemplateAdapter::unpack);
+        Instant itemsEnd = migration.itemBucketsEnd(start, to);
+        if (!itemsEnd.isAfter(start)) return packed;
+        return Flux.mergeComparing(BY_NAME, readItemRange(name, start, itemsEnd), packed)
+                .bufferUntilChanged(Metric::getName)
+                .map(DynamoDBTemplateAdapter::addUp);
+    }
+
+    private static Flux<Instant> instants(Instant start, Instant end, Duration step) {
+        return Flux.generate(() -> start, (next, sink) -> {
+            if (next.isBefore(end)) {
+                sink.next(next);
+            } else {
+                sink.complete();
+            }
+            return next.plus(step);
+        });
+    }
+
+    /**
+     * Exports every metric once, with its shards folded into it the way reads add them up:
+     * shard items are skipped by the scan and fetched again through the base item that
+     * announces them, so a spread counter is never exported as several metrics.
+     */
+    @Override
+    public Flux<Metric> scanMetrics(int segments) {
+        return provisionedReadCapacity()
+                .doOnNext(readCapacity::limitTo)
+                .thenMany(parallelScanItems(segments, readCapacity))
+                .filter(entity -> baseName(entity.getName()).equals(entity.getName()))
+                .concatMap(this::exported);
+    }
+
+    private Flux<Metric> exported(MetricEntity entity) {
+        if (entity.hasSlots()) return Flux.fromIterable(unpack(entity));
+        if (shardsOf(entity) > 1) return completeShards(entity.getName(), 1, List.of(entity)).flux();
+        return Flux.just(sum(entity.getName(), List.of(entity)));
+    }
+
+    private boolean isPacked(String name) {
+        return layout == MetricLayout.PACKED && MetricBucket.parse(name).isPresent();
+    }
+
+    private Flux<Metric> getPackedMetrics(List<String> names) {
+        Map<String, List<String>> keys = names.stream()
+                .collect(Collectors.toMap(Function.identity(), this::packedKeys));
+        return batchGetById(keys.values().stream().flatMap(List::stream).toList())
+                .collectMap(MetricEntity::getName)
+                .flatMapMany(stored -> Flux.fromIterable(names)
+                        .filter(name -> keys.get(name).stream().anyMatch(stored::containsKey))
+                        .map(name -> bucketOf(name, keys.get(name).stream().map(stored::get).filter(Objects::nonNull).toList(),
+                                PackedDay.of(MetricBucket.parse(name).orElseThrow()))));
+    }
+
+    /**
+     * Keys holding a packed bucket: its day item and, for an hour written before the switch to
+     * the packed layout, its own bucket item.
+     */
+    private List<String> packedKeys(String name) {
+        MetricBucket bucket = MetricBucket.parse(name).orElseThrow();
+        String day = PackedDay.of(bucket).key();
+        return migration.hasItemBuckets(bucket.start()) ? List.of(day, name) : List.of(day);
+    }
+
+    private List<ItemUpdate<String>> itemUpdates(Map<String, BigDecimal> byName) {
+        return byName.entrySet().stream()
+                .map(entry -> new ItemUpdate<>(shardKey(entry.getKey(), hotKeys.shardFor(entry.getKey())), ADD_VALUE,
+                        Map.of(":delta", number(entry.getValue()), ":one", ONE), null))
+                .toList();
+    }
+
+    /**
+     * Bucket deltas folded per day item and slot.
+     */
+    private static Map<String, Map<Integer, BigDecimal>> slotsByDay(List<Metric> bucketDeltas) {
+        Map<String, Map<Integer, BigDecimal>> slotsByDay = new LinkedHashMap<>();
+        sumByName(bucketDeltas).forEach((name, delta) -> {
+            PackedDay day = PackedDay.of(MetricBucket.parse(name).orElseThrow());
+            slotsByDay.computeIfAbsent(day.key(), key -> new TreeMap<>()).merge(day.slot(), delta, BigDecimal::add);
+        });
+        return slotsByDay;
+    }
+
+    /**
+     * Adds each delta to the numeric attribute of its slot and bumps the day version. ADD
+     * creates the item and the attributes that do not exist yet, so no read or condition is
+     * needed.
+     */
+    private static ItemUpdate<String> slotUpdate(String key, Map<Integer, BigDecimal> slots) {
+        StringJoiner expression = new StringJoiner(", ", "ADD ", ", " + VERSION_ATTRIBUTE + " :one");
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":one", ONE);
+        slots.forEach((slot, delta) -> {
+            String attribute = MetricEntity.slotAttribute(slot);
+            expression.add(attribute + " :" + attribute);
+            values.put(":" + attribute, number(delta));
+        });
+        return new ItemUpdate<>(key, expression.toString(), values, null);
+    }
+
+    /**
+     * A bucket read from its day item, plus its own bucket item when it was written before the
+     * switch to the packed layout. The day version is the bucket version: it changes whenever
+     * any bucket of that day is written, so it never misses a change of this one.
+     */
+    private static Metric bucketOf(String name, List<MetricEntity> stored, PackedDay day) {
+        BigDecimal value = BigDecimal.ZERO;
+        Long version = null;
+        for (MetricEntity item : stored) {
+            value = value.add(item.getName().equals(day.key())
+                    ? slots(item)[day.slot()]
+                    : Objects.requireNonNullElse(item.getValue(), BigDecimal.ZERO));
+            if (item.getVersion() != null) version = version == null ? item.getVersion() : version + item.getVersion();
+        }
+        return Metric.builder().name(name).value(value).version(version).build();
+    }
+
+    /**
+     * Slots of a day item, with zero for the hours never written.
+     */
+    private static BigDecimal[] slots(MetricEntity stored) {
+        BigDecimal[] slots = new BigDecimal[PackedDay.SLOTS];
+        for (int slot = 0; slot < PackedDay.SLOTS; slot++) {
+            slots[slot] = Objects.requireNonNullElse(stored.getSlot(slot), BigDecimal.ZERO);
+        }
+        return slots;
+    }
+
+    /**
+     * Expands a packed day item into one metric per non empty hourly bucket.
+     */
+    private static List<Metric> unpack(MetricEntity entity) {
+        int separator = entity.getName().lastIndexOf(MetricBucket.SEPARATOR);
+        String name = entity.getName().substring(0, separator);
+        Instant day = LocalDate.parse(entity.getName().substring(separator + 1)).atStartOfDay(ZoneOffset.UTC).toInstant();
+        BigDecimal[] slots = slots(entity);
+        List<Metric> metrics = new ArrayList<>();
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (slots[slot].signum() != 0) {
+                metrics.add(Metric.builder()
+                        .name(new MetricBucket(name, day.plus(MetricBucket.SIZE.multipliedBy(slot))).key())
+                        .value(slots[slot])
+                        .version(entity.getVersion())
+                        .build());
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Adds up the parts of one bucket read from both layouts.
+     */
+    private static Metric addUp(List<Metric> parts) {
+        if (parts.size() == 1) return parts.get(0);
+        return parts.get(0).toBuilder()
+                .value(parts.stream().map(Metric::getValue).filter(Objects::nonNull).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .version(parts.stream().map(Metric::getVersion).filter(Objects::nonNull).reduce(Long::sum).orElse(null))
+                .build();
+    }
+
+    private static Map<String, BigDecimal> sumByName(List<Metric> deltas) {
+        return deltas.stream()
+                .collect(Collectors.groupingBy(Metric::getName, LinkedHashMap::new,
+                        Collectors.reducing(BigDecimal.ZERO, Metric::getValue, BigDecimal::add)));
+    }
+
+    private Mono<Void> announceShards(String name) {
+        int width = hotKeys.pendingAnnouncement(name);
+        if (width == 0) return Mono.empty();
+        return update(name, "SET " + SHARDS_ATTRIBUTE + " = :width", Map.of(":width", number(BigDecimal.valueOf(width))),
+                "attribute_not_exists(" + SHARDS_ATTRIBUTE + ") OR " + SHARDS_ATTRIBUTE + " < :width")
+                .onErrorResume(ConditionalCheckFailedException.class, e -> Mono.empty())
+                .doOnSuccess(ignored -> hotKeys.markAnnounced(name, width))
+                .then();
+    }
+
+    /**
+     * Sums the shards already read, fetching the ones beyond {@code width} first when an item
+     * announces that writes were spread wider than this instance knew.
+     */
+    private Mono<Metric> completeShards(String name, int width, List<MetricEntity> items) {
+        int persisted = items.stream().mapToInt(DynamoDBTemplateAdapter::shardsOf).max().orElse(1);
+        if (persisted <= width) return Mono.just(sum(name, items));
+        hotKeys.observeReadWidth(name, persisted);
+        return readShards(name, width, persisted).concatWith(Flux.fromIterable(items)).collectList()
+                .map(all -> sum(name, all));
+    }
+
+    private Flux<MetricEntity> readShards(String name, int from, int to) {
+        return batchGetById(IntStream.range(from, to).mapToObj(shard -> shardKey(name, shard)).toList());
+    }
+
+    private static String shardKey(String name, int shard) {
+        return shard == 0 ? name : name + SHARD_SEPARATOR + shard;
+    }
+
+    private static String baseName(String key) {
+        int separator = key.lastIndexOf(SHARD_SEPARATOR);
+        return separator < 0 ? key : key.substring(0, separator);
+    }
+
+    private static int shardsOf(MetricEntity entity) {
+        return entity.getShards() == null ? 1 : entity.getShards();
+    }
+
+    /**
+     * Adds up the shards of a counter. Every write bumps the version of the shard it lands
+     * on, so the sum of the shard versions grows with every write to the counter.
+     */
+    private static Metric sum(String name, List<MetricEntity> items) {
+        BigDecimal total = items.stream()
+                .map(MetricEntity::getValue)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Long version = items.stream()
+                .map(MetricEntity::getVersion)
+                .filter(Objects::nonNull)
+                .reduce(Long::sum)
+                .orElse(null);
+        return Metric.builder().name(name).value(total).version(version).build();
+    }
+
+    private static AttributeValue number(BigDecimal value) {
+        return AttributeValue.builder().n(value.toPlainString()).build();
     }
 }
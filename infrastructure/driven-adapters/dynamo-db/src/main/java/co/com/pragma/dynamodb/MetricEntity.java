@@ -1,14 +1,32 @@
 package co.com.pragma.dynamodb;
 
-import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.*;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
 
 import java.math.BigDecimal;
 
-@DynamoDbBean
 public class MetricEntity {
 
+    public static final String NAME_ATTRIBUTE = "metrica";
+    public static final String VALUE_ATTRIBUTE = "valor";
+    public static final String SHARDS_ATTRIBUTE = "shards";
+    public static final String VERSION_ATTRIBUTE = "v";
+    /**
+     * Prefix of the numeric attribute holding one hourly slot of a packed day item.
+     */
+    public static final String SLOT_ATTRIBUTE_PREFIX = "h";
+
+    /**
+     * Schema built from explicit getters and setters, so neither startup nor item mapping
+     * goes through bean introspection.
+     */
+    public static final StaticTableSchema<MetricEntity> TABLE_SCHEMA = buildTableSchema();
+
     private String name;
     private BigDecimal value;
+    private Integer shards;
+    private BigDecimal[] slots;
+    private Long version;
 
     public MetricEntity() {
     }
@@ -18,8 +36,6 @@ public class MetricEntity {
         this.value = value;
     }
 
-    @DynamoDbPartitionKey
-    @DynamoDbAttribute("metrica")
     public String getName() {
         return name;
     }
@@ -28,7 +44,6 @@ public class MetricEntity {
         this.name = name;
     }
 
-    @DynamoDbAttribute("valor")
     public BigDecimal getValue() {
         return value;
     }
@@ -36,4 +51,65 @@ public class MetricEntity {
     public void setValue(BigDecimal value) {
         this.value = value;
     }
+
+    public Integer getShards() {
+        return shards;
+    }
+
+    public void setShards(Integer shards) {
+        this.shards = shards;
+    }
+
+    public BigDecimal getSlot(int slot) {
+        return slots == null ? null : slots[slot];
+    }
+
+    public void setSlot(int slot, BigDecimal value) {
+        if (slots == null) {
+            if (value == null) return;
+            slots = new BigDecimal[PackedDay.SLOTS];
+        }
+        slots[slot] = value;
+    }
+
+    public boolean hasSlots() {
+        return slots != null;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public static String slotAttribute(int slot) {
+        return SLOT_ATTRIBUTE_PREFIX + (slot < 10 ? "0" : "") + slot;
+    }
+
+    static StaticTableSchema<MetricEntity> buildTableSchema() {
+        StaticTableSchema.Builder<MetricEntity> schema = StaticTableSchema.builder(MetricEntity.class)
+                .newItemSupplier(MetricEntity::new)
+                .addAttribute(String.class, attribute -> attribute.name(NAME_ATTRIBUTE)
+                        .getter(MetricEntity::getName)
+                        .setter(MetricEntity::setName)
+                        .tags(StaticAttributeTags.primaryPartitionKey()))
+                .addAttribute(BigDecimal.class, attribute -> attribute.name(VALUE_ATTRIBUTE)
+                        .getter(MetricEntity::getValue)
+                        .setter(MetricEntity::setValue))
+                .addAttribute(Integer.class, attribute -> attribute.name(SHARDS_ATTRIBUTE)
+                        .getter(MetricEntity::getShards)
+                        .setter(MetricEntity::setShards))
+                .addAttribute(Long.class, attribute -> attribute.name(VERSION_ATTRIBUTE)
+                        .getter(MetricEntity::getVersion)
+                        .setter(MetricEntity::setVersion));
+        for (int slot = 0; slot < PackedDay.SLOTS; slot++) {
+            int index = slot;
+            schema.addAttribute(BigDecimal.class, attribute -> attribute.name(slotAttribute(index))
+                    .getter(entity -> entity.getSlot(index))
+                    .setter((entity, value) -> entity.setSlot(index, value)));
+        }
+        return schema.build();
+    }
 }
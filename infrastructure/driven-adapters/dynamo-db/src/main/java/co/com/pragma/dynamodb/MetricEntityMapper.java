@@ -0,0 +1,23 @@
+package co.com.pragma.dynamodb;
+
+import co.com.pragma.model.metric.Metric;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class MetricEntityMapper {
+
+    public static MetricEntity toEntity(Metric metric) {
+        MetricEntity entity = new MetricEntity(metric.getName(), metric.getValue());
+        entity.setVersion(metric.getVersion());
+        return entity;
+    }
+
+    public static Metric toModel(MetricEntity entity) {
+        return Metric.builder()
+                .name(entity.getName())
+                .value(entity.getValue())
+                .version(entity.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package co.com.pragma.dynamodb;
+
+/**
+ * How hourly buckets are stored: one item per bucket, or one packed item per series and day.
+ * Running totals always keep one item per metric.
+ */
+public enum MetricLayout {
+    ITEM,
+    PACKED
+}
@@ -0,0 +1,23 @@
+package co.com.pragma.dynamodb;
+
+import co.com.pragma.model.metric.MetricBucket;
+
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Location of an hourly bucket in the packed layout: the item holding the whole UTC day of
+ * the series, keyed by {@code <metric>@<yyyy-MM-dd>}, and the slot of the hour inside it.
+ */
+public record PackedDay(String key, int slot) {
+
+    public static final int SLOTS = 24;
+
+    private static final DateTimeFormatter KEY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd")
+            .withZone(ZoneOffset.UTC);
+
+    public static PackedDay of(MetricBucket bucket) {
+        return new PackedDay(bucket.name() + MetricBucket.SEPARATOR + KEY_FORMAT.format(bucket.start()),
+                bucket.start().atZone(ZoneOffset.UTC).getHour());
+    }
+}
@@ -0,0 +1,27 @@
+package co.com.pragma.dynamodb;
+
+import java.time.Instant;
+
+/**
+ * When the table switched to the packed layout. Hourly buckets starting before that instant
+ * may still live in their own items, so reads add those items to the packed slots; with no
+ * instant every bucket is read from its day item only.
+ */
+public record PackedMigration(Instant packedSince) {
+
+    public static PackedMigration none() {
+        return new PackedMigration(null);
+    }
+
+    public boolean hasItemBuckets(Instant hour) {
+        return packedSince != null && hour.isBefore(packedSince);
+    }
+
+    /**
+     * End of the part of {@code [from, to)} that may still have bucket items.
+     */
+    public Instant itemBucketsEnd(Instant from, Instant to) {
+        if (packedSince == null || !from.isBefore(packedSince)) return from;
+        return to.isBefore(packedSince) ? to : packedSince;
+    }
+}
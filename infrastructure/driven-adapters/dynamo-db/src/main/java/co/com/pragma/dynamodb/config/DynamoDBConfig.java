@@ -1,5 +1,11 @@
 package co.com.pragma.dynamodb.config;
 
+import co.com.pragma.dynamodb.MetricLayout;
+import co.com.pragma.dynamodb.PackedMigration;
+import co.com.pragma.dynamodb.helper.CacheSettings;
+import co.com.pragma.dynamodb.helper.HedgeSettings;
+import co.com.pragma.dynamodb.helper.HotKeyDetector;
+import co.com.pragma.dynamodb.helper.ReadCapacityLimiter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,6 +17,8 @@ import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
 
 @Configuration
 public class DynamoDBConfig {
@@ -51,6 +59,44 @@ public class DynamoDBConfig {
                 .build();
     }
 
+    @Bean
+    public HotKeyDetector hotKeyDetector(@Value("${aws.dynamodb.sharding.hot-writes-per-second:200}") long hotWritesPerSecond,
+                                         @Value("${aws.dynamodb.sharding.max-shards:10}") int maxShards,
+                                         @Value("${aws.dynamodb.sharding.cool-down-seconds:300}") long coolDownSeconds) {
+        return new HotKeyDetector(hotWritesPerSecond, maxShards, Duration.ofSeconds(coolDownSeconds));
+    }
+
+    @Bean
+    public ReadCapacityLimiter readCapacityLimiter(@Value("${aws.dynamodb.scan.read-capacity-utilization:1.0}") double utilization,
+                                                   @Value("${aws.dynamodb.scan.on-demand-read-units-per-second:1000}") double onDemandUnitsPerSecond) {
+        return new ReadCapacityLimiter(utilization, onDemandUnitsPerSecond);
+    }
+
+    @Bean
+    public MetricLayout metricLayout(@Value("${aws.dynamodb.layout:ITEM}") MetricLayout layout) {
+        return layout;
+    }
+
+    @Bean
+    public PackedMigration packedMigration(@Value("${aws.dynamodb.packed-since:}") String packedSince) {
+        return packedSince.isBlank() ? PackedMigration.none() : new PackedMigration(Instant.parse(packedSince));
+    }
+
+    @Bean
+    public CacheSettings metricCacheSettings(@Value("${aws.dynamodb.cache.maximum-size:10000}") long maximumSize,
+                                             @Value("${aws.dynamodb.cache.refresh-after-write-seconds:5}") long refreshSeconds,
+                                             @Value("${aws.dynamodb.cache.expire-after-write-seconds:60}") long expireSeconds) {
+        return new CacheSettings(maximumSize, Duration.ofSeconds(refreshSeconds), Duration.ofSeconds(expireSeconds));
+    }
+
+    @Bean
+    public HedgeSettings metricHedgeSettings(@Value("${aws.dynamodb.hedging.enabled:false}") boolean enabled,
+                                             @Value("${aws.dynamodb.hedging.percentile:0.95}") double percentile,
+                                             @Value("${aws.dynamodb.hedging.budget-percent:5}") double budgetPercent,
+                                             @Value("${aws.dynamodb.hedging.minimum-delay-millis:5}") long minimumDelayMillis) {
+        return new HedgeSettings(enabled, percentile, budgetPercent / 100, Duration.ofMillis(minimumDelayMillis));
+    }
+
     @Bean
     public DynamoDbEnhancedAsyncClient getDynamoDbEnhancedAsyncClient(DynamoDbAsyncClient client) {
         return DynamoDbEnhancedAsyncClient.builder()
@@ -0,0 +1,19 @@
+package co.com.pragma.dynamodb.helper;
+
+import java.time.Duration;
+
+/**
+ * Bounds of a {@link ReadThroughCache}: entries are reloaded in the background once older than
+ * {@code refreshAfterWrite} and never served once older than {@code expireAfterWrite}.
+ */
+public record CacheSettings(long maximumSize, Duration refreshAfterWrite, Duration expireAfterWrite) {
+
+    public CacheSettings {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative");
+        }
+        if (refreshAfterWrite.compareTo(expireAfterWrite) >= 0) {
+            throw new IllegalArgumentException("refreshAfterWrite must be shorter than expireAfterWrite");
+        }
+    }
+}
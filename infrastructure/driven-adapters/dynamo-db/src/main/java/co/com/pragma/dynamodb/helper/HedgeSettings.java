@@ -0,0 +1,24 @@
+package co.com.pragma.dynamodb.helper;
+
+import java.time.Duration;
+
+/**
+ * Tuning of {@link HedgedReads}: a second read is sent once the first has been outstanding for
+ * longer than the {@code percentile} of recent read latencies, never sooner than
+ * {@code minimumDelay}, and hedges are kept to {@code budgetRatio} of all reads.
+ */
+public record HedgeSettings(boolean enabled, double percentile, double budgetRatio, Duration minimumDelay) {
+
+    public HedgeSettings {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1");
+        }
+        if (budgetRatio < 0 || budgetRatio > 1) {
+            throw new IllegalArgumentException("budgetRatio must be between 0 and 1");
+        }
+    }
+
+    public static HedgeSettings disabled() {
+        return new HedgeSettings(false, 0.95, 0, Duration.ZERO);
+    }
+}
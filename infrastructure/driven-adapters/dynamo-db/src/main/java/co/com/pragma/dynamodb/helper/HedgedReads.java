@@ -0,0 +1,126 @@
+package co.com.pragma.dynamodb.helper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second copy of a read when the first is slower than usual and keeps whichever answers
+ * first, cancelling the other. "Slower than usual" is the configured percentile of the latest
+ * {@value #WINDOW} read latencies, so the threshold follows the table; no read is hedged until
+ * {@value #MIN_SAMPLES} latencies have been seen. Every read earns {@code budgetRatio} of a
+ * hedge and every hedge spends a whole one, which caps hedges at that share of the traffic
+ * even while the table is slow for everyone.
+ */
+public class HedgedReads<V> implements MeterBinder {
+
+    static final int MIN_SAMPLES = 100;
+    private static final int WINDOW = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+    private static final double MAX_SAVED_HEDGES = 10;
+    private static final double GET_ITEM_READ_UNITS = 0.5;
+
+    private final String name;
+    private final HedgeSettings settings;
+    private final LongSupplier clock;
+    private final long[] latencies = new long[WINDOW];
+    private long recorded;
+    private double savedHedges;
+    private volatile long thresholdNanos;
+    private volatile Timer servedLatency;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder won = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+
+    public HedgedReads(String name, HedgeSettings settings) {
+        this(name, settings, System::nanoTime);
+    }
+
+    HedgedReads(String name, HedgeSettings settings, LongSupplier clock) {
+        this.name = name;
+        this.settings = settings;
+        this.clock = clock;
+    }
+
+    public Mono<V> execute(Supplier<Mono<V>> read) {
+        if (!settings.enabled()) return read.get();
+        return Mono.defer(() -> {
+            long start = clock.getAsLong();
+            earnHedge();
+            // A primary cancelled because the hedge won took at least this long, which keeps the tail in the window
+            Mono<V> primary = read.get()
+                    .doOnSuccess(value -> record(clock.getAsLong() - start))
+                    .doOnCancel(() -> record(clock.getAsLong() - start));
+            long threshold = thresholdNanos;
+            Mono<V> served = threshold == 0 ? primary : Mono.firstWithSignal(primary, Mono.delay(Duration.ofNanos(threshold))
+                    .flatMap(tick -> spendHedge()
+                            ? read.get().doOnSuccess(value -> won.increment())
+                            : Mono.<V>never()));
+            return served.doOnSuccess(value -> {
+                Timer timer = servedLatency;
+                if (timer != null) timer.record(clock.getAsLong() - start, TimeUnit.NANOSECONDS);
+            });
+        });
+    }
+
+    Duration threshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    synchronized void record(long latencyNanos) {
+        latencies[(int) (recorded % WINDOW)] = latencyNanos;
+        recorded++;
+        if (recorded == MIN_SAMPLES || recorded > MIN_SAMPLES && recorded % RECOMPUTE_EVERY == 0) {
+            long[] window = Arrays.copyOf(latencies, (int) Math.min(recorded, WINDOW));
+            Arrays.sort(window);
+            long percentile = window[(int) Math.ceil(settings.percentile() * window.length) - 1];
+            thresholdNanos = Math.max(settings.minimumDelay().toNanos(), Math.max(1, percentile));
+        }
+    }
+
+    private synchronized void earnHedge() {
+        savedHedges = Math.min(MAX_SAVED_HEDGES, savedHedges + settings.budgetRatio());
+    }
+
+    private synchronized boolean spendHedge() {
+        if (savedHedges < 1) {
+            denied.increment();
+            return false;
+        }
+        savedHedges -= 1;
+        sent.increment();
+        return true;
+    }
+
+    /**
+     * Publishes the latency of the reads as served, with p95 and p99, next to how many hedges
+     * were sent, won or denied by the budget and the read units the hedges consumed.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        servedLatency = Timer.builder("dynamodb.read.latency")
+                .tag("name", name)
+                .publishPercentiles(0.95, 0.99)
+                .register(registry);
+        FunctionCounter.builder("dynamodb.hedge.requests", sent, LongAdder::doubleValue)
+                .tag("name", name).tag("result", "sent").register(registry);
+        FunctionCounter.builder("dynamodb.hedge.requests", won, LongAdder::doubleValue)
+                .tag("name", name).tag("result", "won").register(registry);
+        FunctionCounter.builder("dynamodb.hedge.requests", denied, LongAdder::doubleValue)
+                .tag("name", name).tag("result", "denied").register(registry);
+        FunctionCounter.builder("dynamodb.hedge.consumed.read.units", sent, hedges -> hedges.doubleValue() * GET_ITEM_READ_UNITS)
+                .tag("name", name).register(registry);
+        Gauge.builder("dynamodb.hedge.threshold", this, hedged -> hedged.thresholdNanos / 1e9)
+                .tag("name", name).baseUnit("seconds").register(registry);
+    }
+}
@@ -0,0 +1,174 @@
+package co.com.pragma.dynamodb.helper;
+
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionConflictException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the write rate of every partition key and decides across how many shard items
+ * its increments are spread. Keys double their shard count when they run hot or get
+ * throttled and halve it again after a cool down; the read width never shrinks, so
+ * values already written to a retired shard keep being summed.
+ */
+public class HotKeyDetector {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_TRACKED_KEYS = 10_000;
+    private static final Set<String> THROTTLING_REASONS = Set.of("ThrottlingError", "ProvisionedThroughputExceeded");
+    private static final String TRANSACTION_CONFLICT = "TransactionConflict";
+
+    private final long hotWritesPerSecond;
+    private final int maxShards;
+    private final long coolDownNanos;
+    private final LongSupplier clock;
+    private final Map<String, KeyState> keys = new ConcurrentHashMap<>();
+
+    public HotKeyDetector(long hotWritesPerSecond, int maxShards, Duration coolDown) {
+        this(hotWritesPerSecond, maxShards, coolDown, System::nanoTime);
+    }
+
+    HotKeyDetector(long hotWritesPerSecond, int maxShards, Duration coolDown, LongSupplier clock) {
+        this.hotWritesPerSecond = hotWritesPerSecond;
+        this.maxShards = Math.max(1, maxShards);
+        this.coolDownNanos = coolDown.toNanos();
+        this.clock = clock;
+    }
+
+    public int shardFor(String key) {
+        KeyState state = state(key);
+        state.record(clock.getAsLong());
+        int shards = state.shards;
+        return shards == 1 ? 0 : ThreadLocalRandom.current().nextInt(shards);
+    }
+
+    public void recordThrottle(String key) {
+        state(key).scaleUp(clock.getAsLong());
+    }
+
+    public int shardCount(String key) {
+        KeyState state = keys.get(key);
+        return state == null ? 1 : state.shards;
+    }
+
+    public int readWidth(String key) {
+        KeyState state = keys.get(key);
+        return state == null ? 1 : state.readWidth.get();
+    }
+
+    public void observeReadWidth(String key, int width) {
+        state(key).readWidth.accumulateAndGet(width, Math::max);
+    }
+
+    /**
+     * Shard count that has to be persisted on the base item before writing to the new
+     * shards, or zero when readers already know about every shard in use.
+     */
+    public int pendingAnnouncement(String key) {
+        KeyState state = keys.get(key);
+        if (state == null) return 0;
+        int shards = state.shards;
+        return shards > state.announced.get() ? shards : 0;
+    }
+
+    public void markAnnounced(String key, int width) {
+        KeyState state = state(key);
+        state.announced.accumulateAndGet(width, Math::max);
+        state.readWidth.accumulateAndGet(width, Math::max);
+    }
+
+    public static boolean isThrottling(Throwable error) {
+        if (error instanceof TransactionCanceledException canceled && canceled.hasCancellationReasons()) {
+            return canceled.cancellationReasons().stream()
+                    .anyMatch(reason -> THROTTLING_REASONS.contains(reason.code()));
+        }
+        return error instanceof ProvisionedThroughputExceededException
+                || error instanceof AwsServiceException serviceException && serviceException.isThrottlingException();
+    }
+
+    /**
+     * Whether a write was rejected because another transaction was writing the same items. The
+     * rejected write applied nothing, so it can be sent again, and the conflict points at
+     * a hot key just like a throttle does.
+     */
+    public static boolean isTransactionConflict(Throwable error) {
+        if (error instanceof TransactionConflictException) return true;
+        return error instanceof TransactionCanceledException canceled && canceled.hasCancellationReasons()
+                && canceled.cancellationReasons().stream().anyMatch(reason -> TRANSACTION_CONFLICT.equals(reason.code()));
+    }
+
+    public static boolean isContended(Throwable error) {
+        return isThrottling(error) || isTransactionConflict(error);
+    }
+
+    /**
+     * Whether one item of a cancelled transaction was throttled or written by another one.
+     */
+    public static boolean isContended(CancellationReason reason) {
+        return THROTTLING_REASONS.contains(reason.code()) || TRANSACTION_CONFLICT.equals(reason.code());
+    }
+
+    private KeyState state(String key) {
+        KeyState state = keys.get(key);
+        if (state != null) return state;
+        if (keys.size() >= MAX_TRACKED_KEYS) {
+            long now = clock.getAsLong();
+            keys.values().removeIf(candidate -> candidate.isIdle(now));
+        }
+        return keys.computeIfAbsent(key, k -> new KeyState(clock.getAsLong()));
+    }
+
+    private final class KeyState {
+        private final AtomicLong writes = new AtomicLong();
+        private final AtomicInteger announced = new AtomicInteger(1);
+        private final AtomicInteger readWidth = new AtomicInteger(1);
+        private volatile int shards = 1;
+        private volatile long windowStart;
+        private volatile long lastHot;
+
+        private KeyState(long now) {
+            this.windowStart = now;
+            this.lastHot = now;
+        }
+
+        private void record(long now) {
+            writes.incrementAndGet();
+            if (now - windowStart >= WINDOW_NANOS) {
+                roll(now);
+            }
+        }
+
+        private synchronized void roll(long now) {
+            long elapsed = now - windowStart;
+            if (elapsed < WINDOW_NANOS) return;
+            double rate = writes.getAndSet(0) * (double) WINDOW_NANOS / elapsed;
+            windowStart = now;
+            if (rate >= hotWritesPerSecond) {
+                scaleUp(now);
+            } else if (shards > 1 && rate < hotWritesPerSecond / 4.0 && now - lastHot >= coolDownNanos) {
+                shards = Math.max(1, shards / 2);
+                lastHot = now;
+            }
+        }
+
+        private synchronized void scaleUp(long now) {
+            shards = Math.min(maxShards, shards * 2);
+            lastHot = now;
+        }
+
+        private boolean isIdle(long now) {
+            return shards == 1 && readWidth.get() == 1 && now - windowStart >= coolDownNanos;
+        }
+    }
+}
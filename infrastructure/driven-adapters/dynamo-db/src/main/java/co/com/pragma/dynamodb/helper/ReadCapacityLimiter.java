@@ -0,0 +1,63 @@
+package co.com.pragma.dynamodb.helper;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Paces bulk reads so that the read capacity they consume stays at the configured share of
+ * the table's provisioned throughput. Every caller reserves the units it just consumed and is
+ * delayed until the budget they represent has been earned, so concurrent scans share the
+ * same budget instead of each one using it up.
+ */
+public class ReadCapacityLimiter {
+
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double utilization;
+    private final double onDemandUnitsPerSecond;
+    private final LongSupplier clock;
+    private double unitsPerSecond;
+    private long nextFreeNanos;
+
+    public ReadCapacityLimiter(double utilization, double onDemandUnitsPerSecond) {
+        this(utilization, onDemandUnitsPerSecond, System::nanoTime);
+    }
+
+    ReadCapacityLimiter(double utilization, double onDemandUnitsPerSecond, LongSupplier clock) {
+        this.utilization = utilization;
+        this.onDemandUnitsPerSecond = onDemandUnitsPerSecond;
+        this.unitsPerSecond = onDemandUnitsPerSecond;
+        this.clock = clock;
+        this.nextFreeNanos = clock.getAsLong();
+    }
+
+    /**
+     * Adopts the provisioned read capacity of the table. Tables billed on demand report no
+     * provisioned capacity and keep the configured on-demand rate.
+     */
+    public synchronized void limitTo(Long provisionedUnitsPerSecond) {
+        unitsPerSecond = provisionedUnitsPerSecond != null && provisionedUnitsPerSecond > 0
+                ? provisionedUnitsPerSecond * utilization
+                : onDemandUnitsPerSecond;
+    }
+
+    public synchronized double unitsPerSecond() {
+        return unitsPerSecond;
+    }
+
+    public Mono<Void> acquire(double units) {
+        long delay = reserve(units);
+        return delay > 0 ? Mono.delay(Duration.ofNanos(delay)).then() : Mono.empty();
+    }
+
+    synchronized long reserve(double units) {
+        if (unitsPerSecond <= 0 || units <= 0) return 0;
+        long now = clock.getAsLong();
+        long start = Math.max(now, nextFreeNanos);
+        nextFreeNanos = start + (long) (units / unitsPerSecond * SECOND_NANOS);
+        return start - now;
+    }
+}
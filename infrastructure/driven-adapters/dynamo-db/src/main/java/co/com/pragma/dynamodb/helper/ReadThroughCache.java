@@ -0,0 +1,50 @@
+package co.com.pragma.dynamodb.helper;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * In-process read-through cache over a reactive loader. Concurrent misses on a key share one
+ * load, entries past the refresh age keep being served while a reload runs in the background,
+ * and loads that complete empty are not cached. Hits, misses, load latency and evictions are
+ * published through Micrometer under the given cache name.
+ * <p>
+ * Writes made by this instance should invalidate the keys they touch; writes made by other
+ * instances are only seen after the next refresh, so {@code expireAfterWrite} bounds staleness.
+ */
+public class ReadThroughCache<K, V> {
+
+    private final AsyncLoadingCache<K, V> cache;
+
+    public ReadThroughCache(String name, CacheSettings settings, MeterRegistry registry, Function<K, Mono<V>> loader) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.maximumSize())
+                .refreshAfterWrite(settings.refreshAfterWrite())
+                .expireAfterWrite(settings.expireAfterWrite())
+                .recordStats()
+                .buildAsync((key, executor) -> loader.apply(key).toFuture());
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+
+    /**
+     * The cached value, loading it on a miss. Cancelling the returned Mono does not cancel a
+     * load other subscribers may be waiting on.
+     */
+    public Mono<V> get(K key) {
+        return Mono.fromFuture(() -> cache.get(key), true);
+    }
+
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    public void invalidateAll(Collection<K> keys) {
+        cache.synchronous().invalidateAll(keys);
+    }
+}
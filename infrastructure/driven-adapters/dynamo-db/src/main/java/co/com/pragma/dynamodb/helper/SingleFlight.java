@@ -0,0 +1,77 @@
+package co.com.pragma.dynamodb.helper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent calls for the same key into one: the first caller starts the call and
+ * everyone arriving while it is in flight subscribes to the same cached result. The key is
+ * released as soon as the call terminates, so later callers always start a fresh call and
+ * errors are never replayed beyond the callers that were already waiting.
+ * <p>
+ * A call in flight may have started before a write to what it reads. Writers {@link #forget}
+ * the key once the write is done, so only callers that arrived before it share the older call.
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    private final String name;
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public Mono<V> execute(K key, Function<K, Mono<V>> call) {
+        return Mono.defer(() -> {
+            boolean[] leader = new boolean[1];
+            Mono<V> flight = inFlight.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                return flight(k, call);
+            });
+            (leader[0] ? executed : shared).increment();
+            return flight;
+        });
+    }
+
+    /**
+     * Makes callers arriving from now on start a fresh call instead of joining the one in
+     * flight; callers already waiting on it still get its result.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private Mono<V> flight(K key, Function<K, Mono<V>> call) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> flight = call.apply(key)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(flight);
+        return flight;
+    }
+
+    /**
+     * Publishes how many calls were executed and how many were served by a call already in
+     * flight; {@code shared / (executed + shared)} is the dedup ratio.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("singleflight.requests", executed, LongAdder::doubleValue)
+                .tag("name", name).tag("result", "executed").register(registry);
+        FunctionCounter.builder("singleflight.requests", shared, LongAdder::doubleValue)
+                .tag("name", name).tag("result", "shared").register(registry);
+        Gauge.builder("singleflight.in.flight", inFlight, Map::size)
+                .tag("name", name).register(registry);
+    }
+}
@@ -1,6 +1,6 @@
 package co.com.pragma.dynamodb.helper;
 
-import org.reactivecommons.utils.ObjectMapper;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import software.amazon.awssdk.core.async.SdkPublisher;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncIndex;
@@ -9,33 +9,75 @@ import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.model.Page;
-import software.amazon.awssdk.enhanced.dynamodb.model.PagePublisher;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputDescription;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 
-import java.lang.reflect.ParameterizedType;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 public abstract class TemplateAdapterOperations<E, K, V> {
-    private final Class<V> dataClass;
+    private static final int MAX_BATCH_KEYS = 100;
+    private static final int MAX_BATCH_ATTEMPTS = 5;
+    private static final Duration BATCH_BACKOFF = Duration.ofMillis(50);
+    private static final int MAX_TRANSACT_ITEMS = 100;
+    private static final double EVENTUALLY_CONSISTENT_ITEM_UNITS = 0.5;
+
+    private final Function<E, V> toDataFn;
     private final Function<V, E> toEntityFn;
-    protected ObjectMapper mapper;
+    private final DynamoDbAsyncClient client;
+    private final String tableName;
+    private final TableSchema<V> tableSchema;
     private final DynamoDbAsyncTable<V> table;
     private final DynamoDbAsyncIndex<V> tableByIndex;
+    private final SingleFlight<K, V> inFlightReads;
+    private final HedgedReads<V> hedgedReads;
+
+    protected TemplateAdapterOperations(DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient,
+                                        DynamoDbAsyncClient client,
+                                        TableSchema<V> tableSchema,
+                                        Function<E, V> toDataFn,
+                                        Function<V, E> toEntityFn,
+                                        String tableName,
+                                        String... index) {
+        this(dynamoDbEnhancedAsyncClient, client, tableSchema, toDataFn, toEntityFn, tableName,
+                HedgeSettings.disabled(), index);
+    }
 
-    @SuppressWarnings("unchecked")
     protected TemplateAdapterOperations(DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient,
-                                        ObjectMapper mapper,
+                                        DynamoDbAsyncClient client,
+                                        TableSchema<V> tableSchema,
+                                        Function<E, V> toDataFn,
                                         Function<V, E> toEntityFn,
                                         String tableName,
+                                        HedgeSettings hedgeSettings,
                                         String... index) {
+        this.toDataFn = toDataFn;
         this.toEntityFn = toEntityFn;
-        this.mapper = mapper;
-        ParameterizedType genericSuperclass = (ParameterizedType) this.getClass().getGenericSuperclass();
-        this.dataClass = (Class<V>) genericSuperclass.getActualTypeArguments()[2];
-        table = dynamoDbEnhancedAsyncClient.table(tableName, TableSchema.fromBean(dataClass));
+        this.client = client;
+        this.tableName = tableName;
+        this.tableSchema = tableSchema;
+        table = dynamoDbEnhancedAsyncClient.table(tableName, tableSchema);
         tableByIndex = index.length > 0 ? table.index(index[0]) : null;
+        inFlightReads = new SingleFlight<>(tableName);
+        hedgedReads = new HedgedReads<>(tableName, hedgeSettings);
     }
 
     public Mono<E> save(E model) {
@@ -43,10 +85,7 @@ public abstract class TemplateAdapterOperations<E, K, V> {
     }
 
     public Mono<E> getById(K id) {
-        return Mono.fromFuture(table.getItem(Key.builder()
-                        .partitionValue(AttributeValue.builder().s((String) id).build())
-                        .build()))
-                .map(this::toModel);
+        return findById(id).map(this::toModel);
     }
 
     public Mono<E> delete(E model) {
@@ -54,30 +93,203 @@ public abstract class TemplateAdapterOperations<E, K, V> {
     }
 
     public Mono<List<E>> query(QueryEnhancedRequest queryExpression) {
-        PagePublisher<V> pagePublisher = table.query(queryExpression);
-        return listOfModel(pagePublisher);
+        return streamQuery(queryExpression).collectList();
     }
 
     public Mono<List<E>> queryByIndex(QueryEnhancedRequest queryExpression, String... index) {
+        return streamQueryByIndex(queryExpression, index).collectList();
+    }
+
+    /**
+     * Streams every page of the query, fetching the next page only once the items of the
+     * current one have been requested downstream.
+     */
+    public Flux<E> streamQuery(QueryEnhancedRequest queryExpression) {
+        return itemsOf(table.query(queryExpression));
+    }
+
+    public Flux<E> streamQuery(QueryConditional condition, int pageSize, String... projection) {
+        return streamQuery(pagedQuery(condition, pageSize, projection));
+    }
+
+    public Flux<E> streamQueryByIndex(QueryEnhancedRequest queryExpression, String... index) {
         DynamoDbAsyncIndex<V> queryIndex = index.length > 0 ? table.index(index[0]) : tableByIndex;
+        return itemsOf(queryIndex.query(queryExpression));
+    }
+
+    public Flux<E> streamQueryByIndex(QueryConditional condition, int pageSize, String index, String... projection) {
+        return streamQueryByIndex(pagedQuery(condition, pageSize, projection), index);
+    }
+
+    /**
+     * Scans the whole table as {@code totalSegments} parallel segments merged into one stream.
+     * Each segment requests its next page only after the capacity consumed by the previous
+     * one has been paced through the limiter, and only as downstream demand allows.
+     */
+    public Flux<E> parallelScan(int totalSegments, ReadCapacityLimiter readCapacity) {
+        return parallelScanItems(totalSegments, readCapacity).map(this::toModel);
+    }
+
+    protected Flux<V> parallelScanItems(int totalSegments, ReadCapacityLimiter readCapacity) {
+        return Flux.range(0, totalSegments)
+                .flatMap(segment -> scanSegment(segment, totalSegments, readCapacity), totalSegments, 1);
+    }
+
+    /**
+     * Provisioned read capacity of the table, or zero when it is billed on demand.
+     */
+    protected Mono<Long> provisionedReadCapacity() {
+        return Mono.fromFuture(() -> client.describeTable(DescribeTableRequest.builder().tableName(tableName).build()))
+                .map(response -> Optional.ofNullable(response.table().provisionedThroughput())
+                        .map(ProvisionedThroughputDescription::readCapacityUnits)
+                        .orElse(0L));
+    }
 
-        SdkPublisher<Page<V>> pagePublisher = queryIndex.query(queryExpression);
-        return listOfModel(pagePublisher);
+    /**
+     * Reads one item; concurrent reads of the same key share a single GetItem, which is hedged
+     * when hedging is enabled and the read is slower than usual.
+     */
+    protected Mono<V> findById(K id) {
+        return inFlightReads.execute(id, key -> hedgedReads.execute(() -> Mono.fromFuture(() -> table.getItem(keyOf(key)))));
     }
 
-    private Mono<List<E>> listOfModel(PagePublisher<V> pagePublisher) {
-        return Mono.from(pagePublisher).map(page -> page.items().stream().map(this::toModel).toList());
+    protected SingleFlight<K, V> inFlightReads() {
+        return inFlightReads;
     }
 
-    private Mono<List<E>> listOfModel(SdkPublisher<Page<V>> pagePublisher) {
-        return Mono.from(pagePublisher).map(page -> page.items().stream().map(this::toModel).toList());
+    protected HedgedReads<V> hedgedReads() {
+        return hedgedReads;
+    }
+
+    public Flux<E> getByIds(Collection<K> ids) {
+        return batchGetById(ids).map(this::toModel);
+    }
+
+    /**
+     * Reads the items with BatchGetItem in chunks of 100 distinct keys, retrying unprocessed
+     * keys with backoff. Missing items are simply absent from the result.
+     */
+    protected Flux<V> batchGetById(Collection<K> ids) {
+        return Flux.fromIterable(ids)
+                .distinct()
+                .buffer(MAX_BATCH_KEYS)
+                .concatMap(chunk -> batchGetItems(Map.of(tableName, KeysAndAttributes.builder()
+                        .keys(chunk.stream().map(id -> keyOf(id).primaryKeyMap(tableSchema)).toList())
+                        .build()), 1))
+                .map(tableSchema::mapToItem);
+    }
+
+    /**
+     * Applies an update expression to a single item and returns it as stored afterwards.
+     */
+    protected Mono<V> update(K id, String updateExpression, Map<String, AttributeValue> values, String condition) {
+        UpdateItemRequest request = UpdateItemRequest.builder()
+                .tableName(tableName)
+                .key(keyOf(id).primaryKeyMap(tableSchema))
+                .updateExpression(updateExpression)
+                .conditionExpression(condition)
+                .expressionAttributeValues(values)
+                .returnValues(ReturnValue.ALL_NEW)
+                .build();
+        return Mono.fromFuture(() -> client.updateItem(request))
+                .map(response -> tableSchema.mapToItem(response.attributes()));
+    }
+
+    /**
+     * Applies every update atomically in one round trip: a plain UpdateItem for a single
+     * item, TransactWriteItems otherwise.
+     */
+    protected Mono<Void> transactUpdate(List<ItemUpdate<K>> updates) {
+        if (updates.isEmpty()) return Mono.empty();
+        if (updates.size() == 1) {
+            ItemUpdate<K> single = updates.get(0);
+            return update(single.id(), single.expression(), single.values(), single.condition()).then();
+        }
+        if (updates.size() > MAX_TRANSACT_ITEMS) {
+            return Mono.error(new IllegalArgumentException("A transaction supports at most " + MAX_TRANSACT_ITEMS + " items"));
+        }
+        TransactWriteItemsRequest request = TransactWriteItemsRequest.builder()
+                .transactItems(updates.stream()
+                        .map(itemUpdate -> TransactWriteItem.builder()
+                                .update(Update.builder()
+                                        .tableName(tableName)
+                                        .key(keyOf(itemUpdate.id()).primaryKeyMap(tableSchema))
+                                        .updateExpression(itemUpdate.expression())
+                                        .conditionExpression(itemUpdate.condition())
+                                        .expressionAttributeValues(itemUpdate.values())
+                                        .build())
+                                .build())
+                        .toList())
+                .build();
+        return Mono.fromFuture(() -> client.transactWriteItems(request)).then();
+    }
+
+    private Flux<Map<String, AttributeValue>> batchGetItems(Map<String, KeysAndAttributes> requestItems, int attempt) {
+        BatchGetItemRequest request = BatchGetItemRequest.builder().requestItems(requestItems).build();
+        return Mono.fromFuture(() -> client.batchGetItem(request))
+                .flatMapMany(response -> {
+                    Flux<Map<String, AttributeValue>> items = Flux.fromIterable(response.responses().getOrDefault(tableName, List.of()));
+                    Map<String, KeysAndAttributes> unprocessed = response.unprocessedKeys();
+                    if (unprocessed == null || unprocessed.isEmpty()) {
+                        return items;
+                    }
+                    if (attempt >= MAX_BATCH_ATTEMPTS) {
+                        return items.concatWith(Mono.error(new IllegalStateException(
+                                "Unprocessed keys remain in " + tableName + " after " + attempt + " attempts")));
+                    }
+                    return items.concatWith(Mono.delay(BATCH_BACKOFF.multipliedBy(1L << (attempt - 1)))
+                            .thenMany(batchGetItems(unprocessed, attempt + 1)));
+                });
+    }
+
+    protected record ItemUpdate<I>(I id, String expression, Map<String, AttributeValue> values, String condition) {
+    }
+
+    private Key keyOf(K id) {
+        return Key.builder()
+                .partitionValue(AttributeValue.builder().s((String) id).build())
+                .build();
+    }
+
+    private QueryEnhancedRequest pagedQuery(QueryConditional condition, int pageSize, String... projection) {
+        QueryEnhancedRequest.Builder request = QueryEnhancedRequest.builder()
+                .queryConditional(condition)
+                .limit(pageSize);
+        if (projection.length > 0) {
+            request.attributesToProject(projection);
+        }
+        return request.build();
+    }
+
+    private Flux<V> scanSegment(int segment, int totalSegments, ReadCapacityLimiter readCapacity) {
+        ScanEnhancedRequest request = ScanEnhancedRequest.builder()
+                .segment(segment)
+                .totalSegments(totalSegments)
+                .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                .build();
+        return Flux.from(table.scan(request))
+                .concatMap(page -> readCapacity.acquire(consumedUnits(page))
+                        .thenMany(Flux.fromIterable(page.items())), 1);
+    }
+
+    private static double consumedUnits(Page<?> page) {
+        ConsumedCapacity consumed = page.consumedCapacity();
+        return consumed != null && consumed.capacityUnits() != null
+                ? consumed.capacityUnits()
+                : page.items().size() * EVENTUALLY_CONSISTENT_ITEM_UNITS;
+    }
+
+    private Flux<E> itemsOf(SdkPublisher<Page<V>> pagePublisher) {
+        return Flux.from(pagePublisher)
+                .concatMapIterable(Page::items, 1)
+                .map(this::toModel);
     }
 
     protected V toEntity(E model) {
-        return mapper.map(model, dataClass);
+        return toDataFn.apply(model);
     }
 
     protected E toModel(V data) {
         return data != null ? toEntityFn.apply(data) : null;
     }
-}
\ No newline at end of file
+}
@@ -1,23 +1,56 @@
 package co.com.pragma.dynamodb;
 
+import co.com.pragma.dynamodb.helper.CacheSettings;
+import co.com.pragma.dynamodb.helper.HedgeSettings;
+import co.com.pragma.dynamodb.helper.HotKeyDetector;
+import co.com.pragma.dynamodb.helper.ReadCapacityLimiter;
 import co.com.pragma.model.metric.Metric;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.reactivecommons.utils.ObjectMapper;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
+import software.amazon.awssdk.core.async.SdkPublisher;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.PagePublisher;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputDescription;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -28,11 +61,15 @@ class DynamoDBTemplateAdapterTest {
     @Mock
     private DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient;
     @Mock
-    private ObjectMapper mapper;
-    @Mock
     private DynamoDbAsyncTable<MetricEntity> table;
+    @Mock
+    private DynamoDbAsyncClient client;
 
     private DynamoDBTemplateAdapter adapter;
+    private HotKeyDetector hotKeys;
+    private ReadCapacityLimiter readCapacity;
+    private CacheSettings cacheSettings;
+    private SimpleMeterRegistry meterRegistry;
     private Metric metric;
     private MetricEntity metricEntity;
 
@@ -43,15 +80,16 @@ class DynamoDBTemplateAdapterTest {
         when(dynamoDbEnhancedAsyncClient.table(eq(tableName), any(TableSchema.class))).thenReturn(table);
 
         // Instantiate the adapter to be tested
-        adapter = new DynamoDBTemplateAdapter(dynamoDbEnhancedAsyncClient, mapper);
+        hotKeys = new HotKeyDetector(200, 10, Duration.ofMinutes(5));
+        readCapacity = new ReadCapacityLimiter(0.8, 1000);
+        cacheSettings = new CacheSettings(100, Duration.ofSeconds(5), Duration.ofSeconds(60));
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new DynamoDBTemplateAdapter(dynamoDbEnhancedAsyncClient, client, hotKeys, readCapacity, MetricLayout.ITEM,
+                PackedMigration.none(), cacheSettings, HedgeSettings.disabled(), meterRegistry);
 
         // Arrange Test Data
         metric = Metric.builder().name("test-metric").value(new BigDecimal("100.50")).build();
         metricEntity = new MetricEntity("test-metric", new BigDecimal("100.50"));
-
-        // Mock the mapping between domain and entity objects
-        lenient().when(mapper.map(metric, MetricEntity.class)).thenReturn(metricEntity);
-        lenient().when(mapper.map(metricEntity, Metric.class)).thenReturn(metric);
     }
 
     @Test
@@ -65,7 +103,8 @@ class DynamoDBTemplateAdapterTest {
                 .verifyComplete();
 
         // Verify that the correct entity was passed to putItem
-        verify(table).putItem(metricEntity);
+        verify(table).putItem(argThat((MetricEntity entity) -> entity.getName().equals("test-metric")
+                && entity.getValue().compareTo(new BigDecimal("100.50")) == 0));
     }
 
     @Test
@@ -75,7 +114,7 @@ class DynamoDBTemplateAdapterTest {
 
         // Act & Assert: Verify that getMetric returns the mapped domain object
         StepVerifier.create(adapter.getMetric("test-metric"))
-                .expectNext(metric)
+                .expectNextMatches(this::isTestMetric)
                 .verifyComplete();
 
         // Verify that getItem was called with the correct key
@@ -93,4 +132,567 @@ class DynamoDBTemplateAdapterTest {
         StepVerifier.create(adapter.getMetric("not-found-metric"))
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getMetric_whenReadAgain_shouldBeServedFromCache() {
+        // Arrange
+        when(table.getItem(any(Key.class))).thenReturn(CompletableFuture.completedFuture(metricEntity));
+
+        // Act & Assert: only the first read reaches the table
+        StepVerifier.create(adapter.getMetric("test-metric").then(adapter.getMetric("test-metric")))
+                .expectNextMatches(this::isTestMetric)
+                .verifyComplete();
+
+        verify(table, times(1)).getItem(any(Key.class));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "metrics").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void getMetric_afterIncrementOnThisInstance_shouldReadTheTableAgain() {
+        // Arrange
+        when(table.getItem(any(Key.class)))
+                .thenReturn(CompletableFuture.completedFuture(metricEntity))
+                .thenReturn(CompletableFuture.completedFuture(new MetricEntity("test-metric", new BigDecimal("101.50"))));
+        when(client.updateItem(any(UpdateItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                UpdateItemResponse.builder().attributes(Map.of(
+                        "metrica", AttributeValue.builder().s("test-metric").build(),
+                        "valor", AttributeValue.builder().n("101.50").build())).build()));
+
+        // Act & Assert
+        StepVerifier.create(adapter.getMetric("test-metric")
+                        .then(adapter.incrementMetric(Metric.builder().name("test-metric").value(BigDecimal.ONE).build()))
+                        .then(adapter.getMetric("test-metric")))
+                .expectNextMatches(m -> m.getValue().compareTo(new BigDecimal("101.50")) == 0)
+                .verifyComplete();
+
+        verify(table, times(2)).getItem(any(Key.class));
+    }
+
+    @Test
+    void getMetric_whenWriteLandsWhileAReadIsInFlight_shouldNotJoinTheOlderRead() {
+        // Arrange: the first GetItem is still running when the increment completes
+        CompletableFuture<MetricEntity> startedBeforeWrite = new CompletableFuture<>();
+        when(table.getItem(any(Key.class)))
+                .thenReturn(startedBeforeWrite)
+                .thenReturn(CompletableFuture.completedFuture(new MetricEntity("test-metric", new BigDecimal("101.50"))));
+        when(client.updateItem(any(UpdateItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                UpdateItemResponse.builder().attributes(item("test-metric", "101.50", null)).build()));
+        StepVerifier olderRead = StepVerifier.create(adapter.getMetric("test-metric"))
+                .expectNextMatches(m -> m.getValue().compareTo(new BigDecimal("100.50")) == 0)
+                .expectComplete()
+                .verifyLater();
+
+        // Act & Assert
+        StepVerifier.create(adapter.incrementMetric(Metric.builder().name("test-metric").value(BigDecimal.ONE).build())
+                        .then(adapter.getMetric("test-metric")))
+                .expectNextMatches(m -> m.getValue().compareTo(new BigDecimal("101.50")) == 0)
+                .verifyComplete();
+
+        startedBeforeWrite.complete(metricEntity);
+        olderRead.verify();
+        verify(table, times(2)).getItem(any(Key.class));
+    }
+
+    @Test
+    void incrementMetric_whenKeyIsNotSharded_shouldAddDeltaAndReturnNewTotal() {
+        // Arrange: the base item holds the running total after the atomic ADD
+        when(client.updateItem(any(UpdateItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                UpdateItemResponse.builder().attributes(item("test-metric", "110.50", null)).build()));
+
+        // Act & Assert
+        StepVerifier.create(adapter.incrementMetric(Metric.builder().name("test-metric").value(BigDecimal.TEN).build()))
+                .expectNextMatches(updated -> updated.getName().equals("test-metric")
+                        && updated.getValue().compareTo(new BigDecimal("110.50")) == 0)
+                .verifyComplete();
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(client).updateItem(captor.capture());
+        assertEquals("test-metric", captor.getValue().key().get(MetricEntity.NAME_ATTRIBUTE).s());
+        assertEquals("ADD valor :delta, v :one", captor.getValue().updateExpression());
+        assertEquals("10", captor.getValue().expressionAttributeValues().get(":delta").n());
+    }
+
+    @Test
+    void incrementMetric_whenCounterIsSharded_shouldReturnTheWrittenShardWithoutReadingTheOthers() {
+        // Arrange: readers already know the counter spans four shards
+        hotKeys.observeReadWidth("test-metric", 4);
+        when(client.updateItem(any(UpdateItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                UpdateItemResponse.builder().attributes(item("test-metric", "7", 4)).build()));
+
+        // Act & Assert
+        StepVerifier.create(adapter.incrementMetric(Metric.builder().name("test-metric").value(BigDecimal.ONE).build()))
+                .expectNextMatches(updated -> updated.getName().equals("test-metric")
+                        && updated.getValue().compareTo(new BigDecimal("7")) == 0)
+                .verifyComplete();
+
+        verify(client, never()).batchGetItem(any(BatchGetItemRequest.class));
+        verify(table, never()).getItem(any(Key.class));
+    }
+
+    @Test
+    void incrementMetric_whenThrottled_shouldShardTheKey() {
+        // Arrange
+        when(client.updateItem(any(UpdateItemRequest.class))).thenReturn(CompletableFuture.failedFuture(
+                ProvisionedThroughputExceededException.builder().message("throttled").build()));
+
+        // Act & Assert
+        StepVerifier.create(adapter.incrementMetric(Metric.builder().name("test-metric").value(BigDecimal.ONE).build()))
+                .expectError(ProvisionedThroughputExceededException.class)
+                .verify();
+
+        assertEquals(2, hotKeys.shardCount("test-metric"));
+        assertEquals(2, hotKeys.pendingAnnouncement("test-metric"));
+    }
+
+    @Test
+    void incrementMetrics_shouldWriteEveryMetricInOneTransaction() {
+        // Arrange
+        when(client.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(TransactWriteItemsResponse.builder().build()));
+
+        // Act & Assert: repeated names are folded into a single update per item
+        StepVerifier.create(adapter.incrementMetrics(List.of(
+                        Metric.builder().name("quantity").value(BigDecimal.ONE).build(),
+                        Metric.builder().name("amount").value(new BigDecimal("2500")).build(),
+                        Metric.builder().name("quantity").value(BigDecimal.ONE).build())))
+                .verifyComplete();
+
+        ArgumentCaptor<TransactWriteItemsRequest> captor = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(client).transactWriteItems(captor.capture());
+        verify(client, never()).updateItem(any(UpdateItemRequest.class));
+        List<TransactWriteItem> items = captor.getValue().transactItems();
+        assertEquals(2, items.size());
+        assertEquals("quantity", items.get(0).update().key().get(MetricEntity.NAME_ATTRIBUTE).s());
+        assertEquals("2", items.get(0).update().expressionAttributeValues().get(":delta").n());
+        assertEquals("amount", items.get(1).update().key().get(MetricEntity.NAME_ATTRIBUTE).s());
+        assertEquals("ADD valor :delta, v :one", items.get(1).update().updateExpression());
+    }
+
+    @Test
+    void incrementMetrics_whenOnlyOneItemIsTouched_shouldUseSingleUpdate() {
+        // Arrange
+        when(client.updateItem(any(UpdateItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                UpdateItemResponse.builder().attributes(item("quantity", "1", null)).build()));
+
+        // Act & Assert
+        StepVerifier.create(adapter.incrementMetrics(List.of(Metric.builder().name("quantity").value(BigDecimal.ONE).build())))
+                .verifyComplete();
+
+        verify(client).updateItem(any(UpdateItemRequest.class));
+        verify(client, never()).transactWriteItems(any(TransactWriteItemsRequest.class));
+    }
+
+    @Test
+    void incrementMetrics_whenTransactionIsThrottled_shouldShardOnlyTheThrottledTotal() {
+        // Arrange
+        TransactionCanceledException canceled = TransactionCanceledException.builder()
+                .message("throttled")
+                .cancellationReasons(CancellationReason.builder().code("ThrottlingError").build(),
+                        CancellationReason.builder().code("None").build())
+                .build();
+        when(client.transactWriteItems(any(TransactWriteItemsRequest.class))).thenReturn(CompletableFuture.failedFuture(canceled));
+
+        // Act & Assert
+        StepVerifier.create(adapter.incrementMetrics(List.of(
+                        Metric.builder().name("quantity").value(BigDecimal.ONE).build(),
+                        Metric.builder().name("amount").value(BigDecimal.TEN).build())))
+                .expectError(TransactionCanceledException.class)
+                .verify();
+
+        assertEquals(2, hotKeys.shardCount("quantity"));
+        assertEquals(1, hotKeys.shardCount("amount"));
+    }
+
+    @Test
+    void incrementMetrics_whenTransactionConflicts_shouldShardTheConflictingTotalAndRetry() {
+        // Arrange: another transaction holds the items on the first attempt
+        TransactionCanceledException conflict = TransactionCanceledException.builder()
+                .message("conflict")
+                .cancellationReasons(CancellationReason.builder().code("TransactionConflict").build(),
+                        CancellationReason.builder().code("None").build())
+                .build();
+        when(client.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(conflict))
+                .thenReturn(CompletableFuture.completedFuture(TransactWriteItemsResponse.builder().build()));
+        when(client.updateItem(any(UpdateItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                UpdateItemResponse.builder().attributes(item("quantity", "0", 2)).build()));
+
+        // Act & Assert
+        StepVerifier.create(adapter.incrementMetrics(List.of(
+                        Metric.builder().name("quantity").value(BigDecimal.ONE).build(),
+                        Metric.builder().name("amount").value(BigDecimal.TEN).build())))
+                .verifyComplete();
+
+        verify(client, times(2)).transactWriteItems(any(TransactWriteItemsRequest.class));
+        assertEquals(2, hotKeys.shardCount("quantity"));
+        assertEquals(1, hotKeys.shardCount("amount"));
+    }
+
+    @Test
+    void incrementMetrics_whenBucketItemConflicts_shouldNotShardTheBucket() {
+        // Arrange: only the hour bucket is contended
+        TransactionCanceledException conflict = TransactionCanceledException.builder()
+                .message("conflict")
+                .cancellationReasons(CancellationReason.builder().code("None").build(),
+                        CancellationReason.builder().code("TransactionConflict").build())
+                .build();
+        when(client.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(conflict))
+                .thenReturn(CompletableFuture.completedFuture(TransactWriteItemsResponse.builder().build()));
+
+        // Act & Assert
+        StepVerifier.create(adapter.incrementMetrics(List.of(
+                        Metric.builder().name("quantity").value(BigDecimal.ONE).build(),
+                        Metric.builder().name("quantity@2025-03-01T10").value(BigDecimal.ONE).build())))
+                .verifyComplete();
+
+        assertEquals(1, hotKeys.shardCount("quantity"));
+        assertEquals(1, hotKeys.shardCount("quantity@2025-03-01T10"));
+        verify(client, never()).updateItem(any(UpdateItemRequest.class));
+    }
+
+    @Test
+    void getMetric_whenBaseItemAnnouncesShards_shouldSumEveryShard() {
+        // Arrange: the base item says increments were spread over three shards
+        MetricEntity base = new MetricEntity("test-metric", new BigDecimal("10"));
+        base.setShards(3);
+        when(table.getItem(any(Key.class))).thenReturn(CompletableFuture.completedFuture(base));
+        when(client.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                BatchGetItemResponse.builder()
+                        .responses(Map.of("reporte_aprobados", List.of(
+                                item("test-metric#1", "5", null),
+                                item("test-metric#2", "2.5", null))))
+                        .build()));
+
+        // Act & Assert
+        StepVerifier.create(adapter.getMetric("test-metric"))
+                .expectNextMatches(total -> total.getValue().compareTo(new BigDecimal("17.5")) == 0)
+                .verifyComplete();
+
+        assertEquals(3, hotKeys.readWidth("test-metric"));
+    }
+
+    @Test
+    void getMetric_whenCounterIsSharded_shouldReportTheSumOfShardVersions() {
+        // Arrange
+        hotKeys.observeReadWidth("test-metric", 2);
+        Map<String, AttributeValue> first = new HashMap<>(item("test-metric", "4", 2));
+        first.put(MetricEntity.VERSION_ATTRIBUTE, AttributeValue.builder().n("3").build());
+        Map<String, AttributeValue> second = new HashMap<>(item("test-metric#1", "6", null));
+        second.put(MetricEntity.VERSION_ATTRIBUTE, AttributeValue.builder().n("5").build());
+        when(client.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                BatchGetItemResponse.builder().responses(Map.of("reporte_aprobados", List.of(first, second))).build()));
+
+        // Act & Assert
+        StepVerifier.create(adapter.getMetric("test-metric"))
+                .expectNextMatches(total -> total.getValue().compareTo(BigDecimal.TEN) == 0 && total.getVersion() == 8L)
+                .verifyComplete();
+    }
+
+    @Test
+    void getMetric_whenBatchLeavesUnprocessedKeys_shouldRetryThem() {
+        // Arrange: shard #2 is only returned on the second BatchGetItem call
+        hotKeys.observeReadWidth("test-metric", 3);
+        Map<String, AttributeValue> unprocessedKey = Map.of(MetricEntity.NAME_ATTRIBUTE, AttributeValue.builder().s("test-metric#2").build());
+        when(client.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(BatchGetItemResponse.builder()
+                        .responses(Map.of("reporte_aprobados", List.of(
+                                item("test-metric", "1", 3),
+                                item("test-metric#1", "1", null))))
+                        .unprocessedKeys(Map.of("reporte_aprobados", KeysAndAttributes.builder().keys(unprocessedKey).build()))
+                        .build()))
+                .thenReturn(CompletableFuture.completedFuture(BatchGetItemResponse.builder()
+                        .responses(Map.of("reporte_aprobados", List.of(item("test-metric#2", "1", null))))
+                        .build()));
+
+        // Act & Assert
+        StepVerifier.create(adapter.getMetric("test-metric"))
+                .expectNextMatches(total -> total.getValue().compareTo(new BigDecimal("3")) == 0)
+                .verifyComplete();
+
+        verify(client, times(2)).batchGetItem(any(BatchGetItemRequest.class));
+    }
+
+    @Test
+    void getMetrics_shouldReadEveryMetricAndShardInOneBatch() {
+        // Arrange: amount is known to be sharded over two items, quantity is a single item
+        hotKeys.observeReadWidth("amount", 2);
+        when(client.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                BatchGetItemResponse.builder()
+                        .responses(Map.of("reporte_aprobados", List.of(
+                                item("amount#1", "500", null),
+                                item("quantity", "3", null),
+                                item("amount", "1000", 2))))
+                        .build()));
+
+        // Act & Assert: results follow the requested order, missing metrics are omitted
+        StepVerifier.create(adapter.getMetrics(List.of("quantity", "amount", "missing", "quantity")))
+                .expectNextMatches(m -> m.getName().equals("quantity") && m.getValue().compareTo(new BigDecimal("3")) == 0)
+                .expectNextMatches(m -> m.getName().equals("amount") && m.getValue().compareTo(new BigDecimal("1500")) == 0)
+                .verifyComplete();
+
+        ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(client).batchGetItem(captor.capture());
+        assertEquals(4, captor.getValue().requestItems().get("reporte_aprobados").keys().size());
+        verify(table, never()).getItem(any(Key.class));
+    }
+
+    @Test
+    void scanMetrics_shouldPaceTheScanToTheProvisionedReadCapacity() {
+        // Arrange: the table is provisioned with 500 RCU and exports may use 80% of them
+        when(client.describeTable(any(DescribeTableRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                DescribeTableResponse.builder()
+                        .table(TableDescription.builder()
+                                .provisionedThroughput(ProvisionedThroughputDescription.builder().readCapacityUnits(500L).build())
+                                .build())
+                        .build()));
+        when(table.scan(any(ScanEnhancedRequest.class)))
+                .thenAnswer(invocation -> PagePublisher.create(SdkPublisher.adapt(Flux.just(Page.create(List.of(metricEntity))))));
+
+        // Act & Assert
+        StepVerifier.create(adapter.scanMetrics(2))
+                .expectNextMatches(this::isTestMetric)
+                .expectNextMatches(this::isTestMetric)
+                .verifyComplete();
+
+        assertEquals(400, readCapacity.unitsPerSecond());
+    }
+
+    @Test
+    void scanMetrics_whenCounterIsSharded_shouldExportItOnceWithEveryShardAdded() {
+        // Arrange: the base item only announces two shards and the scan also finds the second one
+        when(client.describeTable(any(DescribeTableRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                DescribeTableResponse.builder()
+                        .table(TableDescription.builder()
+                                .provisionedThroughput(ProvisionedThroughputDescription.builder().readCapacityUnits(500L).build())
+                                .build())
+                        .build()));
+        MetricEntity base = new MetricEntity("quantity", null);
+        base.setShards(2);
+        when(table.scan(any(ScanEnhancedRequest.class)))
+                .thenAnswer(invocation -> PagePublisher.create(SdkPublisher.adapt(Flux.just(Page.create(List.of(
+                        base, new MetricEntity("quantity#1", new BigDecimal("3"))))))));
+        when(client.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                BatchGetItemResponse.builder()
+                        .responses(Map.of("reporte_aprobados", List.of(item("quantity#1", "3", null))))
+                        .build()));
+
+        // Act & Assert
+        StepVerifier.create(adapter.scanMetrics(1))
+                .expectNextMatches(total -> total.getName().equals("quantity") && total.getValue().compareTo(new BigDecimal("3")) == 0)
+                .verifyComplete();
+    }
+
+    private static Map<String, AttributeValue> item(String name, String value, Integer shards) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put(MetricEntity.NAME_ATTRIBUTE, AttributeValue.builder().s(name).build());
+        item.put(MetricEntity.VALUE_ATTRIBUTE, AttributeValue.builder().n(value).build());
+        if (shards != null) {
+            item.put(MetricEntity.SHARDS_ATTRIBUTE, AttributeValue.builder().n(shards.toString()).build());
+        }
+        return item;
+    }
+
+    @Test
+    void incrementMetrics_whenLayoutIsPacked_shouldAddToTheSlotAttributesWithoutReading() {
+        // Arrange
+        DynamoDBTemplateAdapter packed = packedAdapter();
+        when(client.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(TransactWriteItemsResponse.builder().build()));
+
+        // Act & Assert
+        StepVerifier.create(packed.incrementMetrics(List.of(
+                        Metric.builder().name("quantity").value(BigDecimal.ONE).build(),
+                        Metric.builder().name("quantity@2025-03-01T10").value(BigDecimal.ONE).build(),
+                        Metric.builder().name("quantity@2025-03-01T11").value(new BigDecimal("2")).build(),
+                        Metric.builder().name("quantity@2025-03-01T10").value(BigDecimal.ONE).build())))
+                .verifyComplete();
+
+        ArgumentCaptor<TransactWriteItemsRequest> captor = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(client).transactWriteItems(captor.capture());
+        verify(client, never()).batchGetItem(any(BatchGetItemRequest.class));
+        List<TransactWriteItem> items = captor.getValue().transactItems();
+        assertEquals(2, items.size());
+        assertEquals("quantity", items.get(0).update().key().get(MetricEntity.NAME_ATTRIBUTE).s());
+        Update day = items.get(1).update();
+        assertEquals("quantity@2025-03-01", day.key().get(MetricEntity.NAME_ATTRIBUTE).s());
+        assertEquals("ADD h10 :h10, h11 :h11, v :one", day.updateExpression());
+        assertNull(day.conditionExpression());
+        assertEquals("2", day.expressionAttributeValues().get(":h10").n());
+        assertEquals("2", day.expressionAttributeValues().get(":h11").n());
+    }
+
+    @Test
+    void incrementMetrics_whenPackedDayConflicts_shouldSendTheSameAddsAgain() {
+        // Arrange
+        DynamoDBTemplateAdapter packed = packedAdapter();
+        TransactionCanceledException conflict = TransactionCanceledException.builder()
+                .message("conflict")
+                .cancellationReasons(CancellationReason.builder().code("None").build(),
+                        CancellationReason.builder().code("TransactionConflict").build())
+                .build();
+        when(client.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(conflict))
+                .thenReturn(CompletableFuture.completedFuture(TransactWriteItemsResponse.builder().build()));
+        when(client.updateItem(any(UpdateItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                UpdateItemResponse.builder().attributes(item("amount", "0", 2)).build()));
+
+        // Act & Assert
+        StepVerifier.create(packed.incrementMetrics(List.of(
+                        Metric.builder().name("amount").value(BigDecimal.TEN).build(),
+                        Metric.builder().name("amount@2025-03-01T10").value(BigDecimal.TEN).build())))
+                .verifyComplete();
+
+        ArgumentCaptor<TransactWriteItemsRequest> captor = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(client, times(2)).transactWriteItems(captor.capture());
+        verify(client, never()).batchGetItem(any(BatchGetItemRequest.class));
+        Update retried = captor.getAllValues().get(1).transactItems().get(1).update();
+        assertEquals("ADD h10 :h10, v :one", retried.updateExpression());
+        assertEquals("10", retried.expressionAttributeValues().get(":h10").n());
+    }
+
+    @Test
+    void incrementMetric_whenLayoutIsPacked_shouldReturnTheSlotOfTheWrittenDay() {
+        // Arrange: the day already held 2 at 23:00
+        DynamoDBTemplateAdapter packed = packedAdapter();
+        when(client.updateItem(any(UpdateItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                UpdateItemResponse.builder().attributes(slotItem("quantity@2025-03-01", 23, "3", 2)).build()));
+
+        // Act & Assert
+        StepVerifier.create(packed.incrementMetric(Metric.builder().name("quantity@2025-03-01T23").value(BigDecimal.ONE).build()))
+                .expectNextMatches(m -> m.getName().equals("quantity@2025-03-01T23") && m.getValue().compareTo(new BigDecimal("3")) == 0)
+                .verifyComplete();
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(client).updateItem(captor.capture());
+        assertEquals("quantity@2025-03-01", captor.getValue().key().get(MetricEntity.NAME_ATTRIBUTE).s());
+        assertEquals("ADD h23 :h23, v :one", captor.getValue().updateExpression());
+        assertNull(captor.getValue().conditionExpression());
+        verify(client, never()).batchGetItem(any(BatchGetItemRequest.class));
+    }
+
+    @Test
+    void getMetric_whenLayoutIsPacked_shouldReadTheBucketSlotFromTheDayItem() {
+        // Arrange
+        DynamoDBTemplateAdapter packed = packedAdapter();
+        when(table.getItem(any(Key.class))).thenReturn(CompletableFuture.completedFuture(
+                MetricEntity.TABLE_SCHEMA.mapToItem(slotItem("amount@2025-03-01", 7, "2500.50", 2))));
+
+        // Act & Assert
+        StepVerifier.create(packed.getMetric("amount@2025-03-01T07"))
+                .expectNextMatches(m -> m.getValue().compareTo(new BigDecimal("2500.50")) == 0)
+                .verifyComplete();
+
+        ArgumentCaptor<Key> keyCaptor = ArgumentCaptor.forClass(Key.class);
+        verify(table).getItem(keyCaptor.capture());
+        assertEquals("amount@2025-03-01", keyCaptor.getValue().partitionKeyValue().s());
+    }
+
+    @Test
+    void getMetric_whenBucketPredatesThePackedLayout_shouldAddItsBucketItem() {
+        // Arrange: 07:00 was written as its own item before the switch and once more since
+        DynamoDBTemplateAdapter packed = packedAdapter(new PackedMigration(Instant.parse("2025-03-02T00:00:00Z")));
+        when(client.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                BatchGetItemResponse.builder()
+                        .responses(Map.of("reporte_aprobados", List.of(
+                                item("amount@2025-03-01T07", "100", null),
+                                slotItem("amount@2025-03-01", 7, "50", 1))))
+                        .build()));
+
+        // Act & Assert
+        StepVerifier.create(packed.getMetric("amount@2025-03-01T07"))
+                .expectNextMatches(m -> m.getValue().compareTo(new BigDecimal("150")) == 0)
+                .verifyComplete();
+
+        verify(table, never()).getItem(any(Key.class));
+    }
+
+    @Test
+    void getBuckets_shouldReadTheHourlyItemsOfTheRangeInTimeOrder() {
+        // Arrange: the 10:00 and 12:00 buckets exist and come back out of order
+        when(client.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                BatchGetItemResponse.builder()
+                        .responses(Map.of("reporte_aprobados", List.of(
+                                item("quantity@2025-03-01T12", "4", null),
+                                item("quantity@2025-03-01T10", "3", null))))
+                        .build()));
+
+        // Act & Assert
+        StepVerifier.create(adapter.getBuckets("quantity",
+                        Instant.parse("2025-03-01T10:15:00Z"), Instant.parse("2025-03-01T13:00:00Z")))
+                .expectNextMatches(m -> m.getName().equals("quantity")
+                        && m.getEventTime().equals(Instant.parse("2025-03-01T10:00:00Z"))
+                        && m.getValue().compareTo(new BigDecimal("3")) == 0)
+                .expectNextMatches(m -> m.getEventTime().equals(Instant.parse("2025-03-01T12:00:00Z"))
+                        && m.getValue().compareTo(new BigDecimal("4")) == 0)
+                .verifyComplete();
+
+        ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(client).batchGetItem(captor.capture());
+        assertEquals(3, captor.getValue().requestItems().get("reporte_aprobados").keys().size());
+    }
+
+    @Test
+    void getBuckets_whenLayoutIsPacked_shouldUnpackOnlyTheSlotsOfTheRange() {
+        // Arrange
+        DynamoDBTemplateAdapter packed = packedAdapter();
+        Map<String, AttributeValue> day = new HashMap<>(slotItem("amount@2025-03-01", 7, "2500.50", 2));
+        day.put("h05", AttributeValue.builder().n("1").build());
+        when(client.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                BatchGetItemResponse.builder().responses(Map.of("reporte_aprobados", List.of(day))).build()));
+
+        // Act & Assert: 05:00 is before the range and the other hours were never written
+        StepVerifier.create(packed.getBuckets("amount",
+                        Instant.parse("2025-03-01T06:00:00Z"), Instant.parse("2025-03-01T09:00:00Z")))
+                .expectNextMatches(m -> m.getName().equals("amount")
+                        && m.getEventTime().equals(Instant.parse("2025-03-01T07:00:00Z"))
+                        && m.getValue().compareTo(new BigDecimal("2500.50")) == 0)
+                .verifyComplete();
+    }
+
+    @Test
+    void getBuckets_whenRangePredatesThePackedLayout_shouldMergeTheBucketItems() {
+        // Arrange: the switch happened at 08:00, so 06:00 and 07:00 may still have their own items
+        DynamoDBTemplateAdapter packed = packedAdapter(new PackedMigration(Instant.parse("2025-03-01T08:00:00Z")));
+        when(client.batchGetItem(any(BatchGetItemRequest.class))).thenAnswer(invocation -> {
+            BatchGetItemRequest request = invocation.getArgument(0);
+            boolean dayItems = request.requestItems().get("reporte_aprobados").keys().stream()
+                    .anyMatch(key -> key.get(MetricEntity.NAME_ATTRIBUTE).s().equals("amount@2025-03-01"));
+            List<Map<String, AttributeValue>> items = dayItems
+                    ? List.of(slotItem("amount@2025-03-01", 7, "5", 1))
+                    : List.of(item("amount@2025-03-01T06", "4", null), item("amount@2025-03-01T07", "10", null));
+            return CompletableFuture.completedFuture(BatchGetItemResponse.builder()
+                    .responses(Map.of("reporte_aprobados", items)).build());
+        });
+
+        // Act & Assert
+        StepVerifier.create(packed.getBuckets("amount",
+                        Instant.parse("2025-03-01T06:00:00Z"), Instant.parse("2025-03-01T09:00:00Z")))
+                .expectNextMatches(m -> m.getEventTime().equals(Instant.parse("2025-03-01T06:00:00Z"))
+                        && m.getValue().compareTo(new BigDecimal("4")) == 0)
+                .expectNextMatches(m -> m.getEventTime().equals(Instant.parse("2025-03-01T07:00:00Z"))
+                        && m.getValue().compareTo(new BigDecimal("15")) == 0)
+                .verifyComplete();
+    }
+
+    private DynamoDBTemplateAdapter packedAdapter() {
+        return packedAdapter(PackedMigration.none());
+    }
+
+    private DynamoDBTemplateAdapter packedAdapter(PackedMigration migration) {
+        return new DynamoDBTemplateAdapter(dynamoDbEnhancedAsyncClient, client, hotKeys, readCapacity, MetricLayout.PACKED,
+                migration, cacheSettings, HedgeSettings.disabled(), new SimpleMeterRegistry());
+    }
+
+    private static Map<String, AttributeValue> slotItem(String day, int slot, String value, long version) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put(MetricEntity.NAME_ATTRIBUTE, AttributeValue.builder().s(day).build());
+        item.put(MetricEntity.slotAttribute(slot), AttributeValue.builder().n(value).build());
+        item.put(MetricEntity.VERSION_ATTRIBUTE, AttributeValue.builder().n(Long.toString(version)).build());
+        return item;
+    }
+
+    private boolean isTestMetric(Metric candidate) {
+        return candidate.getName().equals(metric.getName()) && candidate.getValue().compareTo(metric.getValue()) == 0;
+    }
+}
@@ -0,0 +1,55 @@
+package co.com.pragma.dynamodb;
+
+import co.com.pragma.model.metric.Metric;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MetricEntityMapperTest {
+
+    @Test
+    void toEntity_shouldCopyNameAndValue() {
+        MetricEntity entity = MetricEntityMapper.toEntity(Metric.builder().name("quantity").value(BigDecimal.TEN).build());
+
+        assertEquals("quantity", entity.getName());
+        assertEquals(BigDecimal.TEN, entity.getValue());
+        assertNull(entity.getShards());
+    }
+
+    @Test
+    void toModel_shouldCopyNameAndValue() {
+        Metric metric = MetricEntityMapper.toModel(new MetricEntity("amount", new BigDecimal("2500")));
+
+        assertEquals("amount", metric.getName());
+        assertEquals(new BigDecimal("2500"), metric.getValue());
+    }
+
+    @Test
+    void tableSchema_shouldRoundTripEveryAttribute() {
+        MetricEntity entity = new MetricEntity("quantity", new BigDecimal("12.5"));
+        entity.setShards(4);
+
+        Map<String, AttributeValue> item = MetricEntity.TABLE_SCHEMA.itemToMap(entity, true);
+        MetricEntity mapped = MetricEntity.TABLE_SCHEMA.mapToItem(item);
+
+        assertEquals("quantity", item.get(MetricEntity.NAME_ATTRIBUTE).s());
+        assertEquals("12.5", item.get(MetricEntity.VALUE_ATTRIBUTE).n());
+        assertEquals("4", item.get(MetricEntity.SHARDS_ATTRIBUTE).n());
+        assertEquals("quantity", mapped.getName());
+        assertEquals(new BigDecimal("12.5"), mapped.getValue());
+        assertEquals(4, mapped.getShards());
+    }
+
+    @Test
+    void tableSchema_shouldSkipNullAttributes() {
+        Map<String, AttributeValue> item = MetricEntity.TABLE_SCHEMA.itemToMap(new MetricEntity("quantity", BigDecimal.ONE), true);
+
+        assertFalse(item.containsKey(MetricEntity.SHARDS_ATTRIBUTE));
+    }
+}
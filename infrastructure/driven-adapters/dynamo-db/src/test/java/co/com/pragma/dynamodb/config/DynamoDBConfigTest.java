@@ -1,5 +1,10 @@
 package co.com.pragma.dynamodb.config;
 
+import co.com.pragma.dynamodb.MetricLayout;
+import co.com.pragma.dynamodb.helper.CacheSettings;
+import co.com.pragma.dynamodb.helper.HedgeSettings;
+import co.com.pragma.dynamodb.helper.HotKeyDetector;
+import co.com.pragma.dynamodb.helper.ReadCapacityLimiter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -8,7 +13,11 @@ import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.metrics.MetricPublisher;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(MockitoExtension.class)
 class DynamoDBConfigTest {
@@ -49,4 +58,47 @@ class DynamoDBConfigTest {
 
         assertNotNull(result);
     }
+
+    @Test
+    void testHotKeyDetector() {
+        HotKeyDetector result = dynamoDBConfig.hotKeyDetector(200, 10, 300);
+
+        assertNotNull(result);
+    }
+
+    @Test
+    void testReadCapacityLimiter() {
+        ReadCapacityLimiter result = dynamoDBConfig.readCapacityLimiter(1.0, 1000);
+
+        assertNotNull(result);
+    }
+
+    @Test
+    void testMetricLayout() {
+        assertEquals(MetricLayout.PACKED, dynamoDBConfig.metricLayout(MetricLayout.PACKED));
+    }
+
+    @Test
+    void testMetricCacheSettings() {
+        CacheSettings result = dynamoDBConfig.metricCacheSettings(500, 5, 60);
+
+        assertEquals(new CacheSettings(500, Duration.ofSeconds(5), Duration.ofSeconds(60)), result);
+    }
+
+    @Test
+    void testMetricCacheSettingsRejectsRefreshAfterExpiry() {
+        assertThrows(IllegalArgumentException.class, () -> dynamoDBConfig.metricCacheSettings(500, 60, 60));
+    }
+
+    @Test
+    void testMetricHedgeSettings() {
+        HedgeSettings result = dynamoDBConfig.metricHedgeSettings(true, 0.95, 5, 10);
+
+        assertEquals(new HedgeSettings(true, 0.95, 0.05, Duration.ofMillis(10)), result);
+    }
+
+    @Test
+    void testMetricHedgeSettingsRejectsPercentileOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> dynamoDBConfig.metricHedgeSettings(true, 1.0, 5, 10));
+    }
 }
@@ -0,0 +1,104 @@
+package co.com.pragma.dynamodb.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HedgedReadsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void record_shouldUseThePercentileOnceEnoughLatenciesAreSeen() {
+        HedgedReads<String> hedged = hedged(new HedgeSettings(true, 0.95, 1, Duration.ZERO));
+
+        for (int i = 1; i < HedgedReads.MIN_SAMPLES; i++) hedged.record(Duration.ofMillis(i).toNanos());
+        assertEquals(Duration.ZERO, hedged.threshold());
+
+        hedged.record(Duration.ofMillis(HedgedReads.MIN_SAMPLES).toNanos());
+        assertEquals(Duration.ofMillis(95), hedged.threshold());
+    }
+
+    @Test
+    void record_shouldNotGoBelowTheMinimumDelay() {
+        HedgedReads<String> hedged = hedged(new HedgeSettings(true, 0.95, 1, Duration.ofMillis(5)));
+
+        seed(hedged, Duration.ofNanos(10));
+
+        assertEquals(Duration.ofMillis(5), hedged.threshold());
+    }
+
+    @Test
+    void execute_whenPrimaryIsSlow_shouldServeTheHedge() {
+        // Arrange: the primary never answers and the hedge answers at once
+        HedgedReads<String> hedged = hedged(new HedgeSettings(true, 0.95, 1, Duration.ZERO));
+        seed(hedged, Duration.ofMillis(20));
+
+        // Act & Assert
+        StepVerifier.withVirtualTime(() -> hedged.execute(() -> calls.incrementAndGet() == 1 ? Mono.never() : Mono.just("hedge")))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(19))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext("hedge")
+                .verifyComplete();
+        assertEquals(2, calls.get());
+        assertEquals(1.0, registry.get("dynamodb.hedge.requests").tag("result", "sent").functionCounter().count());
+        assertEquals(1.0, registry.get("dynamodb.hedge.requests").tag("result", "won").functionCounter().count());
+        assertEquals(0.5, registry.get("dynamodb.hedge.consumed.read.units").functionCounter().count());
+    }
+
+    @Test
+    void execute_whenBudgetIsSpent_shouldWaitForThePrimary() {
+        // Arrange
+        HedgedReads<String> hedged = hedged(new HedgeSettings(true, 0.95, 0, Duration.ZERO));
+        seed(hedged, Duration.ofMillis(20));
+
+        // Act & Assert
+        StepVerifier.withVirtualTime(() -> hedged.execute(() -> {
+                    calls.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(200)).thenReturn("primary");
+                }))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(200))
+                .expectNext("primary")
+                .verifyComplete();
+        assertEquals(1, calls.get());
+        assertEquals(1.0, registry.get("dynamodb.hedge.requests").tag("result", "denied").functionCounter().count());
+        assertEquals(0.0, registry.get("dynamodb.hedge.requests").tag("result", "sent").functionCounter().count());
+    }
+
+    @Test
+    void execute_whenDisabled_shouldReadOnce() {
+        HedgedReads<String> hedged = hedged(HedgeSettings.disabled());
+
+        StepVerifier.create(hedged.execute(() -> Mono.fromSupplier(() -> "item-" + calls.incrementAndGet())))
+                .expectNext("item-1")
+                .verifyComplete();
+        assertEquals(Duration.ZERO, hedged.threshold());
+    }
+
+    @Test
+    void bindTo_shouldReportServedLatencyPercentiles() {
+        hedged(HedgeSettings.disabled());
+
+        assertEquals(0L, registry.get("dynamodb.read.latency").tag("name", "test").timer().count());
+        assertEquals(0.0, registry.get("dynamodb.hedge.threshold").gauge().value());
+    }
+
+    private HedgedReads<String> hedged(HedgeSettings settings) {
+        HedgedReads<String> hedged = new HedgedReads<>("test", settings, () -> 0L);
+        hedged.bindTo(registry);
+        return hedged;
+    }
+
+    private static void seed(HedgedReads<String> hedged, Duration latency) {
+        for (int i = 0; i < HedgedReads.MIN_SAMPLES; i++) hedged.record(latency.toNanos());
+    }
+}
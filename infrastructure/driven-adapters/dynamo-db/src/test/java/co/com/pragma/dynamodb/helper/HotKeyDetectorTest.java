@@ -0,0 +1,98 @@
+package co.com.pragma.dynamodb.helper;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionConflictException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyDetectorTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final HotKeyDetector detector = new HotKeyDetector(100, 8, Duration.ofSeconds(10), clock::get);
+
+    @Test
+    void shardFor_whenWriteRateStaysLow_shouldKeepSingleShard() {
+        for (int i = 0; i < 50; i++) {
+            assertEquals(0, detector.shardFor("quantity"));
+        }
+        advanceSeconds(1);
+        detector.shardFor("quantity");
+
+        assertEquals(1, detector.shardCount("quantity"));
+        assertEquals(0, detector.pendingAnnouncement("quantity"));
+    }
+
+    @Test
+    void shardFor_whenWriteRateIsHot_shouldDoubleShardsUpToMax() {
+        for (int second = 0; second < 5; second++) {
+            for (int i = 0; i < 150; i++) {
+                detector.shardFor("quantity");
+            }
+            advanceSeconds(1);
+        }
+        detector.shardFor("quantity");
+
+        assertEquals(8, detector.shardCount("quantity"));
+        int shard = detector.shardFor("quantity");
+        assertTrue(shard >= 0 && shard < 8);
+    }
+
+    @Test
+    void recordThrottle_shouldScaleUpAndRequireAnnouncement() {
+        detector.recordThrottle("amount");
+
+        assertEquals(2, detector.shardCount("amount"));
+        assertEquals(2, detector.pendingAnnouncement("amount"));
+
+        detector.markAnnounced("amount", 2);
+
+        assertEquals(0, detector.pendingAnnouncement("amount"));
+        assertEquals(2, detector.readWidth("amount"));
+    }
+
+    @Test
+    void shardFor_whenKeyCoolsDown_shouldShrinkShardsButKeepReadWidth() {
+        detector.recordThrottle("amount");
+        detector.recordThrottle("amount");
+        detector.markAnnounced("amount", 4);
+
+        advanceSeconds(11);
+        detector.shardFor("amount");
+
+        assertEquals(2, detector.shardCount("amount"));
+        assertEquals(4, detector.readWidth("amount"));
+    }
+
+    @Test
+    void isThrottling_shouldRecognizeThroughputErrors() {
+        assertTrue(HotKeyDetector.isThrottling(ProvisionedThroughputExceededException.builder().message("slow down").build()));
+        assertFalse(HotKeyDetector.isThrottling(DynamoDbException.builder().message("boom").statusCode(500).build()));
+        assertFalse(HotKeyDetector.isThrottling(new IllegalStateException("boom")));
+    }
+
+    @Test
+    void isTransactionConflict_shouldRecognizeConflictingWrites() {
+        TransactionCanceledException conflict = TransactionCanceledException.builder()
+                .message("conflict")
+                .cancellationReasons(CancellationReason.builder().code("None").build(),
+                        CancellationReason.builder().code("TransactionConflict").build())
+                .build();
+        assertTrue(HotKeyDetector.isTransactionConflict(conflict));
+        assertTrue(HotKeyDetector.isContended(conflict));
+        assertTrue(HotKeyDetector.isTransactionConflict(TransactionConflictException.builder().message("busy").build()));
+        assertFalse(HotKeyDetector.isThrottling(conflict));
+        assertFalse(HotKeyDetector.isTransactionConflict(ProvisionedThroughputExceededException.builder().message("slow down").build()));
+    }
+
+    private void advanceSeconds(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
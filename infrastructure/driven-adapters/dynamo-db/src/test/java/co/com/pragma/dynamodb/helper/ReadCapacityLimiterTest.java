@@ -0,0 +1,44 @@
+package co.com.pragma.dynamodb.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadCapacityLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void reserve_shouldDelayCallersOnceTheBudgetIsSpent() {
+        ReadCapacityLimiter limiter = new ReadCapacityLimiter(1.0, 100, now::get);
+
+        assertEquals(0, limiter.reserve(50));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.reserve(50));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.reserve(10));
+    }
+
+    @Test
+    void reserve_shouldNotAccumulateBudgetWhileIdle() {
+        ReadCapacityLimiter limiter = new ReadCapacityLimiter(1.0, 100, now::get);
+        limiter.reserve(100);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertEquals(0, limiter.reserve(100));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.reserve(1));
+    }
+
+    @Test
+    void limitTo_shouldUseShareOfProvisionedCapacityOrOnDemandRate() {
+        ReadCapacityLimiter limiter = new ReadCapacityLimiter(0.5, 300, now::get);
+
+        limiter.limitTo(1000L);
+        assertEquals(500, limiter.unitsPerSecond());
+
+        limiter.limitTo(0L);
+        assertEquals(300, limiter.unitsPerSecond());
+    }
+}
@@ -0,0 +1,57 @@
+package co.com.pragma.dynamodb.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ReadThroughCacheTest {
+
+    private final CacheSettings settings = new CacheSettings(100, Duration.ofSeconds(5), Duration.ofSeconds(60));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_shouldLoadOnceAndServeLaterReadsFromCache() {
+        ReadThroughCache<String, Integer> cache = new ReadThroughCache<>("test", settings, registry,
+                key -> Mono.fromSupplier(loads::incrementAndGet));
+
+        StepVerifier.create(cache.get("a")).expectNext(1).verifyComplete();
+        StepVerifier.create(cache.get("a")).expectNext(1).verifyComplete();
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "test").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "test").tag("result", "miss").functionCounter().count());
+        assertNotNull(registry.find("cache.evictions").tag("cache", "test").functionCounter());
+    }
+
+    @Test
+    void get_whenLoadIsEmpty_shouldNotCacheTheAbsence() {
+        ReadThroughCache<String, Integer> cache = new ReadThroughCache<>("test", settings, registry,
+                key -> Mono.fromRunnable(loads::incrementAndGet));
+
+        StepVerifier.create(cache.get("a")).verifyComplete();
+        StepVerifier.create(cache.get("a")).verifyComplete();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_shouldReloadOnNextRead() {
+        ReadThroughCache<String, Integer> cache = new ReadThroughCache<>("test", settings, registry,
+                key -> Mono.fromSupplier(loads::incrementAndGet));
+
+        StepVerifier.create(cache.get("a")).expectNext(1).verifyComplete();
+        cache.invalidate("a");
+        StepVerifier.create(cache.get("a")).expectNext(2).verifyComplete();
+        cache.invalidateAll(List.of("a", "b"));
+        StepVerifier.create(cache.get("a")).expectNext(3).verifyComplete();
+    }
+}
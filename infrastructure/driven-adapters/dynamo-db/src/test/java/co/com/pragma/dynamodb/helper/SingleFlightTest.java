@@ -0,0 +1,83 @@
+package co.com.pragma.dynamodb.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> flights = new SingleFlight<>("test");
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void execute_whenCallIsInFlight_shouldShareItsResult() {
+        Sinks.One<Integer> result = Sinks.one();
+
+        Flux<Integer> concurrent = Flux.merge(
+                flights.execute("a", key -> call(result)),
+                flights.execute("a", key -> call(result)),
+                flights.execute("b", key -> Mono.just(7)));
+
+        StepVerifier.create(concurrent)
+                .expectNext(7)
+                .then(() -> result.tryEmitValue(42))
+                .expectNext(42, 42)
+                .verifyComplete();
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_afterCallTerminates_shouldStartAFreshCall() {
+        StepVerifier.create(flights.execute("a", key -> Mono.<Integer>error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        StepVerifier.create(flights.execute("a", key -> Mono.fromSupplier(calls::incrementAndGet)))
+                .expectNext(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void execute_afterKeyIsForgotten_shouldNotJoinTheOlderCall() {
+        Sinks.One<Integer> older = Sinks.one();
+        Mono<Integer> first = flights.execute("a", key -> call(older));
+
+        StepVerifier.create(first)
+                .then(() -> flights.forget("a"))
+                .then(() -> StepVerifier.create(flights.execute("a", key -> Mono.just(2)))
+                        .expectNext(2)
+                        .verifyComplete())
+                .then(() -> older.tryEmitValue(1))
+                .expectNext(1)
+                .verifyComplete();
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void bindTo_shouldReportExecutedAndSharedRequests() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        flights.bindTo(registry);
+        Sinks.One<Integer> result = Sinks.one();
+
+        StepVerifier.create(Flux.merge(flights.execute("a", key -> call(result)), flights.execute("a", key -> call(result))))
+                .then(() -> result.tryEmitValue(1))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        assertEquals(1.0, registry.get("singleflight.requests").tag("result", "executed").functionCounter().count());
+        assertEquals(1.0, registry.get("singleflight.requests").tag("result", "shared").functionCounter().count());
+        assertEquals(0.0, registry.get("singleflight.in.flight").gauge().value());
+    }
+
+    private Mono<Integer> call(Sinks.One<Integer> result) {
+        calls.incrementAndGet();
+        return result.asMono();
+    }
+}
@@ -2,26 +2,44 @@ package co.com.pragma.dynamodb.helper;
 
 import co.com.pragma.dynamodb.DynamoDBTemplateAdapter;
 import co.com.pragma.dynamodb.MetricEntity;
+import co.com.pragma.dynamodb.MetricLayout;
+import co.com.pragma.dynamodb.PackedMigration;
 import co.com.pragma.model.metric.Metric;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.reactivecommons.utils.ObjectMapper;
 import org.reactivestreams.Subscription;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 import software.amazon.awssdk.core.async.SdkPublisher;
 import software.amazon.awssdk.enhanced.dynamodb.*;
 import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.PagePublisher;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class TemplateAdapterOperationsTest {
@@ -29,15 +47,15 @@ class TemplateAdapterOperationsTest {
     @Mock
     private DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient;
 
-    @Mock
-    private ObjectMapper mapper;
-
     @Mock
     private DynamoDbAsyncTable<MetricEntity> table;
 
     @Mock
     private DynamoDbAsyncIndex<MetricEntity> index;
 
+    @Mock
+    private DynamoDbAsyncClient client;
+
     private MetricEntity metricEntity;
     private Metric metric;
     private DynamoDBTemplateAdapter dynamoDBTemplateAdapter;
@@ -47,20 +65,19 @@ class TemplateAdapterOperationsTest {
         MockitoAnnotations.openMocks(this);
 
         // Corregir el nombre de la tabla para que coincida con la implementación
-        when(dynamoDbEnhancedAsyncClient.table("reporte_aprobados", TableSchema.fromBean(MetricEntity.class)))
+        when(dynamoDbEnhancedAsyncClient.table("reporte_aprobados", MetricEntity.TABLE_SCHEMA))
                 .thenReturn(table);
         when(table.index("some-index")).thenReturn(index);
 
         // Crear una única instancia del adaptador para todas las pruebas
-        dynamoDBTemplateAdapter = new DynamoDBTemplateAdapter(dynamoDbEnhancedAsyncClient, mapper);
+        dynamoDBTemplateAdapter = new DynamoDBTemplateAdapter(dynamoDbEnhancedAsyncClient, client,
+                new HotKeyDetector(200, 10, Duration.ofMinutes(5)), new ReadCapacityLimiter(1.0, 1000),
+                MetricLayout.ITEM, PackedMigration.none(), new CacheSettings(100, Duration.ofSeconds(5), Duration.ofSeconds(60)),
+                HedgeSettings.disabled(), new SimpleMeterRegistry());
 
         // Configurar objetos de dominio y entidad para las pruebas
         metric = Metric.builder().name("test-metric").value(new BigDecimal("123.45")).build();
         metricEntity = new MetricEntity("test-metric", new BigDecimal("123.45"));
-
-        // Configurar los mocks del ObjectMapper para la conversión
-        when(mapper.map(metric, MetricEntity.class)).thenReturn(metricEntity);
-        when(mapper.map(metricEntity, Metric.class)).thenReturn(metric);
     }
 
     @Test
@@ -74,7 +91,7 @@ class TemplateAdapterOperationsTest {
     @Test
     void testSave() {
         // Arrange: Simular que la operación putItem se completa exitosamente
-        when(table.putItem(metricEntity)).thenReturn(CompletableFuture.completedFuture(null));
+        when(table.putItem(any(MetricEntity.class))).thenReturn(CompletableFuture.completedFuture(null));
 
         // Act & Assert: Verificar que saveMetric devuelve la métrica original al completarse
         StepVerifier.create(dynamoDBTemplateAdapter.save(metric))
@@ -90,10 +107,52 @@ class TemplateAdapterOperationsTest {
 
         // Act & Assert: Verificar que getById devuelve el objeto de dominio correctamente mapeado
         StepVerifier.create(dynamoDBTemplateAdapter.getById("id"))
-                .expectNext(metric)
+                .expectNextMatches(this::isTestMetric)
                 .verifyComplete();
     }
 
+    @Test
+    void testConcurrentGetByIdShareOneGetItem() {
+        // Arrange: la lectura queda pendiente hasta completar el future
+        CompletableFuture<MetricEntity> pending = new CompletableFuture<>();
+        when(table.getItem(any(Key.class))).thenReturn(pending);
+
+        // Act: tres lecturas concurrentes de la misma clave
+        Flux<Metric> reads = Flux.merge(dynamoDBTemplateAdapter.getById("id"),
+                dynamoDBTemplateAdapter.getById("id"), dynamoDBTemplateAdapter.getById("id"));
+
+        // Assert: un único GetItem atiende a las tres
+        StepVerifier.create(reads)
+                .then(() -> pending.complete(metricEntity))
+                .expectNextCount(3)
+                .verifyComplete();
+        verify(table, times(1)).getItem(any(Key.class));
+
+        // Una lectura posterior ya no comparte la anterior
+        StepVerifier.create(dynamoDBTemplateAdapter.getById("id"))
+                .expectNextMatches(this::isTestMetric)
+                .verifyComplete();
+        verify(table, times(2)).getItem(any(Key.class));
+    }
+
+    @Test
+    void testGetByIdsChunksAtOneHundredDistinctKeys() {
+        // Arrange: 150 distinct ids plus a duplicate must become two BatchGetItem calls
+        List<String> ids = new ArrayList<>(IntStream.range(0, 150).mapToObj(i -> "metric-" + i).toList());
+        ids.add("metric-0");
+        when(client.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(BatchGetItemResponse.builder().responses(Map.of()).build()));
+
+        // Act & Assert
+        StepVerifier.create(dynamoDBTemplateAdapter.getByIds(ids))
+                .verifyComplete();
+
+        ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(client, times(2)).batchGetItem(captor.capture());
+        assertEquals(100, captor.getAllValues().get(0).requestItems().get("reporte_aprobados").keys().size());
+        assertEquals(50, captor.getAllValues().get(1).requestItems().get("reporte_aprobados").keys().size());
+    }
+
     @Test
     void testDelete() {
         // Arrange: Simular que deleteItem devuelve la entidad eliminada
@@ -102,7 +161,7 @@ class TemplateAdapterOperationsTest {
 
         // Act & Assert: Verificar que delete devuelve el objeto de dominio correctamente mapeado
         StepVerifier.create(dynamoDBTemplateAdapter.delete(metric))
-                .expectNext(metric)
+                .expectNextMatches(this::isTestMetric)
                 .verifyComplete();
     }
 
@@ -131,7 +190,7 @@ class TemplateAdapterOperationsTest {
         when(table.query(any(QueryEnhancedRequest.class))).thenReturn(pagePublisher);
 
         StepVerifier.create(dynamoDBTemplateAdapter.query(queryEnhancedRequest))
-                .expectNext(List.of(metric))
+                .expectNextMatches(metrics -> metrics.size() == 1 && isTestMetric(metrics.get(0)))
                 .verifyComplete();
     }
 
@@ -165,7 +224,71 @@ class TemplateAdapterOperationsTest {
         when(index.query(any(QueryEnhancedRequest.class))).thenReturn(mockPublisher);
 
         StepVerifier.create(dynamoDBTemplateAdapter.queryByIndex(queryEnhancedRequest, "some-index")) // <-- Pasa el nombre del índice aquí
-                .expectNext(List.of(metric))
+                .expectNextMatches(metrics -> metrics.size() == 1 && isTestMetric(metrics.get(0)))
+                .verifyComplete();
+    }
+
+    @Test
+    void testQueryCollectsEveryPage() {
+        Page<MetricEntity> page = Page.create(List.of(metricEntity));
+        when(table.query(any(QueryEnhancedRequest.class)))
+                .thenReturn(PagePublisher.create(SdkPublisher.adapt(Flux.just(page, page, page))));
+
+        StepVerifier.create(dynamoDBTemplateAdapter.query(QueryEnhancedRequest.builder().build()))
+                .expectNextMatches(metrics -> metrics.size() == 3 && metrics.stream().allMatch(this::isTestMetric))
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testStreamQueryFetchesPagesOnDemandWithPageSizeAndProjection() {
+        AtomicInteger pagesRequested = new AtomicInteger();
+        Page<MetricEntity> page = Page.create(List.of(metricEntity, metricEntity));
+        Flux<Page<MetricEntity>> pages = Flux.just(page, page, page).doOnRequest(n -> pagesRequested.addAndGet((int) n));
+        when(table.query(any(QueryEnhancedRequest.class))).thenReturn(PagePublisher.create(SdkPublisher.adapt(pages)));
+        QueryConditional condition = QueryConditional.keyEqualTo(Key.builder().partitionValue("test-metric").build());
+
+        StepVerifier.create(dynamoDBTemplateAdapter.streamQuery(condition, 2, MetricEntity.VALUE_ATTRIBUTE), 2)
+                .expectNextMatches(this::isTestMetric)
+                .expectNextMatches(this::isTestMetric)
+                .then(() -> assertTrue(pagesRequested.get() < 3))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(4)
+                .verifyComplete();
+
+        ArgumentCaptor<QueryEnhancedRequest> captor = ArgumentCaptor.forClass(QueryEnhancedRequest.class);
+        verify(table).query(captor.capture());
+        assertEquals(2, captor.getValue().limit());
+        assertEquals(List.of(MetricEntity.VALUE_ATTRIBUTE), captor.getValue().attributesToProject());
+    }
+
+    @Test
+    void testStreamQueryByIndexStreamsEveryPage() {
+        Page<MetricEntity> page = Page.create(List.of(metricEntity));
+        when(index.query(any(QueryEnhancedRequest.class))).thenReturn(SdkPublisher.adapt(Flux.just(page, page)));
+
+        StepVerifier.create(dynamoDBTemplateAdapter.streamQueryByIndex(QueryEnhancedRequest.builder().build(), "some-index"))
+                .expectNextMatches(this::isTestMetric)
+                .expectNextMatches(this::isTestMetric)
+                .verifyComplete();
+    }
+
+    @Test
+    void testParallelScanMergesEverySegment() {
+        Page<MetricEntity> page = Page.create(List.of(metricEntity));
+        when(table.scan(any(ScanEnhancedRequest.class)))
+                .thenAnswer(invocation -> PagePublisher.create(SdkPublisher.adapt(Flux.just(page, page))));
+
+        StepVerifier.create(dynamoDBTemplateAdapter.parallelScan(4, new ReadCapacityLimiter(1.0, 1000)))
+                .expectNextCount(8)
+                .verifyComplete();
+
+        ArgumentCaptor<ScanEnhancedRequest> captor = ArgumentCaptor.forClass(ScanEnhancedRequest.class);
+        verify(table, times(4)).scan(captor.capture());
+        assertEquals(List.of(0, 1, 2, 3), captor.getAllValues().stream().map(ScanEnhancedRequest::segment).sorted().toList());
+        assertTrue(captor.getAllValues().stream().allMatch(request -> request.totalSegments() == 4));
+    }
+
+    private boolean isTestMetric(Metric candidate) {
+        return candidate.getName().equals(metric.getName()) && candidate.getValue().compareTo(metric.getValue()) == 0;
+    }
+}
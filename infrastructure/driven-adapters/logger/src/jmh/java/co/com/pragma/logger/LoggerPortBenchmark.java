@@ -0,0 +1,67 @@
+package co.com.pragma.logger;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import co.com.pragma.model.logs.gateways.LoggerPort;
+import co.com.pragma.model.metric.Metric;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of an info call while the logger sits at WARN, as on the hot ingest path in
+ * production. Run with {@code ./gradlew :logger:jmh}; the gc profiler's
+ * {@code gc.alloc.rate.norm} is the number to read: the varargs call pays for its array and the boxed version,
+ * and a supplier that captures its argument is a new object on every call unless escape analysis
+ * removes it. The fixed arity, non-capturing supplier and guarded calls should report no
+ * allocation at all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggerPortBenchmark {
+
+    private static final Supplier<String> CONSTANT_ARG = () -> "quantity";
+
+    private LoggerPort logger;
+    private Metric metric;
+    private String queueUrl;
+    private long version;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(LoggerPortBenchmark.class)).setLevel(Level.WARN);
+        logger = new Slf4jLoggerAdapter(LoggerPortBenchmark.class);
+        metric = Metric.builder().name("quantity").value(new BigDecimal("1250.75")).build();
+        queueUrl = "http://localhost:4566/000000000000/report";
+        version = 1_000_000L;
+    }
+
+    @Benchmark
+    public void varargsWhenOff() {
+        logger.info("Metric {} from {} saved as version {}", metric, queueUrl, version);
+    }
+
+    @Benchmark
+    public void fixedArityWhenOff() {
+        logger.info("Metric saved {}", metric);
+    }
+
+    @Benchmark
+    public void capturingSupplierWhenOff() {
+        logger.info("Metric saved {}", metric::toString);
+    }
+
+    @Benchmark
+    public void staticSupplierWhenOff() {
+        logger.info("Metric saved {}", CONSTANT_ARG);
+    }
+
+    @Benchmark
+    public void guardedVarargsWhenOff() {
+        if (logger.isInfoEnabled()) logger.info("Metric {} from {} saved as version {}", metric, queueUrl, version);
+    }
+}
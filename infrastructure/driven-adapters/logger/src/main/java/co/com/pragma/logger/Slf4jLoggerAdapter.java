@@ -1,34 +1,179 @@
 package co.com.pragma.logger;
 
+import co.com.pragma.logger.async.AsyncLogDispatcher;
+import co.com.pragma.logger.async.LogSampler;
 import co.com.pragma.model.logs.gateways.LoggerPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
 
+import java.util.function.Supplier;
+
+/**
+ * Writes through SLF4J, directly or, when a dispatcher is given, by formatting the line on the
+ * caller thread and handing it to the {@link AsyncLogDispatcher}. Disabled levels return
+ * before anything is formatted or queued.
+ */
 public class Slf4jLoggerAdapter implements LoggerPort {
 
     private final Logger logger;
+    private final AsyncLogDispatcher dispatcher;
+    private final LogSampler sampler;
 
     public Slf4jLoggerAdapter(Class<?> clazz) {
+        this(clazz, null, LogSampler.none());
+    }
+
+    public Slf4jLoggerAdapter(Class<?> clazz, AsyncLogDispatcher dispatcher, LogSampler sampler) {
         this.logger = LoggerFactory.getLogger(clazz);
+        this.dispatcher = dispatcher;
+        this.sampler = sampler;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return logger.isInfoEnabled();
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return logger.isWarnEnabled();
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return logger.isErrorEnabled();
+    }
+
+    @Override
+    public void debug(String message) {
+        if (dispatcher == null) logger.debug(message);
+        else if (logger.isDebugEnabled()) dispatcher.dispatch(logger, Level.DEBUG, message, null);
+    }
+
+    @Override
+    public void debug(String message, Object arg) {
+        if (dispatcher == null) logger.debug(message, arg);
+        else if (logger.isDebugEnabled()) dispatch(Level.DEBUG, MessageFormatter.format(message, arg));
+    }
+
+    @Override
+    public void debug(String message, Object arg1, Object arg2) {
+        if (dispatcher == null) logger.debug(message, arg1, arg2);
+        else if (logger.isDebugEnabled()) dispatch(Level.DEBUG, MessageFormatter.format(message, arg1, arg2));
+    }
+
+    @Override
+    public void debug(String message, Supplier<?> arg) {
+        if (logger.isDebugEnabled()) debug(message, (Object) arg.get());
     }
 
     @Override
     public void debug(String message, Object... args) {
-        logger.debug(message, args);
+        if (dispatcher == null) logger.debug(message, args);
+        else if (logger.isDebugEnabled()) dispatch(Level.DEBUG, MessageFormatter.arrayFormat(message, args));
+    }
+
+    @Override
+    public void info(String message) {
+        if (dispatcher == null) logger.info(message);
+        else if (logger.isInfoEnabled()) dispatcher.dispatch(logger, Level.INFO, message, null);
+    }
+
+    @Override
+    public void info(String message, Object arg) {
+        if (dispatcher == null) logger.info(message, arg);
+        else if (logger.isInfoEnabled()) dispatch(Level.INFO, MessageFormatter.format(message, arg));
+    }
+
+    @Override
+    public void info(String message, Object arg1, Object arg2) {
+        if (dispatcher == null) logger.info(message, arg1, arg2);
+        else if (logger.isInfoEnabled()) dispatch(Level.INFO, MessageFormatter.format(message, arg1, arg2));
+    }
+
+    @Override
+    public void info(String message, Supplier<?> arg) {
+        if (logger.isInfoEnabled()) info(message, (Object) arg.get());
     }
 
     @Override
     public void info(String message, Object... args) {
-        logger.info(message, args);
+        if (dispatcher == null) logger.info(message, args);
+        else if (logger.isInfoEnabled()) dispatch(Level.INFO, MessageFormatter.arrayFormat(message, args));
+    }
+
+    @Override
+    public void infoSampled(String callSite, String message, Object arg) {
+        if (logger.isInfoEnabled() && sampler.sample(callSite)) info(message, arg);
+    }
+
+    @Override
+    public void warn(String message) {
+        if (dispatcher == null) logger.warn(message);
+        else if (logger.isWarnEnabled()) dispatcher.dispatch(logger, Level.WARN, message, null);
+    }
+
+    @Override
+    public void warn(String message, Object arg) {
+        if (dispatcher == null) logger.warn(message, arg);
+        else if (logger.isWarnEnabled()) dispatch(Level.WARN, MessageFormatter.format(message, arg));
+    }
+
+    @Override
+    public void warn(String message, Object arg1, Object arg2) {
+        if (dispatcher == null) logger.warn(message, arg1, arg2);
+        else if (logger.isWarnEnabled()) dispatch(Level.WARN, MessageFormatter.format(message, arg1, arg2));
+    }
+
+    @Override
+    public void warn(String message, Supplier<?> arg) {
+        if (logger.isWarnEnabled()) warn(message, (Object) arg.get());
     }
 
     @Override
     public void warn(String message, Object... args) {
-        logger.warn(message, args);
+        if (dispatcher == null) logger.warn(message, args);
+        else if (logger.isWarnEnabled()) dispatch(Level.WARN, MessageFormatter.arrayFormat(message, args));
+    }
+
+    @Override
+    public void error(String message) {
+        if (dispatcher == null) logger.error(message);
+        else if (logger.isErrorEnabled()) dispatcher.dispatch(logger, Level.ERROR, message, null);
+    }
+
+    @Override
+    public void error(String message, Object arg) {
+        if (dispatcher == null) logger.error(message, arg);
+        else if (logger.isErrorEnabled()) dispatch(Level.ERROR, MessageFormatter.format(message, arg));
+    }
+
+    @Override
+    public void error(String message, Object arg1, Object arg2) {
+        if (dispatcher == null) logger.error(message, arg1, arg2);
+        else if (logger.isErrorEnabled()) dispatch(Level.ERROR, MessageFormatter.format(message, arg1, arg2));
+    }
+
+    @Override
+    public void error(String message, Supplier<?> arg) {
+        if (logger.isErrorEnabled()) error(message, (Object) arg.get());
     }
 
     @Override
     public void error(String message, Object... args) {
-        logger.error(message, args);
+        if (dispatcher == null) logger.error(message, args);
+        else if (logger.isErrorEnabled()) dispatch(Level.ERROR, MessageFormatter.arrayFormat(message, args));
+    }
+
+    private void dispatch(Level level, FormattingTuple line) {
+        dispatcher.dispatch(logger, level, line.getMessage(), line.getThrowable());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,203 @@
+package co.com.pragma.logger.async;
+
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves console writes off the calling threads. Lines are formatted by the caller and turned
+ * into logback events there, which fixes the caller's time, thread name and MDC on them; the
+ * events are queued in a {@link LogRingBuffer} and handed to the appenders by a single daemon
+ * thread, so pollers and request threads never wait on stdout and the console still shows
+ * where and when each line was logged. When the buffer is full, debug and info lines follow
+ * the {@link OverflowPolicy}, while warnings and errors wait for room, so they are not written
+ * ahead of the lines queued before them. A wait is bounded: past it a warning or error is
+ * written on the caller thread and any other line is dropped and counted. Loggers of other
+ * backends cannot carry that context to another thread, so their lines are written on the
+ * caller thread.
+ * <p>
+ * Events are handed to the appenders directly, so the caller runs logback's turbo filters
+ * first, as {@code Logger.filterAndLog} would. They see the formatted line as the format and
+ * no arguments, since the arguments were applied before the line was dispatched.
+ */
+public class AsyncLogDispatcher implements MeterBinder, AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+    private static final String FQCN = AsyncLogDispatcher.class.getName();
+    private static final LogRingBuffer.Reader WRITER = ch.qos.logback.classic.Logger::callAppenders;
+
+    private final LogRingBuffer buffer;
+    private final OverflowPolicy overflow;
+    private final long maxWaitNanos;
+    private final Thread worker;
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder direct = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private volatile boolean running = true;
+    private volatile boolean idle;
+
+    public AsyncLogDispatcher(int bufferSize, OverflowPolicy overflow, Duration maxWait) {
+        this.buffer = new LogRingBuffer(bufferSize);
+        this.overflow = overflow;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.worker = new Thread(this::drain, "async-logger");
+        this.worker.setDaemon(true);
+    }
+
+    public void start() {
+        worker.start();
+    }
+
+    public void dispatch(Logger logger, Level level, String message, Throwable throwable) {
+        if (!(logger instanceof ch.qos.logback.classic.Logger target) || !running || Thread.currentThread() == worker) {
+            direct.increment();
+            write(logger, level, message, throwable);
+            return;
+        }
+        ch.qos.logback.classic.Level targetLevel = ch.qos.logback.classic.Level.convertAnSLF4JLevel(level);
+        if (!accepts(target, targetLevel, message, throwable)) return;
+        LoggingEvent event = new LoggingEvent(FQCN, target, targetLevel, message, throwable, null);
+        // Reads the thread name and MDC now, before the event leaves the caller thread
+        event.prepareForDeferredProcessing();
+        if (enqueue(target, event)) return;
+        if (overflow == OverflowPolicy.WAIT || level.toInt() >= Level.WARN.toInt()) {
+            waits.increment();
+            awaitRoom(target, event);
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Stops the dispatcher thread once it has written what is queued. Lines logged afterwards
+     * are written on the caller thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            if (worker.isAlive()) worker.join(CLOSE_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The buffer has a single reader; if the thread is still writing, what is left stays with it
+        if (worker.isAlive()) return;
+        while (buffer.poll(WRITER)) {
+            // Lines queued while the dispatcher thread was stopping, or before it was started
+        }
+    }
+
+    private boolean enqueue(ch.qos.logback.classic.Logger target, LoggingEvent event) {
+        if (!buffer.offer(target, event)) return false;
+        queued.increment();
+        if (idle) LockSupport.unpark(worker);
+        return true;
+    }
+
+    /**
+     * The decision logback's own logging methods make: turbo filters first, then the level.
+     */
+    private static boolean accepts(ch.qos.logback.classic.Logger target, ch.qos.logback.classic.Level level,
+                                   String message, Throwable throwable) {
+        FilterReply decision = target.getLoggerContext()
+                .getTurboFilterChainDecision_0_3OrMore(null, target, level, message, null, throwable);
+        if (decision != FilterReply.NEUTRAL) return decision == FilterReply.ACCEPT;
+        return level.isGreaterOrEqual(target.getEffectiveLevel());
+    }
+
+    /**
+     * Spins until the dispatcher thread frees a slot, so the line keeps its place behind the
+     * ones queued before it. Spinning rather than parking keeps event loop threads from
+     * blocking; the wait usually lasts as long as the console takes to write one line, and
+     * never longer than the maximum wait, after which a warning or error is written on the
+     * caller thread and any other line is dropped. A dispatcher that was never started, or has
+     * stopped, frees nothing, so the line is then written on the caller thread at once.
+     */
+    private void awaitRoom(ch.qos.logback.classic.Logger target, LoggingEvent event) {
+        long start = System.nanoTime();
+        while (running && worker.isAlive()) {
+            if (enqueue(target, event)) return;
+            if (System.nanoTime() - start > maxWaitNanos) {
+                if (!event.getLevel().isGreaterOrEqual(ch.qos.logback.classic.Level.WARN)) {
+                    dropped.increment();
+                    return;
+                }
+                break;
+            }
+            Thread.onSpinWait();
+        }
+        direct.increment();
+        target.callAppenders(event);
+    }
+
+    private void drain() {
+        while (running) {
+            if (buffer.poll(WRITER)) continue;
+            idle = true;
+            // A line queued between the failed poll and the flag is caught by this second poll
+            if (!buffer.poll(WRITER)) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            idle = false;
+        }
+        while (buffer.poll(WRITER)) {
+            // Flush what was queued before the close
+        }
+    }
+
+    private static void write(Logger logger, Level level, String message, Throwable throwable) {
+        switch (level) {
+            case ERROR -> logger.error(message, throwable);
+            case WARN -> logger.warn(message, throwable);
+            case INFO -> logger.info(message, throwable);
+            case DEBUG -> logger.debug(message, throwable);
+            case TRACE -> logger.trace(message, throwable);
+        }
+    }
+
+    /**
+     * Publishes how many lines were queued, dropped because the buffer was full or written on
+     * the caller thread, how often a caller waited for room, and how much of the buffer is in
+     * use.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "queued", queued);
+        counter(registry, "dropped", dropped);
+        counter(registry, "direct", direct);
+        FunctionCounter.builder("logging.async.overflow.waits", waits, LongAdder::doubleValue)
+                .description("Lines whose caller waited for room in a full buffer")
+                .register(registry);
+        Gauge.builder("logging.async.buffer.used", buffer, LogRingBuffer::size).register(registry);
+        Gauge.builder("logging.async.buffer.capacity", buffer, LogRingBuffer::capacity).register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String result, LongAdder count) {
+        FunctionCounter.builder("logging.async.events", count, LongAdder::doubleValue)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    long direct() {
+        return direct.sum();
+    }
+
+    long waits() {
+        return waits.sum();
+    }
+}
@@ -0,0 +1,83 @@
+package co.com.pragma.logger.async;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded multi-producer, single-consumer ring of log events. Producers claim a slot with a
+ * compare-and-set on the tail and publish it by advancing the slot's sequence; the consumer
+ * frees it the same way, so neither side takes a lock and the slots are reused instead of
+ * allocated per line.
+ */
+final class LogRingBuffer {
+
+    interface Reader {
+        void read(Logger logger, ILoggingEvent event);
+    }
+
+    private static final class Slot {
+        final AtomicLong sequence;
+        Logger logger;
+        ILoggingEvent event;
+
+        Slot(long sequence) {
+            this.sequence = new AtomicLong(sequence);
+        }
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    LogRingBuffer(int capacity) {
+        int size = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(2, capacity) - 1));
+        slots = new Slot[size];
+        for (int i = 0; i < size; i++) slots[i] = new Slot(i);
+        mask = size - 1;
+    }
+
+    boolean offer(Logger logger, ILoggingEvent event) {
+        long position = tail.get();
+        while (true) {
+            Slot slot = slots[(int) position & mask];
+            long lag = slot.sequence.get() - position;
+            if (lag == 0 && tail.compareAndSet(position, position + 1)) {
+                slot.logger = logger;
+                slot.event = event;
+                slot.sequence.set(position + 1);
+                return true;
+            }
+            // The consumer has not freed this slot yet: the ring is full
+            if (lag < 0) return false;
+            position = tail.get();
+        }
+    }
+
+    /**
+     * Hands the oldest event to the reader. Only the consumer thread may call this.
+     */
+    boolean poll(Reader reader) {
+        long position = head;
+        Slot slot = slots[(int) position & mask];
+        if (slot.sequence.get() != position + 1) return false;
+        Logger logger = slot.logger;
+        ILoggingEvent event = slot.event;
+        slot.logger = null;
+        slot.event = null;
+        slot.sequence.set(position + slots.length);
+        head = position + 1;
+        reader.read(logger, event);
+        return true;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
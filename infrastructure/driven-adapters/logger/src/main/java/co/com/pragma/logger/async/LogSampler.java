@@ -0,0 +1,57 @@
+package co.com.pragma.logger.async;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one line in N for each configured call site, counting the lines it skips. Call sites
+ * without a rate, or with a rate of one, are always logged.
+ */
+public class LogSampler implements MeterBinder {
+
+    private final Map<String, Site> sites;
+
+    public LogSampler(Map<String, Integer> oneInByCallSite) {
+        this.sites = oneInByCallSite.entrySet().stream()
+                .filter(rate -> rate.getValue() > 1)
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, rate -> new Site(rate.getValue())));
+    }
+
+    public static LogSampler none() {
+        return new LogSampler(Map.of());
+    }
+
+    public boolean sample(String callSite) {
+        Site site = sites.get(callSite);
+        return site == null || site.sample();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        sites.forEach((callSite, site) -> FunctionCounter.builder("logging.sampled.events", site.skipped, LongAdder::doubleValue)
+                .tag("site", callSite)
+                .register(registry));
+    }
+
+    private static final class Site {
+        private final int oneIn;
+        private final AtomicLong calls = new AtomicLong();
+        private final LongAdder skipped = new LongAdder();
+
+        private Site(int oneIn) {
+            this.oneIn = oneIn;
+        }
+
+        private boolean sample() {
+            if (calls.getAndIncrement() % oneIn == 0) return true;
+            skipped.increment();
+            return false;
+        }
+    }
+}
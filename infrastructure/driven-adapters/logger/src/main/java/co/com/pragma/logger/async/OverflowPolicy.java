@@ -0,0 +1,13 @@
+package co.com.pragma.logger.async;
+
+/**
+ * What the {@link AsyncLogDispatcher} does with a debug or info line when its buffer is full.
+ * Warnings and errors wait for room under either policy, and are written on the caller thread
+ * if the wait runs out, so they are never lost.
+ */
+public enum OverflowPolicy {
+    /** Drop the line and count it; callers never wait for the console. */
+    DROP,
+    /** Wait, up to the maximum wait, for the dispatcher thread to free a slot, slowing callers down to what the console takes. */
+    WAIT
+}
@@ -1,6 +1,8 @@
 package co.com.pragma.logger.config;
 
 import co.com.pragma.logger.Slf4jLoggerAdapter;
+import co.com.pragma.logger.async.AsyncLogDispatcher;
+import co.com.pragma.logger.async.LogSampler;
 import co.com.pragma.model.logs.gateways.LoggerPort;
 import org.springframework.beans.factory.InjectionPoint;
 import org.springframework.context.annotation.Bean;
@@ -10,9 +12,23 @@ import org.springframework.context.annotation.Scope;
 @Configuration
 public class LoggerConfig {
 
+    @Bean
+    public AsyncLogDispatcher asyncLogDispatcher(LoggingProperties properties) {
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(properties.bufferSize(), properties.overflow(), properties.maxWait());
+        if (properties.async()) dispatcher.start();
+        return dispatcher;
+    }
+
+    @Bean
+    public LogSampler logSampler(LoggingProperties properties) {
+        return new LogSampler(properties.sampling());
+    }
+
     @Bean
     @Scope("prototype")
-    public LoggerPort logger(InjectionPoint injectionPoint) {
-        return new Slf4jLoggerAdapter(injectionPoint.getMember().getDeclaringClass());
+    public LoggerPort logger(InjectionPoint injectionPoint, LoggingProperties properties,
+                             AsyncLogDispatcher dispatcher, LogSampler sampler) {
+        return new Slf4jLoggerAdapter(injectionPoint.getMember().getDeclaringClass(),
+                properties.async() ? dispatcher : null, sampler);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package co.com.pragma.logger.config;
+
+import co.com.pragma.logger.async.OverflowPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "adapters.logging")
+public record LoggingProperties(
+        @DefaultValue("true") boolean async,
+        @DefaultValue("8192") int bufferSize,
+        @DefaultValue("DROP") OverflowPolicy overflow,
+        @DefaultValue("50ms") Duration maxWait,
+        Map<String, Integer> sampling) {
+
+    public LoggingProperties {
+        sampling = sampling == null ? Map.of() : Map.copyOf(sampling);
+    }
+}
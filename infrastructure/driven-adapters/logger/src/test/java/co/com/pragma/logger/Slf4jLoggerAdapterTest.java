@@ -1,5 +1,8 @@
 package co.com.pragma.logger;
 
+import co.com.pragma.logger.async.AsyncLogDispatcher;
+import co.com.pragma.logger.async.LogSampler;
+import co.com.pragma.logger.async.OverflowPolicy;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,9 +13,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class Slf4jLoggerAdapterTest {
@@ -78,4 +90,83 @@ class Slf4jLoggerAdapterTest {
             verify(mockLogger, times(1)).error(message, arguments);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("should pass a single argument without a varargs array")
+    void info_withOneArgument_shouldUseFixedArity() {
+        try (MockedStatic<LoggerFactory> mockedFactory = Mockito.mockStatic(LoggerFactory.class)) {
+            mockedFactory.when(() -> LoggerFactory.getLogger(any(Class.class))).thenReturn(mockLogger);
+            Slf4jLoggerAdapter loggerAdapter = new Slf4jLoggerAdapter(this.getClass());
+
+            loggerAdapter.info("Metric saved {}", "quantity");
+            loggerAdapter.info("Metric {} saved as {}", "quantity", 7L);
+
+            verify(mockLogger, times(1)).info("Metric saved {}", (Object) "quantity");
+            verify(mockLogger, times(1)).info("Metric {} saved as {}", "quantity", 7L);
+        }
+    }
+
+    @Test
+    @DisplayName("should not evaluate a lazy argument when the level is off")
+    void debug_withSupplierWhenDisabled_shouldNotEvaluateIt() {
+        try (MockedStatic<LoggerFactory> mockedFactory = Mockito.mockStatic(LoggerFactory.class)) {
+            mockedFactory.when(() -> LoggerFactory.getLogger(any(Class.class))).thenReturn(mockLogger);
+            when(mockLogger.isDebugEnabled()).thenReturn(false);
+            Slf4jLoggerAdapter loggerAdapter = new Slf4jLoggerAdapter(this.getClass());
+            Supplier<String> argument = () -> fail("argument evaluated with the level off");
+
+            loggerAdapter.debug("Debug message: {}", argument);
+
+            assertFalse(loggerAdapter.isDebugEnabled());
+            verify(mockLogger, never()).debug(anyString(), any(Object.class));
+        }
+    }
+
+    @Test
+    @DisplayName("should evaluate a lazy argument when the level is on")
+    void warn_withSupplierWhenEnabled_shouldLogItsValue() {
+        try (MockedStatic<LoggerFactory> mockedFactory = Mockito.mockStatic(LoggerFactory.class)) {
+            mockedFactory.when(() -> LoggerFactory.getLogger(any(Class.class))).thenReturn(mockLogger);
+            when(mockLogger.isWarnEnabled()).thenReturn(true);
+            Slf4jLoggerAdapter loggerAdapter = new Slf4jLoggerAdapter(this.getClass());
+
+            loggerAdapter.warn("Warn message: {}", () -> "computed");
+
+            verify(mockLogger, times(1)).warn("Warn message: {}", (Object) "computed");
+        }
+    }
+
+    @Test
+    @DisplayName("should format on the caller when a dispatcher is given")
+    void info_withDispatcher_shouldWriteTheFormattedLine() {
+        try (MockedStatic<LoggerFactory> mockedFactory = Mockito.mockStatic(LoggerFactory.class)) {
+            mockedFactory.when(() -> LoggerFactory.getLogger(any(Class.class))).thenReturn(mockLogger);
+            when(mockLogger.isInfoEnabled()).thenReturn(true);
+            AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(16, OverflowPolicy.DROP, Duration.ofSeconds(5));
+            Slf4jLoggerAdapter loggerAdapter = new Slf4jLoggerAdapter(this.getClass(), dispatcher, LogSampler.none());
+
+            loggerAdapter.info("Metric saved {}", "quantity");
+            verify(mockLogger, never()).info(anyString(), any(Object.class));
+            dispatcher.close();
+
+            verify(mockLogger, times(1)).info("Metric saved quantity", (Throwable) null);
+        }
+    }
+
+    @Test
+    @DisplayName("should keep one sampled line in N for a call site")
+    void infoSampled_shouldLogOnlySampledCalls() {
+        try (MockedStatic<LoggerFactory> mockedFactory = Mockito.mockStatic(LoggerFactory.class)) {
+            mockedFactory.when(() -> LoggerFactory.getLogger(any(Class.class))).thenReturn(mockLogger);
+            when(mockLogger.isInfoEnabled()).thenReturn(true);
+            LogSampler sampler = new LogSampler(Map.of("metric-saved", 2));
+            Slf4jLoggerAdapter loggerAdapter = new Slf4jLoggerAdapter(this.getClass(), null, sampler);
+
+            for (int i = 0; i < 4; i++) loggerAdapter.infoSampled("metric-saved", "Metric saved {}", i);
+
+            verify(mockLogger, times(1)).info("Metric saved {}", (Object) 0);
+            verify(mockLogger, times(1)).info("Metric saved {}", (Object) 2);
+            verify(mockLogger, never()).info("Metric saved {}", (Object) 1);
+        }
+    }
+}
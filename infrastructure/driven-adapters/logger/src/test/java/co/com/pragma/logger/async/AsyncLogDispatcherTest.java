@@ -0,0 +1,252 @@
+package co.com.pragma.logger.async;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class AsyncLogDispatcherTest {
+
+    private static final Duration MAX_WAIT = Duration.ofSeconds(5);
+
+    private Logger logger;
+    private RecordingAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        logger = (Logger) LoggerFactory.getLogger(AsyncLogDispatcherTest.class);
+        logger.setLevel(ch.qos.logback.classic.Level.DEBUG);
+        logger.setAdditive(false);
+        appender = new RecordingAppender();
+        appender.setContext(logger.getLoggerContext());
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.getLoggerContext().resetTurboFilterList();
+        MDC.clear();
+    }
+
+    @Test
+    void dispatch_shouldWriteLinesInOrderWithTheCallerTimeThreadAndMdc() {
+        // Arrange
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(16, OverflowPolicy.DROP, MAX_WAIT);
+        dispatcher.start();
+        MDC.put("requestId", "r-1");
+        long before = System.currentTimeMillis();
+
+        // Act
+        dispatcher.dispatch(logger, Level.INFO, "first", null);
+        MDC.clear();
+        dispatcher.dispatch(logger, Level.DEBUG, "second", null);
+        long after = System.currentTimeMillis();
+        dispatcher.close();
+
+        // Assert
+        assertEquals(List.of("first", "second"), appender.messages());
+        ILoggingEvent first = appender.events.get(0);
+        assertEquals(Thread.currentThread().getName(), first.getThreadName());
+        assertEquals("r-1", first.getMDCPropertyMap().get("requestId"));
+        assertTrue(first.getTimeStamp() >= before && first.getTimeStamp() <= after);
+        assertTrue(appender.events.get(1).getMDCPropertyMap().isEmpty());
+    }
+
+    @Test
+    void dispatch_whenFullAndDropping_shouldDropInfoAndQueueErrorsBehindEarlierLines() throws InterruptedException {
+        // Arrange: the dispatcher thread is held writing the first line while two more fill the buffer
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(2, OverflowPolicy.DROP, MAX_WAIT);
+        dispatcher.start();
+        appender.hold();
+        dispatcher.dispatch(logger, Level.INFO, "held", null);
+        assertTrue(appender.entered.await(5, TimeUnit.SECONDS));
+        dispatcher.dispatch(logger, Level.INFO, "queued 1", null);
+        dispatcher.dispatch(logger, Level.INFO, "queued 2", null);
+
+        // Act
+        dispatcher.dispatch(logger, Level.INFO, "dropped", null);
+        Thread caller = new Thread(() -> dispatcher.dispatch(logger, Level.ERROR, "failed", new RuntimeException("boom")));
+        caller.start();
+        awaitWaitingCaller(dispatcher);
+        appender.release();
+        caller.join(5000);
+        dispatcher.close();
+
+        // Assert
+        assertEquals(List.of("held", "queued 1", "queued 2", "failed"), appender.messages());
+        assertEquals(1, dispatcher.dropped());
+        assertEquals(1, dispatcher.waits());
+        assertEquals(0, dispatcher.direct());
+    }
+
+    @Test
+    void dispatch_whenFullAndWaiting_shouldKeepInfoBehindEarlierLines() throws InterruptedException {
+        // Arrange
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(2, OverflowPolicy.WAIT, MAX_WAIT);
+        dispatcher.start();
+        appender.hold();
+        dispatcher.dispatch(logger, Level.INFO, "held", null);
+        assertTrue(appender.entered.await(5, TimeUnit.SECONDS));
+        dispatcher.dispatch(logger, Level.INFO, "queued 1", null);
+        dispatcher.dispatch(logger, Level.INFO, "queued 2", null);
+
+        // Act
+        Thread caller = new Thread(() -> dispatcher.dispatch(logger, Level.INFO, "overflow", null));
+        caller.start();
+        awaitWaitingCaller(dispatcher);
+        appender.release();
+        caller.join(5000);
+        dispatcher.close();
+
+        // Assert
+        assertEquals(List.of("held", "queued 1", "queued 2", "overflow"), appender.messages());
+        assertEquals(0, dispatcher.dropped());
+        assertEquals(1, dispatcher.waits());
+    }
+
+    @Test
+    void dispatch_whenWaitRunsOut_shouldDropInfoAndWriteErrorsOnTheCaller() throws InterruptedException {
+        // Arrange
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(2, OverflowPolicy.WAIT, Duration.ofMillis(20));
+        dispatcher.start();
+        appender.hold();
+        dispatcher.dispatch(logger, Level.INFO, "held", null);
+        assertTrue(appender.entered.await(5, TimeUnit.SECONDS));
+        dispatcher.dispatch(logger, Level.INFO, "queued 1", null);
+        dispatcher.dispatch(logger, Level.INFO, "queued 2", null);
+
+        // Act
+        dispatcher.dispatch(logger, Level.INFO, "timed out", null);
+        dispatcher.dispatch(logger, Level.ERROR, "failed", null);
+        appender.release();
+        dispatcher.close();
+
+        // Assert
+        assertEquals(List.of("held", "failed", "queued 1", "queued 2"), appender.messages());
+        assertEquals(2, dispatcher.waits());
+        assertEquals(1, dispatcher.dropped());
+        assertEquals(1, dispatcher.direct());
+    }
+
+    @Test
+    void dispatch_whenTurboFilterDenies_shouldNotQueueTheLine() {
+        // Arrange
+        logger.getLoggerContext().addTurboFilter(new TurboFilter() {
+            @Override
+            public FilterReply decide(Marker marker, Logger target, ch.qos.logback.classic.Level level, String format,
+                                      Object[] params, Throwable t) {
+                return "muted".equals(format) ? FilterReply.DENY : FilterReply.NEUTRAL;
+            }
+        });
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(16, OverflowPolicy.DROP, MAX_WAIT);
+        dispatcher.start();
+
+        // Act
+        dispatcher.dispatch(logger, Level.WARN, "muted", null);
+        dispatcher.dispatch(logger, Level.WARN, "kept", null);
+        dispatcher.close();
+
+        // Assert
+        assertEquals(List.of("kept"), appender.messages());
+    }
+
+    @Test
+    void dispatch_whenLoggerIsNotLogback_shouldWriteOnTheCaller() {
+        org.slf4j.Logger other = mock(org.slf4j.Logger.class);
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(16, OverflowPolicy.DROP, MAX_WAIT);
+
+        dispatcher.dispatch(other, Level.INFO, "line", null);
+
+        verify(other).info("line", (Throwable) null);
+        assertEquals(1, dispatcher.direct());
+    }
+
+    @Test
+    void close_shouldWriteWhatIsQueued() {
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(16, OverflowPolicy.DROP, MAX_WAIT);
+        dispatcher.dispatch(logger, Level.WARN, "pending", null);
+
+        dispatcher.close();
+        dispatcher.dispatch(logger, Level.INFO, "after close", null);
+
+        assertEquals(List.of("pending", "after close"), appender.messages());
+    }
+
+    @Test
+    void bindTo_shouldExportQueuedDroppedAndDirectCounts() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(2, OverflowPolicy.DROP, MAX_WAIT);
+        dispatcher.bindTo(registry);
+
+        for (int i = 0; i < 3; i++) dispatcher.dispatch(logger, Level.INFO, "line", null);
+
+        assertEquals(2.0, registry.get("logging.async.events").tag("result", "queued").functionCounter().count());
+        assertEquals(1.0, registry.get("logging.async.events").tag("result", "dropped").functionCounter().count());
+        assertEquals(0.0, registry.get("logging.async.overflow.waits").functionCounter().count());
+        assertEquals(2.0, registry.get("logging.async.buffer.used").gauge().value());
+    }
+
+    private static void awaitWaitingCaller(AsyncLogDispatcher dispatcher) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.waits() == 0 && System.nanoTime() < deadline) Thread.onSpinWait();
+    }
+
+    /**
+     * Keeps what reaches the console and, once held, stops the dispatcher thread inside the
+     * next write until released. Lines written on caller threads are never held.
+     */
+    private static final class RecordingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+        private final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            events.add(event);
+            CountDownLatch held = gate;
+            if (held == null || !"async-logger".equals(Thread.currentThread().getName())) return;
+            entered.countDown();
+            try {
+                held.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void hold() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            CountDownLatch held = gate;
+            gate = null;
+            held.countDown();
+        }
+
+        List<String> messages() {
+            return events.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package co.com.pragma.logger.async;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogRingBufferTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(LogRingBufferTest.class);
+    private final List<String> read = new ArrayList<>();
+    private final LogRingBuffer.Reader reader = (logger, event) -> read.add(event.getMessage());
+
+    @Test
+    void capacity_shouldRoundUpToAPowerOfTwo() {
+        assertEquals(8, new LogRingBuffer(5).capacity());
+        assertEquals(8, new LogRingBuffer(8).capacity());
+    }
+
+    @Test
+    void offer_whenFull_shouldRejectUntilALineIsRead() {
+        LogRingBuffer buffer = new LogRingBuffer(2);
+
+        assertTrue(buffer.offer(logger, event("first")));
+        assertTrue(buffer.offer(logger, event("second")));
+        assertFalse(buffer.offer(logger, event("third")));
+
+        assertTrue(buffer.poll(reader));
+        assertTrue(buffer.offer(logger, event("third")));
+        while (buffer.poll(reader)) {
+            // drain
+        }
+
+        assertEquals(List.of("first", "second", "third"), read);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void offer_fromSeveralThreads_shouldKeepEveryLine() throws InterruptedException {
+        LogRingBuffer buffer = new LogRingBuffer(4096);
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        CountDownLatch done = new CountDownLatch(4);
+        for (int p = 0; p < 4; p++) {
+            producers.execute(() -> {
+                for (int i = 0; i < 1000; i++) buffer.offer(logger, event("line"));
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        producers.shutdown();
+        while (buffer.poll(reader)) {
+            // drain
+        }
+
+        assertEquals(4000, read.size());
+    }
+
+    private ILoggingEvent event(String message) {
+        return new LoggingEvent(LogRingBufferTest.class.getName(), logger, Level.INFO, message, null, null);
+    }
+}
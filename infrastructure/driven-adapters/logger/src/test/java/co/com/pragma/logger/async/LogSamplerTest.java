@@ -0,0 +1,42 @@
+package co.com.pragma.logger.async;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogSamplerTest {
+
+    private final LogSampler sampler = new LogSampler(Map.of("metric-saved", 3, "approval-saved", 1));
+
+    @Test
+    void sample_shouldKeepOneCallInN() {
+        List<Boolean> kept = IntStream.range(0, 6).mapToObj(i -> sampler.sample("metric-saved")).toList();
+
+        assertEquals(List.of(true, false, false, true, false, false), kept);
+    }
+
+    @Test
+    void sample_whenCallSiteIsNotSampled_shouldAlwaysKeep() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(sampler.sample("approval-saved"));
+            assertTrue(sampler.sample("unknown"));
+        }
+    }
+
+    @Test
+    void bindTo_shouldExportSkippedCountsPerCallSite() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        sampler.bindTo(registry);
+
+        for (int i = 0; i < 6; i++) sampler.sample("metric-saved");
+
+        assertEquals(4.0, registry.get("logging.sampled.events").tag("site", "metric-saved").functionCounter().count());
+        assertEquals(1, registry.find("logging.sampled.events").functionCounters().size());
+    }
+}
@@ -0,0 +1,80 @@
+package co.com.pragma.updates;
+
+import co.com.pragma.model.metric.Metric;
+import co.com.pragma.model.metric.gateways.MetricUpdatesPort;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory fan-out of metric updates. Every subscriber requests without bound and keeps only
+ * the latest pending value per metric, with a single pending tick telling it there is
+ * something to drain, so a slow client holds at most one value per metric however fast
+ * updates arrive and the sink buffer never fills behind it.
+ * <p>
+ * Publishers are serialized, since the sink rejects overlapping emits and the SQS pollers and
+ * HTTP ingest publish from different threads; each emit only hands a tick to subscribers, so
+ * the lock is held briefly. An update that still finds the buffer full is dropped and counted.
+ * Streams start from a fresh read, so a dropped update only delays a value until the next
+ * write to that metric.
+ */
+@Component
+public class SinkMetricUpdates implements MetricUpdatesPort {
+
+    private final Sinks.Many<Metric> sink = Sinks.many().multicast().onBackpressureBuffer(Queues.SMALL_BUFFER_SIZE, false);
+    private final LongAdder dropped = new LongAdder();
+
+    public SinkMetricUpdates(MeterRegistry registry) {
+        FunctionCounter.builder("metric.updates.dropped", dropped, LongAdder::doubleValue)
+                .description("Metric updates not handed to streaming clients because of a full buffer")
+                .register(registry);
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return sink.currentSubscriberCount() > 0;
+    }
+
+    /**
+     * Updates published while nobody listens are discarded rather than buffered for the next
+     * subscriber, which reads current values on its own.
+     */
+    @Override
+    public synchronized void publish(Metric metric) {
+        if (!hasSubscribers()) return;
+        if (sink.tryEmitNext(metric).isFailure()) dropped.increment();
+    }
+
+    @Override
+    public Flux<Metric> updates() {
+        return Flux.defer(() -> {
+            Map<String, Metric> pending = new ConcurrentHashMap<>();
+            return sink.asFlux()
+                    .doOnNext(metric -> pending.put(metric.getName(), metric))
+                    .onBackpressureLatest()
+                    .concatMapIterable(tick -> drain(pending), 1);
+        });
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    private static List<Metric> drain(Map<String, Metric> pending) {
+        List<Metric> latest = new ArrayList<>(pending.size());
+        for (String name : List.copyOf(pending.keySet())) {
+            Metric metric = pending.remove(name);
+            if (metric != null) latest.add(metric);
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,97 @@
+package co.com.pragma.updates;
+
+import co.com.pragma.model.metric.Metric;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SinkMetricUpdatesTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SinkMetricUpdates updates = new SinkMetricUpdates(registry);
+
+    @Test
+    void publish_withoutSubscribers_shouldBeDropped() {
+        assertFalse(updates.hasSubscribers());
+
+        updates.publish(metric("quantity", "1"));
+
+        StepVerifier.create(updates.updates())
+                .expectSubscription()
+                .then(() -> assertTrue(updates.hasSubscribers()))
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+        assertEquals(0, updates.dropped());
+    }
+
+    @Test
+    void updates_afterEverySubscriberLeft_shouldStillReachLaterSubscribers() {
+        StepVerifier.create(updates.updates())
+                .expectSubscription()
+                .thenCancel()
+                .verify();
+
+        StepVerifier.create(updates.updates())
+                .expectSubscription()
+                .then(() -> updates.publish(metric("quantity", "1")))
+                .expectNextMatches(m -> m.getName().equals("quantity"))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void publish_fromConcurrentPublishers_shouldDeliverEveryUpdate() {
+        AtomicInteger delivered = new AtomicInteger();
+        Disposable subscription = updates.updates().subscribe(metric -> delivered.incrementAndGet());
+
+        CompletableFuture.allOf(IntStream.range(0, 4)
+                        .mapToObj(publisher -> CompletableFuture.runAsync(() -> IntStream.range(0, 1000)
+                                .forEach(i -> updates.publish(metric("m-" + publisher + "-" + i, "1")))))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+        subscription.dispose();
+
+        assertEquals(4000, delivered.get());
+        assertEquals(0.0, registry.get("metric.updates.dropped").functionCounter().count());
+    }
+
+    @Test
+    void updates_whenSubscriberIsSlow_shouldKeepOnlyTheLatestValuePerMetric() {
+        StepVerifier.create(updates.updates(), 0)
+                .expectSubscription()
+                .then(() -> {
+                    updates.publish(metric("quantity", "1"));
+                    updates.publish(metric("amount", "100"));
+                    updates.publish(metric("quantity", "2"));
+                    updates.publish(metric("quantity", "3"));
+                })
+                .thenRequest(10)
+                .recordWith(ArrayList::new)
+                .expectNextCount(2)
+                .consumeRecordedWith(latest -> assertEquals(Map.of("quantity", new BigDecimal("3"), "amount", new BigDecimal("100")),
+                        latest.stream().collect(Collectors.toMap(Metric::getName, Metric::getValue))))
+                .then(() -> updates.publish(metric("amount", "200")))
+                .expectNextMatches(m -> m.getName().equals("amount") && m.getValue().compareTo(new BigDecimal("200")) == 0)
+                .thenCancel()
+                .verify();
+    }
+
+    private static Metric metric(String name, String value) {
+        return Metric.builder().name(name).value(new BigDecimal(value)).build();
+    }
+}
@@ -0,0 +1,51 @@
+package co.com.pragma.api;
+
+import co.com.pragma.api.dto.MetricApiDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding cost per response of each report format, for a single metric and for the bulk
+ * payload. The encoded sizes are printed once per trial, next to the timings. Run with
+ * {@code ./gradlew :reactive-web:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private MetricApiDTO metric;
+    private List<MetricApiDTO> metrics;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        metric = new MetricApiDTO("amount", new BigDecimal("1250000.75"));
+        metrics = List.of(metric, new MetricApiDTO("quantity", new BigDecimal("4821")));
+        System.out.printf("%n%s: single=%d bytes, bulk=%d bytes%n", format,
+                mapper.writeValueAsBytes(metric).length, mapper.writeValueAsBytes(metrics).length);
+    }
+
+    @Benchmark
+    public byte[] encodeMetric() throws Exception {
+        return mapper.writeValueAsBytes(metric);
+    }
+
+    @Benchmark
+    public byte[] encodeMetrics() throws Exception {
+        return mapper.writeValueAsBytes(metrics);
+    }
+}
@@ -0,0 +1,45 @@
+package co.com.pragma.api.cache;
+
+import co.com.pragma.api.mapper.MetricMapper;
+import co.com.pragma.model.metric.Metric;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares producing the body of GET /report/{metric} by mapping and serializing on every
+ * request against wrapping the bytes cached for the current version. Run with
+ * {@code ./gradlew :reactive-web:jmh}; the gc profiler reports allocations per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MetricResponseBenchmark {
+
+    private final MetricMapper metricMapper = Mappers.getMapper(MetricMapper.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private MetricResponseCache cache;
+    private Metric metric;
+
+    @Setup
+    public void setUp() {
+        cache = new MetricResponseCache(metricMapper, objectMapper);
+        metric = Metric.builder().name("amount").value(new BigDecimal("1250000.75")).version(42L).build();
+    }
+
+    @Benchmark
+    public DataBuffer mapAndSerialize() throws Exception {
+        return bufferFactory.wrap(objectMapper.writeValueAsBytes(metricMapper.toMetricApiDTO(metric)));
+    }
+
+    @Benchmark
+    public DataBuffer cachedBody() {
+        return bufferFactory.wrap(cache.encode(metric));
+    }
+}
@@ -0,0 +1,63 @@
+package co.com.pragma.api.export;
+
+import co.com.pragma.model.metric.Metric;
+import co.com.pragma.model.metric.MetricBucket;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Export encoding throughput; with {@link OperationsPerInvocation} the score reads as rows
+ * per second. The gc profiler shows the allocation per row, which must not depend on the
+ * size of the export. Run with {@code ./gradlew :reactive-web:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MetricExportBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"CSV", "NDJSON"})
+    public MetricExportFormat format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private List<Metric> metrics;
+
+    @Setup
+    public void setUp() {
+        Instant start = Instant.parse("2025-01-01T00:00:00Z");
+        metrics = IntStream.range(0, ROWS)
+                .mapToObj(i -> Metric.builder()
+                        .name(new MetricBucket(i % 2 == 0 ? "quantity" : "amount", start.plus(i / 2, ChronoUnit.HOURS)).key())
+                        .value(BigDecimal.valueOf(1_000_000L + i * 37L, 2))
+                        .build())
+                .toList();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long encodeRows() {
+        return MetricExportEncoder.encode(Flux.fromIterable(metrics), format, gzip, jsonFactory,
+                        DefaultDataBufferFactory.sharedInstance)
+                .map(buffer -> {
+                    int size = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return (long) size;
+                })
+                .reduce(0L, Long::sum)
+                .block();
+    }
+}
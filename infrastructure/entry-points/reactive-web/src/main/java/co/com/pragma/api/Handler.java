@@ -1,32 +1,162 @@
 package co.com.pragma.api;
 
+import co.com.pragma.api.cache.MetricResponseCache;
+import co.com.pragma.api.dto.MetricApiDTO;
+import co.com.pragma.api.dto.MetricPointDTO;
 import co.com.pragma.api.mapper.MetricMapper;
+import co.com.pragma.model.exceptions.InvalidRangeException;
+import co.com.pragma.model.metric.Metric;
 import co.com.pragma.usecase.metric.MetricUseCase;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static co.com.pragma.api.constants.ApiConstants.ApiMediaTypes.APPLICATION_SMILE_VALUE;
+import static co.com.pragma.api.constants.ApiConstants.ApiParams.DEFAULT_STEP;
+import static co.com.pragma.api.constants.ApiConstants.ApiParams.FROM_PARAM;
+import static co.com.pragma.api.constants.ApiConstants.ApiParams.METRICS_PARAM;
+import static co.com.pragma.api.constants.ApiConstants.ApiParams.METRICS_SEPARATOR;
+import static co.com.pragma.api.constants.ApiConstants.ApiParams.STEP_PARAM;
+import static co.com.pragma.api.constants.ApiConstants.ApiParams.TO_PARAM;
+
 @Component
 @RequiredArgsConstructor
 public class Handler {
 
+    private static final Duration STREAM_HEARTBEAT = Duration.ofSeconds(15);
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+    private static final List<MediaType> REPORT_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
     @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
     private final MetricUseCase metricUseCase;
     private final MetricMapper metricMapper;
+    private final MetricResponseCache responseCache;
 
     public Mono<ServerResponse> listenGETMetricUseCase(ServerRequest serverRequest) {
         String metricName = serverRequest.pathVariable("metric");
+        MediaType mediaType = negotiate(serverRequest);
         return Mono.just(metricName)
                 .flatMap(metricUseCase::getMetric)
+                .flatMap(metric -> {
+                    if (metric.getVersion() == null) return ok(metric, mediaType, null);
+                    String eTag = eTagOf(metric, mediaType);
+                    return serverRequest.checkNotModified(eTag)
+                            .switchIfEmpty(Mono.defer(() -> ok(metric, mediaType, eTag)));
+                })
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    private Mono<ServerResponse> ok(Metric metric, MediaType mediaType, String eTag) {
+        ServerResponse.BodyBuilder response = ServerResponse.ok()
+                .contentType(mediaType)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT);
+        if (eTag != null) response.eTag(eTag);
+        return MediaType.APPLICATION_JSON.equals(mediaType)
+                ? response.body(responseCache.bodyOf(metric))
+                : response.bodyValue(metricMapper.toMetricApiDTO(metric));
+    }
+
+    /**
+     * The stored version changes on every write to the metric, so it makes a strong tag.
+     * Items written before versions were stored get no tag at all: a tag derived from the
+     * value would match again once the value changed back, and answer with a stale 304. Binary
+     * formats get their own suffix, since each representation needs its own strong tag.
+     */
+    private static String eTagOf(Metric metric, MediaType mediaType) {
+        String format = MediaType.APPLICATION_JSON.equals(mediaType) ? "" : "-" + mediaType.getSubtype();
+        return "\"v" + metric.getVersion() + format + "\"";
+    }
+
+    /**
+     * First report format the client accepts, highest q-value first and, within the same
+     * q-value, most specific Accept entry first. Entries with {@code q=0} are refused rather
+     * than accepted. JSON is used when nothing matches, as it was before other formats existed.
+     */
+    private static MediaType negotiate(ServerRequest serverRequest) {
+        List<MediaType> accepted = new ArrayList<>(serverRequest.headers().accept());
+        accepted.removeIf(accept -> accept.getQualityValue() == 0);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        // Stable sort, so the specificity order is kept between entries of the same q-value
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType accept : accepted) {
+            for (MediaType supported : REPORT_MEDIA_TYPES) {
+                if (accept.isCompatibleWith(supported)) return supported;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    public Mono<ServerResponse> listenGETMetricsUseCase(ServerRequest serverRequest) {
+        MediaType mediaType = negotiate(serverRequest);
+        return metricUseCase.getMetrics(metricNamesOf(serverRequest))
                 .map(metricMapper::toMetricApiDTO)
-                .flatMap(metric ->
+                .collectList()
+                .flatMap(metrics ->
                         ServerResponse.ok()
-                                .contentType(MediaType.APPLICATION_JSON)
-                                .bodyValue(metric)
-                )
-                .switchIfEmpty(ServerResponse.notFound().build());
+                                .contentType(mediaType)
+                                .varyBy(HttpHeaders.ACCEPT)
+                                .bodyValue(metrics)
+                );
+    }
+
+    /**
+     * Pushes the requested metrics as server-sent events: their current values first, then
+     * every change. A comment is sent periodically so idle connections are not dropped by
+     * proxies.
+     */
+    public Mono<ServerResponse> listenGETMetricStreamUseCase(ServerRequest serverRequest) {
+        Flux<ServerSentEvent<MetricApiDTO>> events = metricUseCase.streamMetrics(metricNamesOf(serverRequest))
+                .map(metric -> ServerSentEvent.builder(metricMapper.toMetricApiDTO(metric))
+                        .event(metric.getName())
+                        .build());
+        Flux<ServerSentEvent<MetricApiDTO>> heartbeat = Flux.interval(STREAM_HEARTBEAT)
+                .map(tick -> ServerSentEvent.<MetricApiDTO>builder().comment("heartbeat").build());
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(BodyInserters.fromServerSentEvents(events.mergeWith(heartbeat)));
+    }
+
+    /**
+     * Streams the series as NDJSON: each point is written as soon as its step has been read,
+     * so the response never holds the whole range.
+     */
+    public Mono<ServerResponse> listenGETSeriesUseCase(ServerRequest serverRequest) {
+        String metricName = serverRequest.pathVariable("metric");
+        Flux<MetricPointDTO> points = Flux.defer(() -> metricUseCase.getSeries(metricName,
+                        Instant.parse(serverRequest.queryParam(FROM_PARAM).orElseThrow(InvalidRangeException::new)),
+                        Instant.parse(serverRequest.queryParam(TO_PARAM).orElseThrow(InvalidRangeException::new)),
+                        Duration.parse(serverRequest.queryParam(STEP_PARAM).orElse(DEFAULT_STEP))))
+                .onErrorMap(DateTimeParseException.class, ex -> new InvalidRangeException())
+                .map(metricMapper::toMetricPointDTO);
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(points, MetricPointDTO.class);
+    }
+
+    private static List<String> metricNamesOf(ServerRequest serverRequest) {
+        return serverRequest.queryParams().getOrDefault(METRICS_PARAM, List.of()).stream()
+                .flatMap(param -> Arrays.stream(param.split(METRICS_SEPARATOR)))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
     }
 }
@@ -3,12 +3,19 @@ package co.com.pragma.api;
 import co.com.pragma.api.constants.ApiConstants;
 import co.com.pragma.api.dto.ErrorDTO;
 import co.com.pragma.api.dto.MetricApiDTO;
+import co.com.pragma.api.dto.MetricEventDTO;
+import co.com.pragma.api.dto.MetricIngestResultDTO;
+import co.com.pragma.api.dto.MetricPointDTO;
+import co.com.pragma.api.export.MetricExportHandler;
+import co.com.pragma.api.ingest.MetricIngestHandler;
 import co.com.pragma.model.constants.Metrics;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import org.springdoc.core.annotations.RouterOperation;
@@ -20,9 +27,17 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
+import static co.com.pragma.api.constants.ApiConstants.ApiMediaTypes.APPLICATION_SMILE_VALUE;
+import static co.com.pragma.api.constants.ApiConstants.ApiParams.METRICS_DESC;
 import static co.com.pragma.api.constants.ApiConstants.ApiParams.METRIC_NAME_DESC;
 import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_BY_NAME_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_EVENTS_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_EXPORT_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_SERIES_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_STREAM_PATH;
 import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 
 @Configuration
@@ -31,7 +46,7 @@ public class RouterRest {
     @RouterOperations({
             @RouterOperation(
                     path = REPORT_BY_NAME_PATH,
-                    produces = {MediaType.APPLICATION_JSON_VALUE},
+                    produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
                     method = RequestMethod.GET,
                     beanMethod = "listenGETMetricUseCase",
                     operation = @Operation(
@@ -55,6 +70,79 @@ public class RouterRest {
                                             description = ApiConstants.ApiResponses.RESPONSE_METRIC_OK_DESC,
                                             content = @Content(schema = @Schema(implementation = MetricApiDTO.class))
                                     ),
+                                    @ApiResponse(
+                                            responseCode = ApiConstants.ApiResponses.RESPONSE_NOT_MODIFIED_CODE,
+                                            description = ApiConstants.ApiResponses.RESPONSE_METRIC_NOT_MODIFIED_DESC
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = ApiConstants.ApiResponses.RESPONSE_BAD_REQUEST_CODE,
+                                            description = ApiConstants.ApiResponses.RESPONSE_SAVE_SOLICITUDE_BAD_REQUEST_DESC,
+                                            content = @Content(schema = @Schema(implementation = ErrorDTO.class))
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = REPORT_PATH,
+                    produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+                    method = RequestMethod.GET,
+                    beanMethod = "listenGETMetricsUseCase",
+                    operation = @Operation(
+                            summary = ApiConstants.MetricDoc.METRICS_OP_SUMMARY,
+                            description = ApiConstants.MetricDoc.METRICS_OP_DESC,
+                            operationId = ApiConstants.MetricDoc.OPERATION_GET_METRICS_ID,
+                            security = @SecurityRequirement(name = "bearerAuth"),
+                            parameters = {
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = ApiConstants.ApiParams.METRICS_PARAM,
+                                            description = METRICS_DESC,
+                                            required = true,
+                                            example = Metrics.QUANTITY_METRIC + "," + Metrics.AMOUNT_METRIC,
+                                            schema = @Schema(type = "string")
+                                    )
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = ApiConstants.ApiResponses.RESPONSE_OK_CODE,
+                                            description = ApiConstants.ApiResponses.RESPONSE_METRICS_OK_DESC,
+                                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = MetricApiDTO.class)))
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = ApiConstants.ApiResponses.RESPONSE_BAD_REQUEST_CODE,
+                                            description = ApiConstants.ApiResponses.RESPONSE_SAVE_SOLICITUDE_BAD_REQUEST_DESC,
+                                            content = @Content(schema = @Schema(implementation = ErrorDTO.class))
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = REPORT_STREAM_PATH,
+                    produces = {MediaType.TEXT_EVENT_STREAM_VALUE},
+                    method = RequestMethod.GET,
+                    beanMethod = "listenGETMetricStreamUseCase",
+                    operation = @Operation(
+                            summary = ApiConstants.MetricDoc.STREAM_OP_SUMMARY,
+                            description = ApiConstants.MetricDoc.STREAM_OP_DESC,
+                            operationId = ApiConstants.MetricDoc.OPERATION_STREAM_METRICS_ID,
+                            security = @SecurityRequirement(name = "bearerAuth"),
+                            parameters = {
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = ApiConstants.ApiParams.METRICS_PARAM,
+                                            description = METRICS_DESC,
+                                            required = true,
+                                            example = Metrics.QUANTITY_METRIC + "," + Metrics.AMOUNT_METRIC,
+                                            schema = @Schema(type = "string")
+                                    )
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = ApiConstants.ApiResponses.RESPONSE_OK_CODE,
+                                            description = ApiConstants.ApiResponses.RESPONSE_STREAM_OK_DESC,
+                                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                                    schema = @Schema(implementation = MetricApiDTO.class))
+                                    ),
                                     @ApiResponse(
                                             responseCode = ApiConstants.ApiResponses.RESPONSE_BAD_REQUEST_CODE,
                                             description = ApiConstants.ApiResponses.RESPONSE_SAVE_SOLICITUDE_BAD_REQUEST_DESC,
@@ -62,9 +150,147 @@ public class RouterRest {
                                     )
                             }
                     )
+            ),
+            @RouterOperation(
+                    path = REPORT_SERIES_PATH,
+                    produces = {MediaType.APPLICATION_NDJSON_VALUE},
+                    method = RequestMethod.GET,
+                    beanMethod = "listenGETSeriesUseCase",
+                    operation = @Operation(
+                            summary = ApiConstants.MetricDoc.SERIES_OP_SUMMARY,
+                            description = ApiConstants.MetricDoc.SERIES_OP_DESC,
+                            operationId = ApiConstants.MetricDoc.OPERATION_GET_SERIES_ID,
+                            security = @SecurityRequirement(name = "bearerAuth"),
+                            parameters = {
+                                    @Parameter(
+                                            in = ParameterIn.PATH,
+                                            name = ApiConstants.ApiParams.METRIC_NAME_PARAM,
+                                            description = METRIC_NAME_DESC,
+                                            required = true,
+                                            example = Metrics.QUANTITY_METRIC,
+                                            schema = @Schema(type = "string", allowableValues = {Metrics.QUANTITY_METRIC, Metrics.AMOUNT_METRIC})
+                                    ),
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = ApiConstants.ApiParams.FROM_PARAM,
+                                            description = ApiConstants.ApiParams.FROM_DESC,
+                                            required = true,
+                                            example = ApiConstants.ApiParams.FROM_EXAMPLE,
+                                            schema = @Schema(type = "string", format = "date-time")
+                                    ),
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = ApiConstants.ApiParams.TO_PARAM,
+                                            description = ApiConstants.ApiParams.TO_DESC,
+                                            required = true,
+                                            example = ApiConstants.ApiParams.TO_EXAMPLE,
+                                            schema = @Schema(type = "string", format = "date-time")
+                                    ),
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = ApiConstants.ApiParams.STEP_PARAM,
+                                            description = ApiConstants.ApiParams.STEP_DESC,
+                                            example = ApiConstants.ApiParams.STEP_EXAMPLE,
+                                            schema = @Schema(type = "string", defaultValue = ApiConstants.ApiParams.DEFAULT_STEP)
+                                    )
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = ApiConstants.ApiResponses.RESPONSE_OK_CODE,
+                                            description = ApiConstants.ApiResponses.RESPONSE_SERIES_OK_DESC,
+                                            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                                    schema = @Schema(implementation = MetricPointDTO.class))
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = ApiConstants.ApiResponses.RESPONSE_BAD_REQUEST_CODE,
+                                            description = ApiConstants.ApiResponses.RESPONSE_SAVE_SOLICITUDE_BAD_REQUEST_DESC,
+                                            content = @Content(schema = @Schema(implementation = ErrorDTO.class))
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = REPORT_EXPORT_PATH,
+                    produces = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+                    method = RequestMethod.GET,
+                    beanClass = MetricExportHandler.class,
+                    beanMethod = "listenGETExportUseCase",
+                    operation = @Operation(
+                            summary = ApiConstants.MetricDoc.EXPORT_OP_SUMMARY,
+                            description = ApiConstants.MetricDoc.EXPORT_OP_DESC,
+                            operationId = ApiConstants.MetricDoc.OPERATION_EXPORT_METRICS_ID,
+                            security = @SecurityRequirement(name = "bearerAuth"),
+                            parameters = {
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = ApiConstants.ApiParams.FORMAT_PARAM,
+                                            description = ApiConstants.ApiParams.FORMAT_DESC,
+                                            schema = @Schema(type = "string", allowableValues = {"csv", "ndjson"}, defaultValue = "csv")
+                                    ),
+                                    @Parameter(
+                                            in = ParameterIn.QUERY,
+                                            name = ApiConstants.ApiParams.GZIP_PARAM,
+                                            description = ApiConstants.ApiParams.GZIP_DESC,
+                                            schema = @Schema(type = "boolean", defaultValue = "false")
+                                    )
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = ApiConstants.ApiResponses.RESPONSE_OK_CODE,
+                                            description = ApiConstants.ApiResponses.RESPONSE_EXPORT_OK_DESC,
+                                            content = @Content(mediaType = "text/csv", schema = @Schema(type = "string"))
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = ApiConstants.ApiResponses.RESPONSE_BAD_REQUEST_CODE,
+                                            description = ApiConstants.ApiResponses.RESPONSE_SAVE_SOLICITUDE_BAD_REQUEST_DESC,
+                                            content = @Content(schema = @Schema(implementation = ErrorDTO.class))
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = REPORT_EVENTS_PATH,
+                    consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+                    produces = {MediaType.APPLICATION_JSON_VALUE},
+                    method = RequestMethod.POST,
+                    beanClass = MetricIngestHandler.class,
+                    beanMethod = "listenPOSTEventsUseCase",
+                    operation = @Operation(
+                            summary = ApiConstants.MetricDoc.EVENTS_OP_SUMMARY,
+                            description = ApiConstants.MetricDoc.EVENTS_OP_DESC,
+                            operationId = ApiConstants.MetricDoc.OPERATION_SAVE_EVENTS_ID,
+                            security = @SecurityRequirement(name = "bearerAuth"),
+                            requestBody = @RequestBody(
+                                    required = true,
+                                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = MetricEventDTO.class)))
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = ApiConstants.ApiResponses.RESPONSE_OK_CODE,
+                                            description = ApiConstants.ApiResponses.RESPONSE_EVENTS_OK_DESC,
+                                            content = @Content(schema = @Schema(implementation = MetricIngestResultDTO.class))
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = ApiConstants.ApiResponses.RESPONSE_BAD_REQUEST_CODE,
+                                            description = ApiConstants.ApiResponses.RESPONSE_SAVE_SOLICITUDE_BAD_REQUEST_DESC,
+                                            content = @Content(schema = @Schema(implementation = ErrorDTO.class))
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = ApiConstants.ApiResponses.RESPONSE_SERVICE_UNAVAILABLE_CODE,
+                                            description = ApiConstants.ApiResponses.RESPONSE_EVENTS_UNAVAILABLE_DESC,
+                                            content = @Content(schema = @Schema(implementation = ErrorDTO.class))
+                                    )
+                            }
+                    )
             )
     })
-    public RouterFunction<ServerResponse> routerFunction(Handler handler) {
-        return route(GET(REPORT_BY_NAME_PATH), handler::listenGETMetricUseCase);
+    public RouterFunction<ServerResponse> routerFunction(Handler handler, MetricExportHandler exportHandler,
+                                                         MetricIngestHandler ingestHandler) {
+        return route(GET(REPORT_PATH), handler::listenGETMetricsUseCase)
+                .andRoute(GET(REPORT_STREAM_PATH), handler::listenGETMetricStreamUseCase)
+                .andRoute(GET(REPORT_EXPORT_PATH), exportHandler::listenGETExportUseCase)
+                .andRoute(POST(REPORT_EVENTS_PATH), ingestHandler::listenPOSTEventsUseCase)
+                .andRoute(GET(REPORT_SERIES_PATH), handler::listenGETSeriesUseCase)
+                .andRoute(GET(REPORT_BY_NAME_PATH), handler::listenGETMetricUseCase);
     }
 }
@@ -0,0 +1,60 @@
+package co.com.pragma.api.cache;
+
+import co.com.pragma.api.mapper.MetricMapper;
+import co.com.pragma.model.metric.Metric;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserter;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the JSON body last sent for each metric together with the version it encodes. While
+ * the version does not change the same bytes are written again, wrapped without copying, so
+ * repeated reads skip both the mapper and Jackson. Metrics without a version are encoded on
+ * every call.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricResponseCache {
+
+    private final MetricMapper metricMapper;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Encoded> encoded = new ConcurrentHashMap<>();
+
+    public BodyInserter<byte[], ReactiveHttpOutputMessage> bodyOf(Metric metric) {
+        byte[] json = encode(metric);
+        return (message, context) -> {
+            message.getHeaders().setContentLength(json.length);
+            return message.writeWith(Mono.fromSupplier(() -> message.bufferFactory().wrap(json)));
+        };
+    }
+
+    byte[] encode(Metric metric) {
+        Long version = metric.getVersion();
+        if (version == null) return serialize(metric);
+        Encoded current = encoded.get(metric.getName());
+        if (current != null && current.version() == version) return current.json();
+        byte[] json = serialize(metric);
+        encoded.merge(metric.getName(), new Encoded(version, json),
+                (previous, next) -> previous.version() > next.version() ? previous : next);
+        return json;
+    }
+
+    private byte[] serialize(Metric metric) {
+        try {
+            return objectMapper.writeValueAsBytes(metricMapper.toMetricApiDTO(metric));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Encoded(long version, byte[] json) {
+    }
+}
@@ -0,0 +1,20 @@
+package co.com.pragma.api.config;
+
+import co.com.pragma.api.security.RefreshingJwkSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+/**
+ * Verifies tokens against the keys held by {@link RefreshingJwkSource} instead of letting the
+ * default decoder fetch the JWK set on the first request.
+ */
+@Configuration
+public class JwtDecoderConfig {
+
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(RefreshingJwkSource jwkSource) {
+        return NimbusReactiveJwtDecoder.withJwkSource(jwkSource).build();
+    }
+}
@@ -4,19 +4,25 @@ import co.com.pragma.api.constants.ApiConstants;
 import co.com.pragma.api.constants.ApiConstants.ApiPathMatchers;
 import co.com.pragma.api.exception.handler.CustomAccessDeniedHandler;
 import co.com.pragma.api.exception.handler.CustomAuthenticationEntryPoint;
+import co.com.pragma.api.security.CachingJwtAuthenticationManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtReactiveAuthenticationManager;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -31,14 +37,18 @@ public class WebSecurityConfig {
     private final CustomAuthenticationEntryPoint authenticationEntryPoint;
 
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         ReactiveJwtDecoder jwtDecoder,
+                                                         @Value("${security.jwt.cache.maximum-size:10000}") long cacheMaximumSize,
+                                                         @Value("${security.jwt.cache.maximum-ttl-seconds:3600}") long cacheMaximumTtlSeconds) {
         return http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
                 .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
                 .oauth2ResourceServer(spec ->
                         spec.jwt(jwt ->
-                                jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())
+                                jwt.authenticationManager(jwtAuthenticationManager(jwtDecoder, cacheMaximumSize,
+                                        Duration.ofSeconds(cacheMaximumTtlSeconds)))
                         )
                 )
                 .authorizeExchange(spec -> spec
@@ -59,6 +69,12 @@ public class WebSecurityConfig {
                                 HttpMethod.GET, ApiPathMatchers.REPORT_MATCHER
                         ).hasAnyAuthority(
                                 ApiConstants.Role.ADMIN_ROLE_NAME
+                        )
+                        .pathMatchers(
+                                HttpMethod.POST, ApiConstants.ApiPaths.REPORT_EVENTS_PATH
+                        ).hasAnyAuthority(
+                                ApiConstants.Role.SUPER_USER_ROLE_NAME,
+                                ApiConstants.Role.ADMIN_ROLE_NAME
                         ).anyExchange().authenticated()
                 )
                 .exceptionHandling(spec -> spec
@@ -68,6 +84,17 @@ public class WebSecurityConfig {
                 .build();
     }
 
+    /**
+     * Tokens are verified and converted once; later requests with the same token reuse the
+     * authentication until the token expires.
+     */
+    private ReactiveAuthenticationManager jwtAuthenticationManager(ReactiveJwtDecoder jwtDecoder, long maximumSize,
+                                                                   Duration maximumTtl) {
+        JwtReactiveAuthenticationManager verifying = new JwtReactiveAuthenticationManager(jwtDecoder);
+        verifying.setJwtAuthenticationConverter(jwtAuthenticationConverter());
+        return new CachingJwtAuthenticationManager(verifying, maximumSize, maximumTtl);
+    }
+
     private Converter<Jwt, Mono<AbstractAuthenticationToken>> jwtAuthenticationConverter() {
         return jwt -> {
             Collection<String> roles = extractRoles(jwt);
@@ -16,13 +16,40 @@ public class ApiConstants {
     public static final class ApiParams {
         public static final String METRIC_NAME_PARAM = "metric";
         public static final String METRIC_NAME_DESC = "Name of the metric to retrieve.";
+        public static final String METRICS_PARAM = "metrics";
+        public static final String METRICS_DESC = "Comma separated names of the metrics to retrieve.";
+        public static final String METRICS_SEPARATOR = ",";
+        public static final String FROM_PARAM = "from";
+        public static final String FROM_DESC = "Start of the range, inclusive, as an ISO-8601 instant.";
+        public static final String FROM_EXAMPLE = "2025-01-01T00:00:00Z";
+        public static final String TO_PARAM = "to";
+        public static final String TO_DESC = "End of the range, exclusive, as an ISO-8601 instant.";
+        public static final String TO_EXAMPLE = "2025-04-01T00:00:00Z";
+        public static final String STEP_PARAM = "step";
+        public static final String STEP_DESC = "Width of each point as an ISO-8601 duration in whole hours. Defaults to one hour.";
+        public static final String STEP_EXAMPLE = "P1D";
+        public static final String DEFAULT_STEP = "PT1H";
+        public static final String FORMAT_PARAM = "format";
+        public static final String FORMAT_DESC = "Format of the export file.";
+        public static final String GZIP_PARAM = "gzip";
+        public static final String GZIP_DESC = "Compress the export with Content-Encoding gzip.";
+        public static final String EXPORT_FILE_NAME = "metrics";
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class ApiMediaTypes {
+        public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
     }
 
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
     public static final class ApiPaths {
         public static final String BASE_PATH = "/api/v1";
         public static final String REPORT_PATH = BASE_PATH + "/reportes";
+        public static final String REPORT_STREAM_PATH = REPORT_PATH + "/stream";
+        public static final String REPORT_EXPORT_PATH = REPORT_PATH + "/export";
+        public static final String REPORT_EVENTS_PATH = REPORT_PATH + "/events";
         public static final String REPORT_BY_NAME_PATH = REPORT_PATH + "/{" + ApiParams.METRIC_NAME_PARAM + "}";
+        public static final String REPORT_SERIES_PATH = REPORT_BY_NAME_PATH + "/series";
         public static final String SWAGGER_PATH = "/report/swagger-ui.html";
     }
 
@@ -63,6 +90,36 @@ public class ApiConstants {
         public static final String METRIC_OP_SUMMARY = "Retrive a metric value by name.";
         public static final String METRIC_OP_DESC = "Retrive a metric value by name.";
         public static final String OPERATION_GET_METRIC_ID = "getMetric";
+        public static final String METRICS_OP_SUMMARY = "Retrive several metric values at once.";
+        public static final String METRICS_OP_DESC = "Retrive the values of the requested metrics in a single batched read. Metrics without data are omitted.";
+        public static final String OPERATION_GET_METRICS_ID = "getMetrics";
+        public static final String STREAM_OP_SUMMARY = "Stream live metric values.";
+        public static final String STREAM_OP_DESC = "Server-sent events with the current value of each requested metric followed by every change. Slow clients receive only the latest value of each metric.";
+        public static final String OPERATION_STREAM_METRICS_ID = "streamMetrics";
+        public static final String SERIES_OP_SUMMARY = "Retrive the history of a metric.";
+        public static final String SERIES_OP_DESC = "Stream the metric over a time range as newline delimited JSON, one point per step. Hourly buckets are added up into each step; steps without data have value 0.";
+        public static final String OPERATION_GET_SERIES_ID = "getSeries";
+        public static final String EXPORT_OP_SUMMARY = "Export the raw metric history.";
+        public static final String EXPORT_OP_DESC = "Stream every stored metric and hourly bucket as CSV (metric,hour,value) or newline delimited JSON. The hour is empty for running totals.";
+        public static final String OPERATION_EXPORT_METRICS_ID = "exportMetrics";
+        public static final String EVENTS_OP_SUMMARY = "Record a batch of metric events.";
+        public static final String EVENTS_OP_DESC = "Add a JSON array, or newline delimited JSON, of metric events to their totals and hourly buckets. Events are summed per metric and hour before being written. Answers 503 with Retry-After while too many batches are being written.";
+        public static final String OPERATION_SAVE_EVENTS_ID = "saveMetricEvents";
+        public static final String EVENT_DTO_NAME = "MetricEvent";
+        public static final String EVENT_DTO_DESC = "Change to add to a metric, as sent through the report queue.";
+        public static final String EVENT_TYPE_DESC = "approval to count one approved loan of the given amount; omitted for a plain metric delta.";
+        public static final String EVENT_TYPE_EXAMPLE = "approval";
+        public static final String EVENT_NAME_DESC = "Metric to add the value to. Ignored for approvals.";
+        public static final String EVENT_VALUE_DESC = "Value to add, or the approved amount.";
+        public static final String EVENT_TIMESTAMP_DESC = "When the event happened. Defaults to when the batch was received.";
+        public static final String INGEST_RESULT_DTO_NAME = "MetricIngestResult";
+        public static final String INGEST_RESULT_DTO_DESC = "Outcome of a batch of metric events.";
+        public static final String INGEST_ACCEPTED_DESC = "Events accepted from the batch.";
+        public static final String INGEST_DELTAS_DESC = "Per metric and hour deltas the events were summed into.";
+        public static final String POINT_DTO_NAME = "MetricPoint";
+        public static final String POINT_DTO_DESC = "Value of a metric over one step of a series.";
+        public static final String POINT_TIME_DESC = "Start of the step.";
+        public static final String POINT_TIME_EXAMPLE = "2025-01-01T00:00:00Z";
         public static final String METRIC_DTO_NAME = "Metric";
         public static final String METRIC_DTO_DESC = "Represents a metric with its name and value.";
         public static final String METRIC_VALUE_DESC = "Value of the metric.";
@@ -74,7 +131,16 @@ public class ApiConstants {
         public static final String RESPONSE_OK_CODE = "200";
         public static final String RESPONSE_BAD_REQUEST_CODE = "400";
         public static final String RESPONSE_NOT_FOUND_CODE = "404";
+        public static final String RESPONSE_NOT_MODIFIED_CODE = "304";
+        public static final String RESPONSE_METRIC_NOT_MODIFIED_DESC = "The metric still matches the ETag sent in If-None-Match";
         public static final String RESPONSE_METRIC_OK_DESC = "Fetch Metric Successfully";
+        public static final String RESPONSE_METRICS_OK_DESC = "Fetch Metrics Successfully";
+        public static final String RESPONSE_SERIES_OK_DESC = "Points of the series, one JSON object per line";
+        public static final String RESPONSE_EXPORT_OK_DESC = "Export file, streamed as it is read";
+        public static final String RESPONSE_EVENTS_OK_DESC = "Events recorded";
+        public static final String RESPONSE_SERVICE_UNAVAILABLE_CODE = "503";
+        public static final String RESPONSE_EVENTS_UNAVAILABLE_DESC = "Too many batches are being written; retry after the Retry-After delay";
+        public static final String RESPONSE_STREAM_OK_DESC = "Stream of metric events, one event per change";
         public static final String RESPONSE_SAVE_SOLICITUDE_BAD_REQUEST_DESC = "Invalid request (e.g. metric parameter is invalid)";
         public static final String RESPONSE_UPDATE_SOLICITUDE_NOT_FOUND_DESC = "The metric with the specified name was not found.";
     }
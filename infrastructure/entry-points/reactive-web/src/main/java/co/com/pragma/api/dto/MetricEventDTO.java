@@ -0,0 +1,31 @@
+package co.com.pragma.api.dto;
+
+import co.com.pragma.api.constants.ApiConstants;
+import co.com.pragma.model.constants.Metrics;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@Schema(name = ApiConstants.MetricDoc.EVENT_DTO_NAME, description = ApiConstants.MetricDoc.EVENT_DTO_DESC)
+public class MetricEventDTO {
+
+    @Schema(description = ApiConstants.MetricDoc.EVENT_TYPE_DESC, example = ApiConstants.MetricDoc.EVENT_TYPE_EXAMPLE)
+    String type;
+
+    @Schema(description = ApiConstants.MetricDoc.EVENT_NAME_DESC, example = Metrics.QUANTITY_METRIC)
+    String name;
+
+    @Schema(description = ApiConstants.MetricDoc.EVENT_VALUE_DESC, example = ApiConstants.MetricDoc.METRIC_VALUE_EXAMPLE)
+    BigDecimal value;
+
+    @Schema(description = ApiConstants.MetricDoc.EVENT_TIMESTAMP_DESC, example = ApiConstants.MetricDoc.POINT_TIME_EXAMPLE)
+    Instant timestamp;
+}
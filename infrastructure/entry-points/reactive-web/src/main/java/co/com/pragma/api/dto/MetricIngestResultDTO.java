@@ -0,0 +1,21 @@
+package co.com.pragma.api.dto;
+
+import co.com.pragma.api.constants.ApiConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@Schema(name = ApiConstants.MetricDoc.INGEST_RESULT_DTO_NAME, description = ApiConstants.MetricDoc.INGEST_RESULT_DTO_DESC)
+public class MetricIngestResultDTO {
+
+    @Schema(description = ApiConstants.MetricDoc.INGEST_ACCEPTED_DESC, example = "1000")
+    int accepted;
+
+    @Schema(description = ApiConstants.MetricDoc.INGEST_DELTAS_DESC, example = "4")
+    int deltas;
+}
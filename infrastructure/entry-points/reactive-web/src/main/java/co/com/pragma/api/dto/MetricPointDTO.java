@@ -0,0 +1,24 @@
+package co.com.pragma.api.dto;
+
+import co.com.pragma.api.constants.ApiConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@Schema(name = ApiConstants.MetricDoc.POINT_DTO_NAME, description = ApiConstants.MetricDoc.POINT_DTO_DESC)
+public class MetricPointDTO {
+
+    @Schema(description = ApiConstants.MetricDoc.POINT_TIME_DESC, example = ApiConstants.MetricDoc.POINT_TIME_EXAMPLE)
+    Instant time;
+
+    @Schema(description = ApiConstants.MetricDoc.METRIC_VALUE_DESC, example = ApiConstants.MetricDoc.METRIC_VALUE_EXAMPLE)
+    BigDecimal value;
+}
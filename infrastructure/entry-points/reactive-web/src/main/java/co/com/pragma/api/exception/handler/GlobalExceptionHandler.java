@@ -3,12 +3,14 @@ package co.com.pragma.api.exception.handler;
 import co.com.pragma.api.dto.ErrorDTO;
 import co.com.pragma.model.constants.Errors;
 import co.com.pragma.model.exceptions.CustomException;
+import co.com.pragma.model.exceptions.ServiceOverloadedException;
 import co.com.pragma.model.logs.gateways.LoggerPort;
 import org.springframework.boot.autoconfigure.web.WebProperties;
 import org.springframework.boot.autoconfigure.web.reactive.error.AbstractErrorWebExceptionHandler;
 import org.springframework.boot.web.reactive.error.ErrorAttributes;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerCodecConfigurer;
@@ -47,13 +49,18 @@ public class GlobalExceptionHandler extends AbstractErrorWebExceptionHandler {
 
     private Mono<ServerResponse> renderErrorResponse(ServerRequest serverRequest) {
         Throwable error = getError(serverRequest);
-        logger.error("An error occurred for request [{}]:", serverRequest.path(), error);
-
         ErrorResponse errorResponse = buildErrorResponse(error, serverRequest.path());
+        ServerResponse.BodyBuilder response = ServerResponse.status(errorResponse.status())
+                .contentType(MediaType.APPLICATION_JSON);
 
-        return ServerResponse.status(errorResponse.status())
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(errorResponse.body());
+        // Shed requests are counted by the limiter; logging each one would add to the overload
+        if (error instanceof ServiceOverloadedException overloaded) {
+            logger.debug("Request shed for [{}]", serverRequest.path());
+            response.header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, overloaded.getRetryAfter().toSeconds())));
+        } else {
+            logger.error("An error occurred for request [{}]:", serverRequest.path(), error);
+        }
+        return response.bodyValue(errorResponse.body());
     }
 
     private ErrorResponse buildErrorResponse(Throwable error, String path) {
@@ -0,0 +1,139 @@
+package co.com.pragma.api.export;
+
+import co.com.pragma.model.metric.Metric;
+import co.com.pragma.model.metric.MetricBucket;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes exported metrics a chunk of rows at a time. Each chunk is written into a reused
+ * buffer and handed out as one {@link DataBuffer}, so memory use depends on the chunk size
+ * and not on the number of rows. With gzip the stream is sync-flushed after every chunk,
+ * which lets the client decompress rows as they arrive.
+ */
+final class MetricExportEncoder implements AutoCloseable {
+
+    static final int ROWS_PER_CHUNK = 512;
+
+    private static final byte[] CSV_HEADER = "metric,hour,value\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final DataBufferFactory bufferFactory;
+    private final ByteArrayOutputStream chunk = new ByteArrayOutputStream(GZIP_BUFFER_SIZE);
+    private final OutputStream out;
+    private final JsonGenerator json;
+
+    private MetricExportEncoder(MetricExportFormat format, boolean gzip, JsonFactory jsonFactory,
+                                DataBufferFactory bufferFactory) throws IOException {
+        this.bufferFactory = bufferFactory;
+        this.out = gzip ? new GZIPOutputStream(chunk, GZIP_BUFFER_SIZE, true) : chunk;
+        this.json = format == MetricExportFormat.NDJSON
+                ? jsonFactory.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null)
+                : null;
+        if (format == MetricExportFormat.CSV) out.write(CSV_HEADER);
+    }
+
+    static Flux<DataBuffer> encode(Flux<Metric> metrics, MetricExportFormat format, boolean gzip,
+                                   JsonFactory jsonFactory, DataBufferFactory bufferFactory) {
+        return Flux.using(
+                () -> new MetricExportEncoder(format, gzip, jsonFactory, bufferFactory),
+                encoder -> metrics.buffer(ROWS_PER_CHUNK)
+                        .map(encoder::encodeChunk)
+                        .concatWith(Mono.fromCallable(encoder::finish)),
+                MetricExportEncoder::close);
+    }
+
+    DataBuffer encodeChunk(List<Metric> rows) {
+        try {
+            for (Metric row : rows) {
+                if (json != null) {
+                    writeJson(row);
+                } else {
+                    writeCsv(row);
+                }
+            }
+            if (json != null) json.flush();
+            out.flush();
+            return drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    DataBuffer finish() throws IOException {
+        if (json != null) json.flush();
+        out.close();
+        return drain();
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // Nothing is left to send once the export has ended or been cancelled
+        }
+    }
+
+    private DataBuffer drain() {
+        byte[] bytes = chunk.toByteArray();
+        chunk.reset();
+        return bufferFactory.wrap(bytes);
+    }
+
+    private void writeCsv(Metric row) throws IOException {
+        Optional<MetricBucket> bucket = MetricBucket.parse(row.getName());
+        writeCsvField(bucket.map(MetricBucket::name).orElse(row.getName()));
+        out.write(',');
+        if (bucket.isPresent()) out.write(bucket.get().start().toString().getBytes(StandardCharsets.US_ASCII));
+        out.write(',');
+        out.write(valueOf(row).getBytes(StandardCharsets.US_ASCII));
+        out.write('\n');
+    }
+
+    private void writeCsvField(String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            out.write(value.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\"").getBytes(StandardCharsets.UTF_8));
+        out.write('"');
+    }
+
+    private void writeJson(Metric row) throws IOException {
+        Optional<MetricBucket> bucket = MetricBucket.parse(row.getName());
+        Instant hour = bucket.map(MetricBucket::start).orElse(null);
+        json.writeStartObject();
+        json.writeStringField("metric", bucket.map(MetricBucket::name).orElse(row.getName()));
+        if (hour != null) json.writeStringField("hour", hour.toString());
+        json.writeFieldName("value");
+        json.writeNumber(valueOf(row));
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    /**
+     * An item that only records how many shards a counter has carries no value of its own.
+     */
+    private static String valueOf(Metric row) {
+        return Objects.requireNonNullElse(row.getValue(), BigDecimal.ZERO).toPlainString();
+    }
+}
@@ -0,0 +1,151 @@
+package co.com.pragma.api.export;
+
+import co.com.pragma.api.dto.MetricApiDTO;
+import co.com.pragma.api.mapper.MetricMapper;
+import co.com.pragma.model.logs.gateways.LoggerPort;
+import co.com.pragma.usecase.metric.MetricUseCase;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Admin job that dumps every item of the metrics table as NDJSON into a local file. The
+ * table is read with a parallel segmented scan paced to its read capacity; lines are
+ * written as they arrive, so memory use does not grow with the table. While the job runs,
+ * its status reports the lines written so far.
+ * <p>
+ * This is a values-only dump: each line holds the name and value of one stored item. A
+ * sharded counter shows up as one line per shard key ({@code name#k}) and the shard count
+ * announced on its base item is not written, nor is the item version, so the file is meant
+ * for inspection and reconciliation rather than for restoring the table.
+ */
+@Component
+@Endpoint(id = "metricsexport")
+public class MetricExportEndpoint {
+
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    private final MetricUseCase metricUseCase;
+    private final MetricMapper metricMapper;
+    private final ObjectMapper objectMapper;
+    private final LoggerPort logger;
+    private final Path directory;
+    private final int segments;
+    private final AtomicReference<Run> run = new AtomicReference<>(new Run(ExportStatus.idle(), new AtomicLong()));
+
+    public MetricExportEndpoint(MetricUseCase metricUseCase,
+                                MetricMapper metricMapper,
+                                ObjectMapper objectMapper,
+                                LoggerPort logger,
+                                @Value("${report.export.directory:${java.io.tmpdir}}") String directory,
+                                @Value("${report.export.segments:4}") int segments) {
+        this.metricUseCase = metricUseCase;
+        this.metricMapper = metricMapper;
+        this.objectMapper = objectMapper;
+        this.logger = logger;
+        this.directory = Path.of(directory);
+        this.segments = segments;
+    }
+
+    @ReadOperation
+    public ExportStatus status() {
+        return run.get().snapshot();
+    }
+
+    @WriteOperation
+    public ExportStatus start() {
+        Run current = run.get();
+        if (current.status().running()) return current.snapshot();
+        Instant startedAt = Instant.now();
+        Path file = directory.resolve("metrics-export-" + startedAt.toEpochMilli() + ".ndjson");
+        Run started = new Run(ExportStatus.started(file, startedAt), new AtomicLong());
+        if (!run.compareAndSet(current, started)) return status();
+        export(file, started.status(), started.items())
+                .subscribe(finished -> run.set(new Run(finished, started.items())));
+        return started.status();
+    }
+
+    Mono<ExportStatus> export(Path file, ExportStatus started, AtomicLong items) {
+        return DataBufferUtils.write(metricUseCase.exportMetrics(segments)
+                                .map(metricMapper::toMetricApiDTO)
+                                .map(this::toLine)
+                                .doOnNext(line -> items.incrementAndGet()),
+                        file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)
+                .then(Mono.fromSupplier(() -> started.completed(items.get())))
+                .doOnSuccess(finished -> logger.info("Metrics export finished {}", finished))
+                .onErrorResume(ex -> {
+                    logger.error("Error exporting metrics to {}", file, ex);
+                    return Mono.just(started.failed(items.get(), ex));
+                });
+    }
+
+    private DataBuffer toLine(MetricApiDTO metric) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(metric);
+            return DefaultDataBufferFactory.sharedInstance.allocateBuffer(json.length + 1)
+                    .write(json)
+                    .write(LINE_SEPARATOR);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The status of the current or last export and the number of lines it has written.
+     */
+    private record Run(ExportStatus status, AtomicLong items) {
+
+        ExportStatus snapshot() {
+            return status.running() ? status.withItems(items.get()) : status;
+        }
+    }
+
+    public record ExportStatus(String state, String file, long items, Instant startedAt, Instant finishedAt,
+                               String error) {
+
+        static final String IDLE = "IDLE";
+        static final String RUNNING = "RUNNING";
+        static final String COMPLETED = "COMPLETED";
+        static final String FAILED = "FAILED";
+
+        static ExportStatus idle() {
+            return new ExportStatus(IDLE, null, 0, null, null, null);
+        }
+
+        static ExportStatus started(Path file, Instant startedAt) {
+            return new ExportStatus(RUNNING, file.toString(), 0, startedAt, null, null);
+        }
+
+        ExportStatus withItems(long written) {
+            return new ExportStatus(state, file, written, startedAt, finishedAt, error);
+        }
+
+        boolean running() {
+            return RUNNING.equals(state);
+        }
+
+        ExportStatus completed(long exported) {
+            return new ExportStatus(COMPLETED, file, exported, startedAt, Instant.now(), null);
+        }
+
+        ExportStatus failed(long exported, Throwable cause) {
+            return new ExportStatus(FAILED, file, exported, startedAt, Instant.now(), cause.getMessage());
+        }
+    }
+}
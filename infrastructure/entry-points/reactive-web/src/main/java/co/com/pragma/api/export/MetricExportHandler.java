@@ -0,0 +1,62 @@
+package co.com.pragma.api.export;
+
+import co.com.pragma.model.exceptions.InvalidExportFormatException;
+import co.com.pragma.usecase.metric.MetricUseCase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static co.com.pragma.api.constants.ApiConstants.ApiParams.EXPORT_FILE_NAME;
+import static co.com.pragma.api.constants.ApiConstants.ApiParams.FORMAT_PARAM;
+import static co.com.pragma.api.constants.ApiConstants.ApiParams.GZIP_PARAM;
+
+/**
+ * Streams every item of the metrics table to the client as CSV or NDJSON. Rows are encoded
+ * as the paced segmented scan returns them and written under backpressure, so a large
+ * export only costs the time it takes, not memory. With {@code gzip=true} the body is sent
+ * with {@code Content-Encoding: gzip}, so clients that decode it still save a plain file.
+ */
+@Component
+public class MetricExportHandler {
+
+    private static final String GZIP = "gzip";
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    private final MetricUseCase metricUseCase;
+    private final ObjectMapper objectMapper;
+    private final int segments;
+
+    public MetricExportHandler(MetricUseCase metricUseCase,
+                               ObjectMapper objectMapper,
+                               @Value("${report.export.segments:4}") int segments) {
+        this.metricUseCase = metricUseCase;
+        this.objectMapper = objectMapper;
+        this.segments = segments;
+    }
+
+    public Mono<ServerResponse> listenGETExportUseCase(ServerRequest serverRequest) {
+        String extension = serverRequest.queryParam(FORMAT_PARAM).orElse(MetricExportFormat.CSV.extension());
+        boolean gzip = serverRequest.queryParam(GZIP_PARAM).map(Boolean::parseBoolean).orElse(false);
+        return Mono.justOrEmpty(MetricExportFormat.of(extension))
+                .switchIfEmpty(Mono.error(InvalidExportFormatException::new))
+                .flatMap(format -> {
+                    Flux<DataBuffer> body = MetricExportEncoder.encode(metricUseCase.exportMetrics(segments),
+                            format, gzip, objectMapper.getFactory(), serverRequest.exchange().getResponse().bufferFactory());
+                    ServerResponse.BodyBuilder response = ServerResponse.ok()
+                            .contentType(format.mediaType())
+                            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                    .filename(EXPORT_FILE_NAME + "." + format.extension())
+                                    .build().toString());
+                    if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+                    return response.body(BodyInserters.fromDataBuffers(body));
+                });
+    }
+}
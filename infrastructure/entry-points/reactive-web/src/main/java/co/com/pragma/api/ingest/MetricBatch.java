@@ -0,0 +1,95 @@
+package co.com.pragma.api.ingest;
+
+import co.com.pragma.api.dto.MetricEventDTO;
+import co.com.pragma.model.exceptions.InvalidMetricBatchException;
+import co.com.pragma.model.metric.Approval;
+import co.com.pragma.model.metric.Metric;
+import co.com.pragma.model.metric.MetricBucket;
+import co.com.pragma.model.metric.Watermark;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static co.com.pragma.model.constants.Metrics.AMOUNT_METRIC;
+import static co.com.pragma.model.constants.Metrics.QUANTITY_METRIC;
+
+/**
+ * Running sums of a batch of metric events, one per metric and hour. Events are added as they
+ * are decoded, so memory grows with the distinct metric hours of the batch and not with the
+ * number of events. Events without a timestamp count at the time the batch was received, as
+ * they do when they arrive through SQS. Only the metrics the report API serves are accepted,
+ * so a batch cannot create counters that can never be read.
+ * <p>
+ * Event times follow the SQS rules against a watermark at the receive time: times further
+ * ahead than the allowed clock skew are pulled back, and an event whose bucket closed more
+ * than the allowed lateness ago only adds to the running total.
+ */
+final class MetricBatch {
+
+    private static final String APPROVAL_TYPE = "approval";
+
+    private final int maxEvents;
+    private final Instant receivedAt;
+    private final Watermark watermark;
+    private final Map<MetricBucket, BigDecimal> sums = new LinkedHashMap<>();
+    private final Map<String, BigDecimal> totalsOnly = new LinkedHashMap<>();
+    private int events;
+
+    MetricBatch(int maxEvents, Instant receivedAt, Duration allowedLateness, Duration maxClockSkew) {
+        this.maxEvents = maxEvents;
+        this.receivedAt = receivedAt;
+        this.watermark = new Watermark(allowedLateness, maxClockSkew);
+        watermark.advance(receivedAt);
+    }
+
+    void add(MetricEventDTO event) {
+        if (++events > maxEvents || event.getValue() == null) throw new InvalidMetricBatchException();
+        Instant bucketTime = bucketTimeOf(event);
+        if (APPROVAL_TYPE.equals(event.getType())) {
+            Approval.builder().amount(event.getValue()).eventTime(bucketTime).build()
+                    .toDeltas()
+                    .forEach(delta -> fold(delta.getName(), delta.getValue(), bucketTime));
+            return;
+        }
+        String name = event.getName();
+        if (!QUANTITY_METRIC.equals(name) && !AMOUNT_METRIC.equals(name)) throw new InvalidMetricBatchException();
+        fold(name, event.getValue(), bucketTime);
+    }
+
+    int events() {
+        return events;
+    }
+
+    List<Metric> deltas() {
+        List<Metric> deltas = new ArrayList<>(sums.size() + totalsOnly.size());
+        sums.forEach((bucket, sum) -> deltas.add(Metric.builder()
+                .name(bucket.name())
+                .value(sum)
+                .eventTime(bucket.start())
+                .build()));
+        totalsOnly.forEach((name, sum) -> deltas.add(Metric.builder().name(name).value(sum).build()));
+        return deltas;
+    }
+
+    /**
+     * The event time to bucket the event at, or {@code null} when its bucket is closed.
+     */
+    private Instant bucketTimeOf(MetricEventDTO event) {
+        if (event.getTimestamp() == null) return receivedAt;
+        Instant eventTime = watermark.clamp(event.getTimestamp(), receivedAt);
+        return watermark.advance(eventTime) == Watermark.Timing.EXPIRED ? null : eventTime;
+    }
+
+    private void fold(String name, BigDecimal value, Instant bucketTime) {
+        if (bucketTime == null) {
+            totalsOnly.merge(name, value, BigDecimal::add);
+        } else {
+            sums.merge(MetricBucket.of(name, bucketTime), value, BigDecimal::add);
+        }
+    }
+}
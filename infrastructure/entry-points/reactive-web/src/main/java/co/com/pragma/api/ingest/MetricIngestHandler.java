@@ -0,0 +1,84 @@
+package co.com.pragma.api.ingest;
+
+import co.com.pragma.api.dto.MetricEventDTO;
+import co.com.pragma.api.dto.MetricIngestResultDTO;
+import co.com.pragma.model.exceptions.ServiceOverloadedException;
+import co.com.pragma.model.metric.Metric;
+import co.com.pragma.usecase.metric.MetricUseCase;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records a batch of metric events sent synchronously, next to the SQS path. The body is a
+ * JSON array, or NDJSON, decoded one event at a time and folded into one delta per metric and
+ * hour, which are then saved with a single use case call. Only a bounded number of batches are
+ * written at once; past that the request is rejected with {@code 503} and {@code Retry-After}
+ * before its body is read, so a saturated table pushes back on the callers. Event times are
+ * bounded with the same lateness and clock skew settings as the SQS path.
+ */
+@Component
+public class MetricIngestHandler {
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    private final MetricUseCase metricUseCase;
+    private final int maxEvents;
+    private final int maxConcurrentWrites;
+    private final Duration retryAfter;
+    private final Duration allowedLateness;
+    private final Duration maxClockSkew;
+    private final AtomicInteger writes = new AtomicInteger();
+
+    public MetricIngestHandler(MetricUseCase metricUseCase,
+                               @Value("${report.ingest.max-events:10000}") int maxEvents,
+                               @Value("${report.ingest.max-concurrent-writes:8}") int maxConcurrentWrites,
+                               @Value("${report.limit.retry-after-seconds:1}") long retryAfterSeconds,
+                               @Value("${entrypoint.sqs.allowedLateness:1h}") Duration allowedLateness,
+                               @Value("${entrypoint.sqs.maxClockSkew:1m}") Duration maxClockSkew) {
+        this.metricUseCase = metricUseCase;
+        this.maxEvents = maxEvents;
+        this.maxConcurrentWrites = maxConcurrentWrites;
+        this.retryAfter = Duration.ofSeconds(retryAfterSeconds);
+        this.allowedLateness = allowedLateness;
+        this.maxClockSkew = maxClockSkew;
+    }
+
+    public Mono<ServerResponse> listenPOSTEventsUseCase(ServerRequest serverRequest) {
+        return Mono.defer(() -> {
+                    if (!tryAcquire()) return Mono.error(new ServiceOverloadedException(retryAfter));
+                    Instant receivedAt = Instant.now();
+                    return serverRequest.bodyToFlux(MetricEventDTO.class)
+                            .collect(() -> new MetricBatch(maxEvents, receivedAt, allowedLateness, maxClockSkew), MetricBatch::add)
+                            .flatMap(batch -> {
+                                List<Metric> deltas = batch.deltas();
+                                return metricUseCase.saveMetrics(deltas)
+                                        .thenReturn(new MetricIngestResultDTO(batch.events(), deltas.size()));
+                            })
+                            .doFinally(signal -> writes.decrementAndGet());
+                })
+                .flatMap(result -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(result));
+    }
+
+    int writes() {
+        return writes.get();
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = writes.get();
+            if (current >= maxConcurrentWrites) return false;
+        } while (!writes.compareAndSet(current, current + 1));
+        return true;
+    }
+}
@@ -0,0 +1,135 @@
+package co.com.pragma.api.limit;
+
+import co.com.pragma.model.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static co.com.pragma.api.constants.ApiConstants.ApiPathMatchers.REPORT_MATCHER;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_EVENTS_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_EXPORT_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_SERIES_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_STREAM_PATH;
+
+/**
+ * Sheds report requests beyond a concurrency limit that adapts to their latency, so a slow
+ * table makes the API answer {@code 503} quickly instead of queueing requests without bound.
+ * It runs after the security chain, so a request without a valid token is answered there and
+ * neither takes a slot nor feeds the latency samples; tokens are verified once and cached, so
+ * authenticating a request that is then shed costs little. Actuator and health
+ * paths are outside the report API and never limited; neither are the stream and export
+ * endpoints, whose responses are long by design and would read as latency, nor event ingest,
+ * whose time grows with the batch and which bounds its own writes, nor series reads, whose
+ * time grows with the range and would drag the limit down for single metric reads.
+ */
+@Component
+public class ConcurrencyLimitFilter implements WebFilter, Ordered, MeterBinder {
+
+    /**
+     * Order of Spring Security's {@code WebFilterChainProxy}.
+     */
+    static final int SECURITY_FILTER_ORDER = -100;
+    static final int ORDER = SECURITY_FILTER_ORDER + 10;
+
+    private static final PathPattern LIMITED = PathPatternParser.defaultInstance.parse(REPORT_MATCHER);
+    private static final List<PathPattern> UNLIMITED = List.of(
+            PathPatternParser.defaultInstance.parse(REPORT_STREAM_PATH),
+            PathPatternParser.defaultInstance.parse(REPORT_EXPORT_PATH),
+            PathPatternParser.defaultInstance.parse(REPORT_EVENTS_PATH),
+            PathPatternParser.defaultInstance.parse(REPORT_SERIES_PATH));
+
+    private final GradientConcurrencyLimit limit;
+    private final Duration retryAfter;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ConcurrencyLimitFilter(@Value("${report.limit.initial:20}") int initialLimit,
+                                  @Value("${report.limit.min:5}") int minLimit,
+                                  @Value("${report.limit.max:200}") int maxLimit,
+                                  @Value("${report.limit.retry-after-seconds:1}") long retryAfterSeconds) {
+        this(new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit), Duration.ofSeconds(retryAfterSeconds));
+    }
+
+    ConcurrencyLimitFilter(GradientConcurrencyLimit limit, Duration retryAfter) {
+        this.limit = limit;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!isLimited(exchange.getRequest().getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+        if (!tryAcquire()) {
+            rejected.incrementAndGet();
+            return Mono.error(new ServiceOverloadedException(retryAfter));
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    int served = inFlight.getAndDecrement();
+                    // A cancelled request tells nothing about how long it would have taken
+                    if (signal != SignalType.CANCEL) limit.onSample(System.nanoTime() - start, served);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("http.server.concurrency.limit", limit, GradientConcurrencyLimit::limit)
+                .description("Concurrent report requests allowed before shedding")
+                .register(registry);
+        Gauge.builder("http.server.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("Report requests being served")
+                .register(registry);
+        FunctionCounter.builder("http.server.requests.shed", rejected, AtomicLong::get)
+                .description("Report requests rejected with 503 at the concurrency limit")
+                .register(registry);
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    long rejected() {
+        return rejected.get();
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit.limit()) return false;
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private static boolean isLimited(PathContainer path) {
+        if (!LIMITED.matches(path)) return false;
+        for (PathPattern unlimited : UNLIMITED) {
+            if (unlimited.matches(path)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package co.com.pragma.api.limit;
+
+/**
+ * Concurrency limit that follows latency, in the style of a gradient limiter. A long-term
+ * average of response times stands for the latency of a healthy service and a short-term
+ * average for the current one. While the short average stays within tolerance of the long one
+ * the limit grows by about its square root per sample; as it rises above, the limit shrinks in
+ * proportion, down to half per sample. The long average slowly follows the short one, and
+ * drops faster when latency recovers, so a new baseline is learnt after a lasting change.
+ */
+public class GradientConcurrencyLimit {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double RECOVERY_RATIO = 2;
+    private static final double RECOVERY_DECAY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    // Read on every admission without taking the lock that samples hold
+    private volatile int admitted;
+    private double shortRtt;
+    private double longRtt;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.admitted = initialLimit;
+    }
+
+    public int limit() {
+        return admitted;
+    }
+
+    /**
+     * Records the response time of a request that ended while {@code inFlight} requests,
+     * itself included, were being served.
+     */
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        if (rttNanos <= 0) return;
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+        } else {
+            shortRtt += (rttNanos - shortRtt) * 2 / (SHORT_WINDOW + 1);
+            longRtt += (shortRtt - longRtt) * 2 / (LONG_WINDOW + 1);
+        }
+        if (longRtt / shortRtt > RECOVERY_RATIO) {
+            longRtt *= RECOVERY_DECAY;
+        }
+        // With most of the limit unused, latency says nothing about whether it could grow
+        if (inFlight < limit / 2) return;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+        admitted = (int) limit;
+    }
+}
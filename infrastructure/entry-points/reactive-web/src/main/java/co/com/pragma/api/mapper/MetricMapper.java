@@ -1,10 +1,15 @@
 package co.com.pragma.api.mapper;
 
 import co.com.pragma.api.dto.MetricApiDTO;
+import co.com.pragma.api.dto.MetricPointDTO;
 import co.com.pragma.model.metric.Metric;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface MetricMapper {
     MetricApiDTO toMetricApiDTO(Metric metric);
+
+    @Mapping(target = "time", source = "eventTime")
+    MetricPointDTO toMetricPointDTO(Metric metric);
 }
@@ -0,0 +1,87 @@
+package co.com.pragma.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Remembers the authentication built for each bearer token, so repeated requests with the
+ * same token skip the signature check and the authority extraction. Entries are keyed by the
+ * SHA-256 of the token, so raw tokens are never kept, and expire when the token does, or
+ * after {@code maximumTtl} if that comes first. Failed authentications are not cached.
+ */
+public class CachingJwtAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final ReactiveAuthenticationManager delegate;
+    private final Cache<String, Authentication> verified;
+
+    public CachingJwtAuthenticationManager(ReactiveAuthenticationManager delegate, long maximumSize, Duration maximumTtl) {
+        this(delegate, maximumSize, maximumTtl, Ticker.systemTicker(), Clock.systemUTC());
+    }
+
+    CachingJwtAuthenticationManager(ReactiveAuthenticationManager delegate, long maximumSize, Duration maximumTtl,
+                                    Ticker ticker, Clock clock) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpires(maximumTtl, clock))
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return delegate.authenticate(authentication);
+        }
+        String key = hash(bearer.getToken());
+        Authentication cached = verified.getIfPresent(key);
+        if (cached != null) return Mono.just(cached);
+        return delegate.authenticate(authentication)
+                .doOnNext(result -> verified.put(key, result));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record UntilTokenExpires(Duration maximumTtl, Clock clock) implements Expiry<String, Authentication> {
+
+        @Override
+        public long expireAfterCreate(String key, Authentication value, long currentTime) {
+            Instant expiresAt = value instanceof JwtAuthenticationToken jwt ? jwt.getToken().getExpiresAt() : null;
+            if (expiresAt == null) return maximumTtl.toNanos();
+            Duration left = Duration.between(clock.instant(), expiresAt);
+            return left.isNegative() ? 0 : Math.min(left.toNanos(), maximumTtl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Authentication value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Authentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package co.com.pragma.api.security;
+
+import co.com.pragma.model.logs.gateways.LoggerPort;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Signing keys of the token issuer, kept in memory. The set is fetched before the application
+ * reports itself ready and refreshed in the background, so no request waits on the JWK
+ * endpoint. A token signed with an unknown key triggers an early refresh, at most once per
+ * {@link #MIN_REFRESH_GAP}, which picks up rotated keys without letting bad tokens flood the
+ * issuer. A failed refresh keeps the keys already known.
+ */
+@Component
+public class RefreshingJwkSource implements Function<SignedJWT, Flux<JWK>>, ApplicationRunner, DisposableBean {
+
+    static final Duration MIN_REFRESH_GAP = Duration.ofSeconds(30);
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WebClient webClient;
+    private final String jwkSetUri;
+    private final Duration refreshInterval;
+    private final LoggerPort logger;
+    private final LongSupplier clock;
+    private final AtomicReference<JWKSet> keys = new AtomicReference<>(new JWKSet());
+    private final AtomicReference<Mono<JWKSet>> inFlight = new AtomicReference<>();
+    private final AtomicLong lastFetchNanos;
+    private Disposable refresher;
+
+    public RefreshingJwkSource(WebClient.Builder webClientBuilder,
+                               @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+                               @Value("${security.jwt.jwk-refresh-seconds:300}") long refreshSeconds,
+                               LoggerPort logger) {
+        this(webClientBuilder.build(), jwkSetUri, Duration.ofSeconds(refreshSeconds), logger, System::nanoTime);
+    }
+
+    RefreshingJwkSource(WebClient webClient, String jwkSetUri, Duration refreshInterval, LoggerPort logger,
+                        LongSupplier clock) {
+        this.webClient = webClient;
+        this.jwkSetUri = jwkSetUri;
+        this.refreshInterval = refreshInterval;
+        this.logger = logger;
+        this.clock = clock;
+        this.lastFetchNanos = new AtomicLong(clock.getAsLong() - MIN_REFRESH_GAP.toNanos());
+    }
+
+    @Override
+    public Flux<JWK> apply(SignedJWT jwt) {
+        JWKMatcher matcher = JWKMatcher.forJWSHeader(jwt.getHeader());
+        if (matcher == null) return Flux.empty();
+        JWKSelector selector = new JWKSelector(matcher);
+        var known = selector.select(keys.get());
+        if (!known.isEmpty() || !refreshDue()) return Flux.fromIterable(known);
+        return refresh().flatMapIterable(selector::select);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        refresh().timeout(STARTUP_TIMEOUT)
+                .onErrorResume(ex -> {
+                    logger.error("Error prefetching JWK set from {}", jwkSetUri, ex);
+                    return Mono.empty();
+                })
+                .block();
+        refresher = Flux.interval(refreshInterval, refreshInterval)
+                .concatMap(tick -> refresh().onErrorResume(ex -> {
+                    logger.error("Error refreshing JWK set from {}", jwkSetUri, ex);
+                    return Mono.empty();
+                }))
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        if (refresher != null) refresher.dispose();
+    }
+
+    /**
+     * Fetches the key set, sharing the fetch with every caller that asks while it runs.
+     */
+    Mono<JWKSet> refresh() {
+        Mono<JWKSet> current = inFlight.get();
+        if (current != null) return current;
+        Mono<JWKSet> fetch = fetch()
+                .doFinally(signal -> inFlight.set(null))
+                .cache();
+        return inFlight.compareAndSet(null, fetch) ? fetch : refresh();
+    }
+
+    private Mono<JWKSet> fetch() {
+        return Mono.defer(() -> {
+                    lastFetchNanos.set(clock.getAsLong());
+                    return webClient.get().uri(jwkSetUri).retrieve().bodyToMono(String.class);
+                })
+                .map(RefreshingJwkSource::parse)
+                .doOnNext(fetched -> {
+                    keys.set(fetched);
+                    logger.info("JWK set refreshed with {} keys", fetched.getKeys().size());
+                });
+    }
+
+    private boolean refreshDue() {
+        return clock.getAsLong() - lastFetchNanos.get() >= MIN_REFRESH_GAP.toNanos();
+    }
+
+    private static JWKSet parse(String body) {
+        try {
+            return JWKSet.parse(body);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JWK set", e);
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package co.com.pragma.api;
 
+import co.com.pragma.api.cache.MetricResponseCache;
+import co.com.pragma.api.config.CodecConfig;
 import co.com.pragma.api.config.WebSecurityConfig;
 import co.com.pragma.api.dto.MetricApiDTO;
+import co.com.pragma.api.dto.MetricPointDTO;
+import co.com.pragma.api.export.MetricExportHandler;
+import co.com.pragma.api.ingest.MetricIngestHandler;
 import co.com.pragma.api.exception.handler.CustomAccessDeniedHandler;
 import co.com.pragma.api.exception.handler.CustomAuthenticationEntryPoint;
 import co.com.pragma.api.exception.handler.GlobalExceptionHandler;
@@ -13,6 +18,7 @@ import co.com.pragma.model.jwt.gateways.JwtProviderPort;
 import co.com.pragma.model.logs.gateways.LoggerPort;
 import co.com.pragma.model.metric.Metric;
 import co.com.pragma.usecase.metric.MetricUseCase;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -24,17 +30,32 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 
 import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_BY_NAME_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_EVENTS_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_EXPORT_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_SERIES_PATH;
+import static co.com.pragma.api.constants.ApiConstants.ApiPaths.REPORT_STREAM_PATH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 @ContextConfiguration(classes = {
-        RouterRest.class, Handler.class,
+        RouterRest.class, Handler.class, MetricExportHandler.class, MetricIngestHandler.class, MetricResponseCache.class,
+        CodecConfig.class,
         GlobalExceptionHandler.class, WebSecurityConfig.class,
         CustomAccessDeniedHandler.class, CustomAuthenticationEntryPoint.class
 })
@@ -85,6 +106,145 @@ class RouterRestTest {
                 .isEqualTo(metricApiDTO);
     }
 
+    @Test
+    void getMetric_whenAdmin_shouldReturnVersionAsETag() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+        Metric versioned = metricDomain.toBuilder().version(7L).build();
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+        when(metricUseCase.getMetric(metricName)).thenReturn(Mono.just(versioned));
+        when(metricMapper.toMetricApiDTO(versioned)).thenReturn(metricApiDTO);
+
+        webTestClient.get()
+                .uri(REPORT_BY_NAME_PATH, metricName)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"v7\"")
+                .expectBody(MetricApiDTO.class)
+                .isEqualTo(metricApiDTO);
+    }
+
+    @Test
+    void getMetric_whenMetricHasNoVersion_shouldSendNoETag() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+        Metric unversioned = metricDomain.toBuilder().version(null).build();
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+        when(metricUseCase.getMetric(metricName)).thenReturn(Mono.just(unversioned));
+        when(metricMapper.toMetricApiDTO(unversioned)).thenReturn(metricApiDTO);
+
+        webTestClient.get()
+                .uri(REPORT_BY_NAME_PATH, metricName)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.ETAG)
+                .expectBody(MetricApiDTO.class)
+                .isEqualTo(metricApiDTO);
+    }
+
+    @Test
+    void getMetric_whenETagMatches_shouldReturnNotModifiedWithoutBody() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+        when(metricUseCase.getMetric(metricName)).thenReturn(Mono.just(metricDomain.toBuilder().version(7L).build()));
+
+        webTestClient.get()
+                .uri(REPORT_BY_NAME_PATH, metricName)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v7\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"v7\"")
+                .expectBody().isEmpty();
+
+        Mockito.verify(metricMapper, Mockito.never()).toMetricApiDTO(any());
+    }
+
+    @Test
+    void streamMetrics_whenAdmin_shouldSendServerSentEvents() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+        when(metricUseCase.streamMetrics(List.of(metricName))).thenReturn(Flux.just(metricDomain));
+        when(metricMapper.toMetricApiDTO(metricDomain)).thenReturn(metricApiDTO);
+
+        Flux<String> body = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(REPORT_STREAM_PATH).queryParam("metrics", metricName).build())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .returnResult(String.class)
+                .getResponseBody();
+
+        StepVerifier.create(body)
+                .expectNextMatches(event -> event.contains("\"value\":150.75"))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void getMetric_whenCborIsAccepted_shouldAnswerInCbor() throws Exception {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+        Metric versioned = metricDomain.toBuilder().version(7L).build();
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+        when(metricUseCase.getMetric(metricName)).thenReturn(Mono.just(versioned));
+        when(metricMapper.toMetricApiDTO(versioned)).thenReturn(metricApiDTO);
+
+        byte[] body = webTestClient.get()
+                .uri(REPORT_BY_NAME_PATH, metricName)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"v7-cbor\"")
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(metricApiDTO, new CBORMapper().readValue(body, MetricApiDTO.class));
+    }
+
+    @Test
+    void getMetric_whenCborHasAHigherQualityThanJson_shouldAnswerInCbor() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+        when(metricUseCase.getMetric(metricName)).thenReturn(Mono.just(metricDomain));
+        when(metricMapper.toMetricApiDTO(metricDomain)).thenReturn(metricApiDTO);
+
+        webTestClient.get()
+                .uri(REPORT_BY_NAME_PATH, metricName)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .header(HttpHeaders.ACCEPT, "application/json;q=0.1, application/cbor")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR);
+    }
+
+    @Test
+    void getMetrics_whenSmileIsAccepted_shouldAnswerInSmile() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+        when(metricUseCase.getMetrics(List.of(metricName))).thenReturn(Flux.just(metricDomain));
+        when(metricMapper.toMetricApiDTO(metricDomain)).thenReturn(metricApiDTO);
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(REPORT_PATH).queryParam("metrics", metricName).build())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .accept(MediaType.parseMediaType("application/x-jackson-smile"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType("application/x-jackson-smile");
+    }
+
     @Test
     @WithMockUser(roles = "CLIENTE")
     void getMetric_whenNotAdmin_shouldReturnForbidden() {
@@ -135,4 +295,170 @@ class RouterRestTest {
                 .exchange()
                 .expectStatus().isNotFound();
     }
+
+    @Test
+    void getMetrics_whenAdmin_shouldReturnEveryRequestedMetric() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+        Metric amountDomain = Metric.builder().name(Metrics.AMOUNT_METRIC).value(new BigDecimal("2500")).build();
+        MetricApiDTO amountApiDTO = MetricApiDTO.builder().name(Metrics.AMOUNT_METRIC).value(new BigDecimal("2500")).build();
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+        when(metricUseCase.getMetrics(List.of(metricName, Metrics.AMOUNT_METRIC))).thenReturn(Flux.just(metricDomain, amountDomain));
+        when(metricMapper.toMetricApiDTO(metricDomain)).thenReturn(metricApiDTO);
+        when(metricMapper.toMetricApiDTO(amountDomain)).thenReturn(amountApiDTO);
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(REPORT_PATH).queryParam("metrics", metricName + "," + Metrics.AMOUNT_METRIC).build())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBodyList(MetricApiDTO.class)
+                .containsExactly(metricApiDTO, amountApiDTO);
+    }
+
+    @Test
+    void getMetrics_whenNotAdmin_shouldReturnForbidden() {
+        JwtData jwtData = new JwtData("test@example.com", "CLIENTE", 1, "Test", "12345");
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(REPORT_PATH).queryParam("metrics", metricName).build())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        Mockito.verify(metricUseCase, Mockito.never()).getMetrics(any());
+    }
+
+    @Test
+    void getSeries_whenAdmin_shouldStreamOnePointPerLine() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        Instant to = Instant.parse("2025-01-03T00:00:00Z");
+        Metric first = Metric.builder().name(metricName).eventTime(from).value(BigDecimal.TEN).build();
+        Metric second = Metric.builder().name(metricName).eventTime(from.plus(Duration.ofDays(1))).value(BigDecimal.ZERO).build();
+        MetricPointDTO firstPoint = new MetricPointDTO(first.getEventTime(), BigDecimal.TEN);
+        MetricPointDTO secondPoint = new MetricPointDTO(second.getEventTime(), BigDecimal.ZERO);
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+        when(metricUseCase.getSeries(metricName, from, to, Duration.ofDays(1))).thenReturn(Flux.just(first, second));
+        when(metricMapper.toMetricPointDTO(first)).thenReturn(firstPoint);
+        when(metricMapper.toMetricPointDTO(second)).thenReturn(secondPoint);
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(REPORT_SERIES_PATH)
+                        .queryParam("from", from.toString())
+                        .queryParam("to", to.toString())
+                        .queryParam("step", "P1D")
+                        .build(metricName))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(MetricPointDTO.class)
+                .containsExactly(firstPoint, secondPoint);
+    }
+
+    @Test
+    void getSeries_whenFromIsNotAnInstant_shouldReturnBadRequest() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(REPORT_SERIES_PATH)
+                        .queryParam("from", "yesterday")
+                        .queryParam("to", "2025-01-03T00:00:00Z")
+                        .build(metricName))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo(Errors.INVALID_RANGE_CODE);
+
+        Mockito.verify(metricUseCase, Mockito.never()).getSeries(any(), any(), any(), any());
+    }
+
+    @Test
+    void exportMetrics_whenAdmin_shouldStreamCsvAttachment() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+        Metric bucket = Metric.builder().name(metricName + "@2025-01-01T10").value(BigDecimal.TEN).build();
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+        when(metricUseCase.exportMetrics(anyInt())).thenReturn(Flux.just(metricDomain, bucket));
+
+        webTestClient.get()
+                .uri(REPORT_EXPORT_PATH)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("text", "csv")
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"metrics.csv\"")
+                .expectBody(String.class)
+                .isEqualTo("metric,hour,value\n" + metricName + ",,150.75\n" + metricName + ",2025-01-01T10:00:00Z,10\n");
+    }
+
+    @Test
+    void exportMetrics_whenFormatIsUnknown_shouldReturnBadRequest() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(REPORT_EXPORT_PATH).queryParam("format", "xlsx").build())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo(Errors.INVALID_EXPORT_FORMAT_CODE);
+
+        Mockito.verify(metricUseCase, Mockito.never()).exportMetrics(anyInt());
+    }
+
+    @Test
+    void saveEvents_whenAdmin_shouldFoldTheArrayAndReportCounts() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+        when(metricUseCase.saveMetrics(anyList())).thenReturn(Mono.empty());
+
+        webTestClient.post()
+                .uri(REPORT_EVENTS_PATH)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"name\":\"quantity\",\"value\":2,\"timestamp\":\"2025-03-01T10:05:00Z\"},"
+                        + "{\"name\":\"quantity\",\"value\":3,\"timestamp\":\"2025-03-01T10:45:00Z\"},"
+                        + "{\"type\":\"approval\",\"value\":2500,\"timestamp\":\"2025-03-01T10:50:00Z\"}]")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accepted").isEqualTo(3)
+                .jsonPath("$.deltas").isEqualTo(2);
+
+        Mockito.verify(metricUseCase).saveMetrics(argThat(deltas -> deltas.size() == 2
+                && deltas.stream().anyMatch(m -> m.getName().equals(Metrics.QUANTITY_METRIC) && m.getValue().compareTo(new BigDecimal("6")) == 0)
+                && deltas.stream().anyMatch(m -> m.getName().equals(Metrics.AMOUNT_METRIC) && m.getValue().compareTo(new BigDecimal("2500")) == 0)));
+    }
+
+    @Test
+    void saveEvents_whenEventHasNoValue_shouldReturnBadRequest() {
+        JwtData jwtData = new JwtData("test@example.com", "ADMIN", 1, "Test", "12345");
+
+        when(jwtProvider.getClaims(anyString())).thenReturn(jwtData);
+
+        webTestClient.post()
+                .uri(REPORT_EVENTS_PATH)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer dummy-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"name\":\"quantity\"}]")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo(Errors.INVALID_METRIC_BATCH_CODE);
+
+        Mockito.verify(metricUseCase, Mockito.never()).saveMetrics(anyList());
+    }
 }
@@ -0,0 +1,72 @@
+package co.com.pragma.api.cache;
+
+import co.com.pragma.api.dto.MetricApiDTO;
+import co.com.pragma.api.mapper.MetricMapper;
+import co.com.pragma.model.metric.Metric;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MetricResponseCacheTest {
+
+    @Mock
+    private MetricMapper metricMapper;
+
+    private MetricResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MetricResponseCache(metricMapper, new ObjectMapper());
+        when(metricMapper.toMetricApiDTO(any(Metric.class)))
+                .thenAnswer(invocation -> {
+                    Metric metric = invocation.getArgument(0);
+                    return new MetricApiDTO(metric.getName(), metric.getValue());
+                });
+    }
+
+    @Test
+    void encode_whenVersionIsUnchanged_shouldReuseTheEncodedBody() {
+        byte[] first = cache.encode(metric("10", 3L));
+        byte[] second = cache.encode(metric("10", 3L));
+
+        assertSame(first, second);
+        assertEquals("{\"name\":\"quantity\",\"value\":10}", new String(first, StandardCharsets.UTF_8));
+        verify(metricMapper, times(1)).toMetricApiDTO(any(Metric.class));
+    }
+
+    @Test
+    void encode_whenVersionChanges_shouldEncodeTheNewValue() {
+        cache.encode(metric("10", 3L));
+
+        byte[] updated = cache.encode(metric("11", 4L));
+
+        assertEquals("{\"name\":\"quantity\",\"value\":11}", new String(updated, StandardCharsets.UTF_8));
+        verify(metricMapper, times(2)).toMetricApiDTO(any(Metric.class));
+    }
+
+    @Test
+    void encode_whenMetricHasNoVersion_shouldNotCache() {
+        cache.encode(metric("10", null));
+        cache.encode(metric("10", null));
+
+        verify(metricMapper, times(2)).toMetricApiDTO(any(Metric.class));
+    }
+
+    private static Metric metric(String value, Long version) {
+        return Metric.builder().name("quantity").value(new BigDecimal(value)).version(version).build();
+    }
+}
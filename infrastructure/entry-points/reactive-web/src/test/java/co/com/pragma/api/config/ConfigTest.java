@@ -2,7 +2,10 @@ package co.com.pragma.api.config;
 
 import co.com.pragma.api.Handler;
 import co.com.pragma.api.RouterRest;
+import co.com.pragma.api.cache.MetricResponseCache;
 import co.com.pragma.api.constants.ApiConstants;
+import co.com.pragma.api.export.MetricExportHandler;
+import co.com.pragma.api.ingest.MetricIngestHandler;
 import co.com.pragma.api.mapper.MetricMapper;
 import co.com.pragma.model.constants.Metrics;
 import co.com.pragma.model.jwt.gateways.JwtProviderPort;
@@ -16,7 +19,8 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
-@ContextConfiguration(classes = {RouterRest.class, Handler.class})
+@ContextConfiguration(classes = {RouterRest.class, Handler.class, MetricExportHandler.class, MetricIngestHandler.class,
+        MetricResponseCache.class})
 @WebFluxTest
 @Import({CorsConfig.class, SecurityHeadersConfig.class})
 class ConfigTest {
@@ -3,12 +3,14 @@ package co.com.pragma.api.exception.handler;
 import co.com.pragma.api.dto.ErrorDTO;
 import co.com.pragma.model.constants.Errors;
 import co.com.pragma.model.exceptions.CustomException;
+import co.com.pragma.model.exceptions.ServiceOverloadedException;
 import co.com.pragma.model.logs.gateways.LoggerPort;
 import lombok.Getter;
 import lombok.Setter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -21,6 +23,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
 
@@ -46,6 +50,11 @@ class GlobalExceptionHandlerTest {
             return Mono.error(new CustomException("Invalid status error", "DOM-003", 999));
         }
 
+        @GetMapping("/overloaded")
+        public Mono<String> throwOverloaded() {
+            return Mono.error(new ServiceOverloadedException(Duration.ofSeconds(2)));
+        }
+
         @GetMapping("/generic-error")
         public Mono<String> throwGenericError() {
             return Mono.error(new RuntimeException("A generic error occurred"));
@@ -120,4 +129,15 @@ class GlobalExceptionHandlerTest {
                     assertThat(error.getPath()).isEqualTo("/generic-error");
                 });
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    void shouldHandleServiceOverloadedAsServiceUnavailableWithRetryAfter() {
+        webTestClient.get().uri("/overloaded")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "2")
+                .expectBody(ErrorDTO.class)
+                .value(error -> assertThat(error.getCode()).isEqualTo(Errors.SERVICE_OVERLOADED_CODE));
+    }
+}
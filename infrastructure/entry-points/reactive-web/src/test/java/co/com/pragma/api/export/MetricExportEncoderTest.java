@@ -0,0 +1,72 @@
+package co.com.pragma.api.export;
+
+import co.com.pragma.model.metric.Metric;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricExportEncoderTest {
+
+    private static final List<Metric> METRICS = List.of(
+            Metric.builder().name("quantity").value(new BigDecimal("12")).build(),
+            Metric.builder().name("amount@2025-03-01T10").value(new BigDecimal("1E+3")).build());
+
+    @Test
+    void encode_asCsv_shouldWriteHeaderAndOneRowPerMetric() {
+        String csv = new String(encode(METRICS, MetricExportFormat.CSV, false), StandardCharsets.UTF_8);
+
+        assertEquals("metric,hour,value\nquantity,,12\namount,2025-03-01T10:00:00Z,1000\n", csv);
+    }
+
+    @Test
+    void encode_asNdjson_shouldWriteOneObjectPerLine() {
+        String ndjson = new String(encode(METRICS, MetricExportFormat.NDJSON, false), StandardCharsets.UTF_8);
+
+        assertEquals("{\"metric\":\"quantity\",\"value\":12}\n"
+                + "{\"metric\":\"amount\",\"hour\":\"2025-03-01T10:00:00Z\",\"value\":1000}\n", ndjson);
+    }
+
+    @Test
+    void encode_withGzip_shouldDecompressToTheSameRowsAcrossChunks() throws IOException {
+        // Arrange: enough rows for several chunks
+        List<Metric> metrics = IntStream.range(0, MetricExportEncoder.ROWS_PER_CHUNK * 3 + 1)
+                .mapToObj(i -> Metric.builder().name("quantity@2025-03-01T10").value(BigDecimal.valueOf(i)).build())
+                .toList();
+
+        // Act
+        byte[] compressed = encode(metrics, MetricExportFormat.CSV, true);
+
+        // Assert
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(new String(encode(metrics, MetricExportFormat.CSV, false), StandardCharsets.UTF_8),
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static byte[] encode(List<Metric> metrics, MetricExportFormat format, boolean gzip) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MetricExportEncoder.encode(Flux.fromIterable(metrics), format, gzip, new JsonFactory(),
+                        DefaultDataBufferFactory.sharedInstance)
+                .doOnNext(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    out.writeBytes(bytes);
+                    DataBufferUtils.release(buffer);
+                })
+                .blockLast();
+        return out.toByteArray();
+    }
+}
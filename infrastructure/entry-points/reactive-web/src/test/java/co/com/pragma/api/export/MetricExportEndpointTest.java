@@ -0,0 +1,117 @@
+package co.com.pragma.api.export;
+
+import co.com.pragma.api.dto.MetricApiDTO;
+import co.com.pragma.api.mapper.MetricMapper;
+import co.com.pragma.model.logs.gateways.LoggerPort;
+import co.com.pragma.model.metric.Metric;
+import co.com.pragma.usecase.metric.MetricUseCase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MetricExportEndpointTest {
+
+    @Mock
+    private MetricUseCase metricUseCase;
+
+    @Mock
+    private MetricMapper metricMapper;
+
+    @Mock
+    private LoggerPort logger;
+
+    @TempDir
+    private Path directory;
+
+    private MetricExportEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new MetricExportEndpoint(metricUseCase, metricMapper, new ObjectMapper(), logger, directory.toString(), 4);
+    }
+
+    @Test
+    void export_shouldWriteOneJsonLinePerMetric() throws IOException {
+        // Arrange
+        Metric quantity = Metric.builder().name("quantity").value(BigDecimal.TEN).build();
+        Metric amount = Metric.builder().name("amount").value(new BigDecimal("2500")).build();
+        when(metricUseCase.exportMetrics(4)).thenReturn(Flux.just(quantity, amount));
+        when(metricMapper.toMetricApiDTO(quantity)).thenReturn(new MetricApiDTO("quantity", BigDecimal.TEN));
+        when(metricMapper.toMetricApiDTO(amount)).thenReturn(new MetricApiDTO("amount", new BigDecimal("2500")));
+        Path file = directory.resolve("export.ndjson");
+
+        // Act & Assert
+        StepVerifier.create(endpoint.export(file, MetricExportEndpoint.ExportStatus.started(file, Instant.now()), new AtomicLong()))
+                .expectNextMatches(status -> status.state().equals("COMPLETED") && status.items() == 2)
+                .verifyComplete();
+
+        assertEquals(List.of("{\"name\":\"quantity\",\"value\":10}", "{\"name\":\"amount\",\"value\":2500}"),
+                Files.readAllLines(file));
+    }
+
+    @Test
+    void export_whenScanFails_shouldReportFailure() {
+        // Arrange
+        when(metricUseCase.exportMetrics(4)).thenReturn(Flux.error(new IllegalStateException("scan failed")));
+        Path file = directory.resolve("export.ndjson");
+
+        // Act & Assert
+        StepVerifier.create(endpoint.export(file, MetricExportEndpoint.ExportStatus.started(file, Instant.now()), new AtomicLong()))
+                .expectNextMatches(status -> status.state().equals("FAILED") && "scan failed".equals(status.error()))
+                .verifyComplete();
+    }
+
+    @Test
+    void start_whenAnExportIsRunning_shouldNotStartAnother() {
+        // Arrange: the scan never completes, so the first export stays running
+        when(metricUseCase.exportMetrics(4)).thenReturn(Flux.never());
+
+        // Act
+        MetricExportEndpoint.ExportStatus first = endpoint.start();
+        MetricExportEndpoint.ExportStatus second = endpoint.start();
+
+        // Assert
+        assertEquals("RUNNING", first.state());
+        assertEquals(first, second);
+        assertEquals(first, endpoint.status());
+    }
+
+    @Test
+    void status_whileExportIsRunning_shouldReportTheLinesWrittenSoFar() {
+        // Arrange: one metric is exported and the scan then stalls
+        Metric quantity = Metric.builder().name("quantity").value(BigDecimal.TEN).build();
+        when(metricUseCase.exportMetrics(4)).thenReturn(Flux.just(quantity).concatWith(Flux.never()));
+        when(metricMapper.toMetricApiDTO(quantity)).thenReturn(new MetricApiDTO("quantity", BigDecimal.TEN));
+
+        // Act
+        endpoint.start();
+
+        // Assert
+        StepVerifier.create(Mono.fromSupplier(endpoint::status)
+                        .filter(status -> status.items() == 1)
+                        .repeatWhenEmpty(attempts -> attempts.delayElements(Duration.ofMillis(10)))
+                        .timeout(Duration.ofSeconds(5)))
+                .expectNextMatches(status -> status.state().equals("RUNNING"))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,85 @@
+package co.com.pragma.api.ingest;
+
+import co.com.pragma.api.dto.MetricEventDTO;
+import co.com.pragma.model.constants.Metrics;
+import co.com.pragma.model.exceptions.InvalidMetricBatchException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MetricBatchTest {
+
+    private static final Instant RECEIVED_AT = Instant.parse("2025-03-01T12:30:00Z");
+
+    private final MetricBatch batch = new MetricBatch(5, RECEIVED_AT, Duration.ofDays(1), Duration.ofMinutes(1));
+
+    @Test
+    void add_shouldSumEventsOfTheSameMetricAndHour() {
+        batch.add(event(Metrics.QUANTITY_METRIC, "2", "2025-03-01T10:05:00Z"));
+        batch.add(event(Metrics.QUANTITY_METRIC, "3", "2025-03-01T10:55:00Z"));
+        batch.add(event(Metrics.QUANTITY_METRIC, "4", "2025-03-01T11:00:00Z"));
+
+        assertEquals(3, batch.events());
+        assertEquals(List.of("quantity 5 2025-03-01T10:00:00Z", "quantity 4 2025-03-01T11:00:00Z"), deltasOf(batch));
+    }
+
+    @Test
+    void add_whenApproval_shouldCountItAndAddItsAmount() {
+        batch.add(MetricEventDTO.builder().type("approval").value(new BigDecimal("2500")).build());
+        batch.add(MetricEventDTO.builder().type("approval").value(new BigDecimal("500")).build());
+
+        assertEquals(List.of("quantity 2 2025-03-01T12:00:00Z", "amount 3000 2025-03-01T12:00:00Z"), deltasOf(batch));
+    }
+
+    @Test
+    void add_whenEventIsAheadOfTheReceiveTime_shouldPullItBackToTheAllowedSkew() {
+        batch.add(event(Metrics.QUANTITY_METRIC, "1", "2025-03-01T14:10:00Z"));
+
+        assertEquals(List.of("quantity 1 2025-03-01T12:00:00Z"), deltasOf(batch));
+    }
+
+    @Test
+    void add_whenBucketClosedBeyondTheAllowedLateness_shouldOnlyAddToTheTotal() {
+        MetricBatch hourLate = new MetricBatch(5, RECEIVED_AT, Duration.ofHours(1), Duration.ofMinutes(1));
+
+        hourLate.add(event(Metrics.QUANTITY_METRIC, "2", "2025-03-01T11:40:00Z"));
+        hourLate.add(event(Metrics.QUANTITY_METRIC, "3", "2025-03-01T09:15:00Z"));
+
+        assertEquals(List.of("quantity 2 2025-03-01T11:00:00Z", "quantity 3 null"), deltasOf(hourLate));
+    }
+
+    @Test
+    void add_whenEventIsInvalid_shouldRejectTheBatch() {
+        assertThrows(InvalidMetricBatchException.class, () -> batch.add(MetricEventDTO.builder().name(Metrics.QUANTITY_METRIC).build()));
+        assertThrows(InvalidMetricBatchException.class, () -> batch.add(MetricEventDTO.builder().value(BigDecimal.ONE).build()));
+        assertThrows(InvalidMetricBatchException.class, () -> batch.add(event("quantity@2025-03-01T10", "1", "2025-03-01T10:00:00Z")));
+    }
+
+    @Test
+    void add_whenMetricIsNotServed_shouldRejectTheBatch() {
+        assertThrows(InvalidMetricBatchException.class, () -> batch.add(event("refunds", "1", "2025-03-01T10:00:00Z")));
+    }
+
+    @Test
+    void add_whenBatchExceedsTheEventLimit_shouldRejectIt() {
+        for (int i = 0; i < 5; i++) batch.add(event(Metrics.QUANTITY_METRIC, "1", "2025-03-01T10:00:00Z"));
+
+        assertThrows(InvalidMetricBatchException.class, () -> batch.add(event(Metrics.QUANTITY_METRIC, "1", "2025-03-01T10:00:00Z")));
+    }
+
+    private static MetricEventDTO event(String name, String value, String timestamp) {
+        return MetricEventDTO.builder().name(name).value(new BigDecimal(value)).timestamp(Instant.parse(timestamp)).build();
+    }
+
+    private static List<String> deltasOf(MetricBatch batch) {
+        return batch.deltas().stream()
+                .map(delta -> delta.getName() + " " + delta.getValue().toPlainString() + " " + delta.getEventTime())
+                .toList();
+    }
+}
@@ -0,0 +1,74 @@
+package co.com.pragma.api.ingest;
+
+import co.com.pragma.api.dto.MetricEventDTO;
+import co.com.pragma.model.constants.Metrics;
+import co.com.pragma.model.exceptions.ServiceOverloadedException;
+import co.com.pragma.usecase.metric.MetricUseCase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MetricIngestHandlerTest {
+
+    @Mock
+    private MetricUseCase metricUseCase;
+
+    private MetricIngestHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new MetricIngestHandler(metricUseCase, 100, 1, 2, Duration.ofHours(1), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void listenPOSTEventsUseCase_whenWritesAreSaturated_shouldShedWithRetryAfter() {
+        // Arrange: the first batch is still being written
+        when(metricUseCase.saveMetrics(anyList())).thenReturn(Mono.never());
+        Disposable first = handler.listenPOSTEventsUseCase(request()).subscribe();
+
+        // Act & Assert
+        StepVerifier.create(handler.listenPOSTEventsUseCase(request()))
+                .expectErrorSatisfies(error -> assertEquals(Duration.ofSeconds(2), ((ServiceOverloadedException) error).getRetryAfter()))
+                .verify();
+        verify(metricUseCase, times(1)).saveMetrics(anyList());
+
+        first.dispose();
+        assertEquals(0, handler.writes());
+    }
+
+    @Test
+    void listenPOSTEventsUseCase_whenBatchIsInvalid_shouldNotWriteAndReleaseItsSlot() {
+        MockServerRequest invalid = MockServerRequest.builder()
+                .body(Flux.just(MetricEventDTO.builder().name(Metrics.QUANTITY_METRIC).build()));
+
+        StepVerifier.create(handler.listenPOSTEventsUseCase(invalid))
+                .expectError()
+                .verify();
+
+        verify(metricUseCase, never()).saveMetrics(anyList());
+        assertEquals(0, handler.writes());
+    }
+
+    private static MockServerRequest request() {
+        return MockServerRequest.builder()
+                .body(Flux.just(MetricEventDTO.builder().name(Metrics.QUANTITY_METRIC).value(BigDecimal.ONE).build()));
+    }
+}
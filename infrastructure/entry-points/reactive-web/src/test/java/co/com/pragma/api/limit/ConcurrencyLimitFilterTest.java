@@ -0,0 +1,101 @@
+package co.com.pragma.api.limit;
+
+import co.com.pragma.model.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitFilter filter;
+    private Sinks.Empty<Void> slowResponse;
+    private WebFilterChain slowChain;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ConcurrencyLimitFilter(new GradientConcurrencyLimit(1, 1, 1), Duration.ofSeconds(2));
+        slowResponse = Sinks.empty();
+        slowChain = exchange -> slowResponse.asMono();
+    }
+
+    @Test
+    void filter_whenLimitIsReached_shouldShedWithRetryAfter() {
+        // Arrange: the only slot is taken by a request that has not answered yet
+        filter.filter(exchange("/api/v1/reportes/cantidad"), slowChain).subscribe();
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange("/api/v1/reportes/monto"), slowChain))
+                .expectErrorMatches(ex -> ex instanceof ServiceOverloadedException overloaded
+                        && overloaded.getRetryAfter().equals(Duration.ofSeconds(2)))
+                .verify();
+        assertEquals(1, filter.rejected());
+    }
+
+    @Test
+    void filter_whenRequestEnds_shouldReleaseItsSlot() {
+        // Arrange
+        StepVerifier.create(filter.filter(exchange("/api/v1/reportes/cantidad"), slowChain))
+                .then(() -> assertEquals(1, filter.inFlight()))
+                .then(slowResponse::tryEmitEmpty)
+                .verifyComplete();
+
+        // Act & Assert
+        assertEquals(0, filter.inFlight());
+        StepVerifier.create(filter.filter(exchange("/api/v1/reportes/cantidad"), exchange -> Mono.empty()))
+                .verifyComplete();
+    }
+
+    @Test
+    void filter_onActuatorAndStreamPaths_shouldNeverShed() {
+        // Arrange
+        filter.filter(exchange("/api/v1/reportes/cantidad"), slowChain).subscribe();
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange("/report/actuator/health/readiness"), exchange -> Mono.empty()))
+                .verifyComplete();
+        StepVerifier.create(filter.filter(exchange("/api/v1/reportes/stream"), exchange -> Mono.empty()))
+                .verifyComplete();
+        StepVerifier.create(filter.filter(exchange("/api/v1/reportes/events"), exchange -> Mono.empty()))
+                .verifyComplete();
+        StepVerifier.create(filter.filter(exchange("/api/v1/reportes/cantidad/series"), exchange -> Mono.empty()))
+                .verifyComplete();
+        assertEquals(0, filter.rejected());
+    }
+
+    @Test
+    void getOrder_shouldRunAfterTheSecurityChain() {
+        // Act & Assert: unauthenticated requests are answered before they reach the limiter
+        assertTrue(filter.getOrder() > ConcurrencyLimitFilter.SECURITY_FILTER_ORDER);
+    }
+
+    @Test
+    void bindTo_shouldExportTheLimitAndTheShedCount() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+        filter.filter(exchange("/api/v1/reportes/cantidad"), slowChain).subscribe();
+
+        // Act
+        filter.filter(exchange("/api/v1/reportes/cantidad"), slowChain).onErrorComplete().block();
+
+        // Assert
+        assertEquals(1.0, registry.get("http.server.concurrency.limit").gauge().value());
+        assertEquals(1.0, registry.get("http.server.concurrency.in.flight").gauge().value());
+        assertEquals(1.0, registry.get("http.server.requests.shed").functionCounter().count());
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+}
@@ -0,0 +1,51 @@
+package co.com.pragma.api.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void onSample_whenLatencyIsSteadyAndLimitIsUsed_shouldGrowTheLimit() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 5, 200);
+
+        for (int i = 0; i < 50; i++) limit.onSample(FAST, limit.limit());
+
+        assertTrue(limit.limit() > 20);
+    }
+
+    @Test
+    void onSample_whenLatencyRises_shouldShrinkTheLimitTowardsTheMinimum() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 5, 200);
+        for (int i = 0; i < 100; i++) limit.onSample(FAST, limit.limit());
+        int healthy = limit.limit();
+
+        for (int i = 0; i < 20; i++) limit.onSample(SLOW, limit.limit());
+        assertTrue(limit.limit() < healthy / 2);
+
+        for (int i = 0; i < 40; i++) limit.onSample(SLOW, limit.limit());
+        assertTrue(limit.limit() <= 10);
+    }
+
+    @Test
+    void onSample_whenMostOfTheLimitIsUnused_shouldKeepTheLimit() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 5, 200);
+
+        for (int i = 0; i < 50; i++) limit.onSample(FAST, 3);
+
+        assertEquals(20, limit.limit());
+    }
+
+    @Test
+    void constructor_whenBoundsAreInconsistent_shouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientConcurrencyLimit(2, 5, 200));
+    }
+}
@@ -1,11 +1,13 @@
 package co.com.pragma.api.mapper;
 
 import co.com.pragma.api.dto.MetricApiDTO;
+import co.com.pragma.api.dto.MetricPointDTO;
 import co.com.pragma.model.metric.Metric;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,4 +49,21 @@ class MetricMapperTest {
         // Verify that the result is null, as per MapStruct's default behavior
         assertNull(resultDTO);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldMapEventTimeOfMetricToPointTime() {
+        // --- Arrange ---
+        Metric sourceMetric = Metric.builder()
+                .name("test_metric")
+                .eventTime(Instant.parse("2025-01-01T00:00:00Z"))
+                .value(new BigDecimal("7"))
+                .build();
+
+        // --- Act ---
+        MetricPointDTO resultDTO = metricMapper.toMetricPointDTO(sourceMetric);
+
+        // --- Assert ---
+        assertEquals(sourceMetric.getEventTime(), resultDTO.getTime());
+        assertEquals(0, sourceMetric.getValue().compareTo(resultDTO.getValue()));
+    }
+}
@@ -0,0 +1,120 @@
+package co.com.pragma.api.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtAuthenticationManagerTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+
+    @Mock
+    private ReactiveAuthenticationManager delegate;
+
+    private final AtomicLong ticker = new AtomicLong();
+    private CachingJwtAuthenticationManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new CachingJwtAuthenticationManager(delegate, 100, Duration.ofHours(1),
+                ticker::get, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void authenticate_whenTokenWasVerified_shouldReuseTheAuthentication() {
+        // Arrange
+        JwtAuthenticationToken authenticated = authenticated(NOW.plus(Duration.ofMinutes(10)));
+        when(delegate.authenticate(any())).thenReturn(Mono.just(authenticated));
+
+        // Act & Assert
+        StepVerifier.create(manager.authenticate(new BearerTokenAuthenticationToken("token-a")))
+                .expectNext(authenticated)
+                .verifyComplete();
+        StepVerifier.create(manager.authenticate(new BearerTokenAuthenticationToken("token-a")))
+                .expectNext(authenticated)
+                .verifyComplete();
+
+        verify(delegate, times(1)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_afterTokenExpires_shouldVerifyAgain() {
+        // Arrange: the token expires in 2 seconds, well before the maximum ttl
+        when(delegate.authenticate(any())).thenReturn(Mono.just(authenticated(NOW.plusSeconds(2))));
+        StepVerifier.create(manager.authenticate(new BearerTokenAuthenticationToken("token-a")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Act
+        ticker.addAndGet(Duration.ofSeconds(3).toNanos());
+
+        // Assert
+        StepVerifier.create(manager.authenticate(new BearerTokenAuthenticationToken("token-a")))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_whenVerificationFails_shouldNotCacheTheFailure() {
+        // Arrange
+        when(delegate.authenticate(any()))
+                .thenReturn(Mono.error(new BadCredentialsException("bad signature")))
+                .thenReturn(Mono.just(authenticated(NOW.plusSeconds(60))));
+
+        // Act & Assert
+        StepVerifier.create(manager.authenticate(new BearerTokenAuthenticationToken("token-a")))
+                .expectError(BadCredentialsException.class)
+                .verify();
+        StepVerifier.create(manager.authenticate(new BearerTokenAuthenticationToken("token-a")))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void authenticate_withDifferentTokens_shouldVerifyEach() {
+        // Arrange
+        when(delegate.authenticate(any())).thenReturn(Mono.just(authenticated(NOW.plusSeconds(60))));
+
+        // Act
+        manager.authenticate(new BearerTokenAuthenticationToken("token-a")).block();
+        manager.authenticate(new BearerTokenAuthenticationToken("token-b")).block();
+
+        // Assert
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    private static JwtAuthenticationToken authenticated(Instant expiresAt) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("admin@example.com")
+                .claim("role", "ADMIN")
+                .issuedAt(NOW.minusSeconds(1))
+                .expiresAt(expiresAt)
+                .build();
+        return new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("ADMIN")), jwt.getSubject());
+    }
+}
@@ -0,0 +1,106 @@
+package co.com.pragma.api.security;
+
+import co.com.pragma.model.logs.gateways.LoggerPort;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshingJwkSourceTest {
+
+    @Mock
+    private LoggerPort logger;
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final AtomicReference<JWKSet> published = new AtomicReference<>();
+    private final AtomicLong clock = new AtomicLong();
+    private RSAKey first;
+    private RSAKey rotated;
+    private RefreshingJwkSource source;
+
+    @BeforeEach
+    void setUp() throws JOSEException {
+        first = new RSAKeyGenerator(2048).keyID("first").generate();
+        rotated = new RSAKeyGenerator(2048).keyID("rotated").generate();
+        published.set(new JWKSet(first.toPublicJWK()));
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    fetches.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(published.get().toString())
+                            .build());
+                })
+                .build();
+        source = new RefreshingJwkSource(webClient, "http://issuer/jwks", Duration.ofMinutes(5), logger, clock::get);
+    }
+
+    @Test
+    void apply_whenKeysWerePrefetched_shouldNotCallTheIssuer() throws JOSEException {
+        // Arrange
+        source.refresh().block();
+
+        // Act & Assert
+        StepVerifier.create(source.apply(signedWith(first)))
+                .expectNextMatches(key -> key.getKeyID().equals("first"))
+                .verifyComplete();
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void apply_whenKeyIsUnknown_shouldRefreshOnceAndFindTheRotatedKey() throws JOSEException {
+        // Arrange: the issuer rotates its key after the prefetch
+        source.refresh().block();
+        published.set(new JWKSet(rotated.toPublicJWK()));
+        clock.addAndGet(RefreshingJwkSource.MIN_REFRESH_GAP.toNanos());
+
+        // Act & Assert
+        StepVerifier.create(source.apply(signedWith(rotated)))
+                .expectNextMatches(key -> key.getKeyID().equals("rotated"))
+                .verifyComplete();
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void apply_whenUnknownKeysArriveTooOften_shouldNotCallTheIssuerAgain() throws JOSEException {
+        // Arrange
+        source.refresh().block();
+
+        // Act & Assert: the last fetch was just now, so unknown keys are rejected without fetching
+        StepVerifier.create(source.apply(signedWith(rotated)))
+                .verifyComplete();
+        assertEquals(1, fetches.get());
+    }
+
+    private static SignedJWT signedWith(RSAKey key) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                new JWTClaimsSet.Builder().subject("admin@example.com").build());
+        jwt.sign(new RSASSASigner(key));
+        return jwt;
+    }
+}
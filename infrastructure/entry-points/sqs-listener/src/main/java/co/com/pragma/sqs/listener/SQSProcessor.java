@@ -1,8 +1,12 @@
 package co.com.pragma.sqs.listener;
 
 import co.com.pragma.model.logs.gateways.LoggerPort;
+import co.com.pragma.model.metric.Approval;
 import co.com.pragma.model.metric.Metric;
+import co.com.pragma.model.metric.MetricBucket;
+import co.com.pragma.model.metric.Watermark;
 import co.com.pragma.sqs.listener.dto.MetricDTO;
+import co.com.pragma.sqs.listener.helper.IngestLatency;
 import co.com.pragma.usecase.metric.MetricUseCase;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,35 +16,116 @@ import reactor.core.publisher.Mono;
 import software.amazon.awssdk.services.sqs.model.Message;
 
 import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class SQSProcessor implements Function<Message, Mono<Void>> {
+    private static final String APPROVAL_TYPE = "approval";
+    private static final List<String> APPROVAL_METRICS = Approval.builder().amount(BigDecimal.ZERO).build()
+            .toDeltas().stream().map(Metric::getName).toList();
+    private static final String MESSAGE_RECEIVED_SITE = "message-received";
+
     @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
     private final MetricUseCase metricUseCase;
     private final LoggerPort logger;
     private final ObjectMapper objectMapper;
+    private final IngestLatency ingestLatency;
 
     @Override
     public Mono<Void> apply(Message message) {
-        logger.info("Processing message {}", message.body());
+        logger.infoSampled(MESSAGE_RECEIVED_SITE, "Processing message {}", message.body());
         return Mono.just(message.body())
                 .flatMap(this::processMessage)
-                .flatMap(metricUseCase::saveMetric)
-                .then();
+                .flatMap(this::trackEventTime)
+                .flatMap(event -> save(event)
+                        .doOnSuccess(ignored -> ingestLatency.persisted(message, metricNames(event.metric()), event.metric().getTimestamp())));
     }
 
-    private Mono<Metric> processMessage(String body) {
+    private Mono<MetricDTO> processMessage(String body) {
         try {
             MetricDTO metric = objectMapper.readValue(body, MetricDTO.class);
-            return Mono.just(Metric.builder()
-                    .name(metric.getName())
-                    .value(metric.getValue())
-                    .build());
+            if (!isComplete(metric)) {
+                logger.error("Message without a metric name or value: {}", body);
+                return Mono.error(new IllegalArgumentException("Message without a metric name or value"));
+            }
+            if (metric.getTimestamp() == null) {
+                metric.setTimestamp(Instant.now());
+            }
+            return Mono.just(metric);
         } catch (JsonProcessingException e) {
             logger.error("Error parsing message body: {}", body, e);
             return Mono.error(new UncheckedIOException(e));
         }
     }
+
+    /**
+     * An approval carries its amount in the value; any other message also needs the metric name.
+     */
+    private static boolean isComplete(MetricDTO metric) {
+        return metric.getValue() != null && (APPROVAL_TYPE.equals(metric.getType()) || metric.getName() != null);
+    }
+
+    /**
+     * Places the event against the poller's watermark. Its bucket time is dropped once the
+     * bucket is closed, so the event only adds to the running total.
+     */
+    private Mono<Event> trackEventTime(MetricDTO metric) {
+        return Mono.deferContextual(context -> Mono.just(context.<Watermark>getOrEmpty(Watermark.class)
+                .map(watermark -> place(metric, watermark))
+                .orElseGet(() -> new Event(metric, metric.getTimestamp()))));
+    }
+
+    private Event place(MetricDTO metric, Watermark watermark) {
+        Instant eventTime = watermark.clamp(metric.getTimestamp(), Instant.now());
+        if (!eventTime.equals(metric.getTimestamp())) {
+            logger.warn("Event time {} is ahead of the receive time, using {}", metric.getTimestamp(), eventTime);
+            metric.setTimestamp(eventTime);
+        }
+        return switch (watermark.advance(eventTime)) {
+            case ON_TIME -> new Event(metric, eventTime);
+            case LATE -> {
+                logger.warn("Late event for bucket {} behind watermark {}, applying corrective delta",
+                        MetricBucket.startOf(eventTime), watermark.current());
+                yield new Event(metric, eventTime);
+            }
+            case EXPIRED -> {
+                logger.warn("Event for closed bucket {} behind watermark {}, adding it to the total only",
+                        MetricBucket.startOf(eventTime), watermark.current());
+                yield new Event(metric, null);
+            }
+        };
+    }
+
+    /**
+     * The metrics the message is written to: an approval adds to each metric of its deltas.
+     */
+    private static List<String> metricNames(MetricDTO metric) {
+        return APPROVAL_TYPE.equals(metric.getType()) ? APPROVAL_METRICS : List.of(metric.getName());
+    }
+
+    private Mono<Void> save(Event event) {
+        MetricDTO metric = event.metric();
+        if (APPROVAL_TYPE.equals(metric.getType())) {
+            return metricUseCase.saveApproval(Approval.builder()
+                    .amount(metric.getValue())
+                    .eventTime(event.bucketTime())
+                    .build());
+        }
+        return metricUseCase.saveMetric(Metric.builder()
+                .name(metric.getName())
+                .value(metric.getValue())
+                .eventTime(event.bucketTime())
+                .build());
+    }
+
+    /**
+     * A parsed message and the time of the bucket it is added to, or {@code null} when its
+     * bucket is closed.
+     */
+    private record Event(MetricDTO metric, Instant bucketTime) {
+    }
 }
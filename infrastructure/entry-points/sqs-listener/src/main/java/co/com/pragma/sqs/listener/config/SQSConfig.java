@@ -1,7 +1,9 @@
 package co.com.pragma.sqs.listener.config;
 
 import co.com.pragma.model.logs.gateways.LoggerPort;
+import co.com.pragma.sqs.listener.helper.IngestLatency;
 import co.com.pragma.sqs.listener.helper.SQSListener;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -27,12 +29,15 @@ import java.util.function.Function;
 public class SQSConfig {
 
     @Bean
-    public SQSListener sqsListener(SqsAsyncClient client, SQSProperties properties, Function<Message, Mono<Void>> fn, LoggerPort logger) {
+    public SQSListener sqsListener(SqsAsyncClient client, SQSProperties properties, Function<Message, Mono<Void>> fn,
+                                   LoggerPort logger, MeterRegistry meterRegistry, IngestLatency ingestLatency) {
         return SQSListener.builder()
                 .client(client)
                 .properties(properties)
                 .processor(fn)
                 .logger(logger)
+                .meterRegistry(meterRegistry)
+                .ingestLatency(ingestLatency)
                 .build();
     }
 
@@ -2,6 +2,8 @@ package co.com.pragma.sqs.listener.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @ConfigurationProperties(prefix = "entrypoint.sqs")
 public record SQSProperties(
         String region,
@@ -10,5 +12,7 @@ public record SQSProperties(
         int waitTimeSeconds,
         int visibilityTimeoutSeconds,
         int maxNumberOfMessages,
-        int numberOfThreads) {
+        int numberOfThreads,
+        Duration allowedLateness,
+        Duration maxClockSkew) {
 }
@@ -0,0 +1,111 @@
+package co.com.pragma.sqs.listener.helper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how stale the reports are: the time from the moment a message was sent to SQS until
+ * its metric is written to the repository, and until the message is deleted from the queue.
+ * Both are exported with buckets at the freshness objectives so alerts can be set on them. The
+ * event time last applied to each metric is kept as a gauge, for every metric a message writes,
+ * up to {@value #MAX_TRACKED_METRICS} metric names so an unexpected stream of names cannot grow
+ * the registry.
+ */
+@Component
+public class IngestLatency {
+
+    static final String PERSISTED = "persisted";
+    static final String ACKNOWLEDGED = "acknowledged";
+    static final int MAX_TRACKED_METRICS = 100;
+
+    private static final Duration[] OBJECTIVES = {
+            Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(15), Duration.ofSeconds(30),
+            Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(15)
+    };
+
+    private final MeterRegistry registry;
+    private final Timer persisted;
+    private final Timer acknowledged;
+    private final Map<String, AtomicLong> lastApplied = new ConcurrentHashMap<>();
+
+    public IngestLatency(MeterRegistry registry) {
+        this.registry = registry;
+        this.persisted = latency(registry, PERSISTED);
+        this.acknowledged = latency(registry, ACKNOWLEDGED);
+    }
+
+    public static IngestLatency none() {
+        return new IngestLatency(new CompositeMeterRegistry());
+    }
+
+    /**
+     * Records the latency once for the message and the event time for each metric it wrote.
+     */
+    public void persisted(Message message, List<String> metricNames, Instant eventTime) {
+        sentTime(message).ifPresent(sent -> persisted.record(since(sent)));
+        if (eventTime == null) return;
+        for (String metricName : metricNames) applied(metricName, eventTime);
+    }
+
+    public void acknowledged(Message message) {
+        sentTime(message).ifPresent(sent -> acknowledged.record(since(sent)));
+    }
+
+    static Optional<Instant> sentTime(Message message) {
+        String sentTimestamp = message.attributes().get(MessageSystemAttributeName.SENT_TIMESTAMP);
+        if (sentTimestamp == null) return Optional.empty();
+        try {
+            return Optional.of(Instant.ofEpochMilli(Long.parseLong(sentTimestamp)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Duration since(Instant sent) {
+        long elapsed = registry.config().clock().wallTime() - sent.toEpochMilli();
+        // The sender's clock may run ahead of ours; that is no latency rather than a negative one
+        return Duration.ofMillis(Math.max(0, elapsed));
+    }
+
+    private void applied(String metricName, Instant eventTime) {
+        AtomicLong last = lastApplied.get(metricName);
+        if (last == null) {
+            if (lastApplied.size() >= MAX_TRACKED_METRICS) return;
+            last = lastApplied.computeIfAbsent(metricName, this::track);
+        }
+        // Late events are applied too, but they do not make the metric look older than it is
+        last.accumulateAndGet(eventTime.toEpochMilli(), Math::max);
+    }
+
+    private AtomicLong track(String metricName) {
+        AtomicLong last = new AtomicLong();
+        Gauge.builder("sqs.ingest.last.event.time", last, time -> time.get() / 1000.0)
+                .description("Event time of the last message applied to the metric")
+                .baseUnit("seconds")
+                .tag("metric", metricName)
+                .register(registry);
+        return last;
+    }
+
+    private static Timer latency(MeterRegistry registry, String stage) {
+        return Timer.builder("sqs.ingest.latency")
+                .description("Time from the send of an SQS message until its metric is " + stage)
+                .tag("stage", stage)
+                .serviceLevelObjectives(OBJECTIVES)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+}
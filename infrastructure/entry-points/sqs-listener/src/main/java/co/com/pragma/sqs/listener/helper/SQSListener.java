@@ -1,7 +1,12 @@
 package co.com.pragma.sqs.listener.helper;
 
 import co.com.pragma.model.logs.gateways.LoggerPort;
+import co.com.pragma.model.metric.Watermark;
 import co.com.pragma.sqs.listener.config.SQSProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import lombok.Builder;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.ContextClosedEvent;
@@ -11,12 +16,15 @@ import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.model.DeleteMessageRequest;
 import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Function;
@@ -27,6 +35,9 @@ public class SQSListener {
     private final SQSProperties properties;
     private final Function<Message, Mono<Void>> processor;
     private final LoggerPort logger;
+    private final MeterRegistry meterRegistry;
+    @Builder.Default
+    private final IngestLatency ingestLatency = IngestLatency.none();
     private String operation;
     private volatile boolean running;
     private ExecutorService executorService;
@@ -44,7 +55,9 @@ public class SQSListener {
 
         Disposable.Composite compositeDisposable = Disposables.composite();
         for (var i = 0; i < properties.numberOfThreads(); i++) {
-            compositeDisposable.add(flow.subscribe(
+            Watermark watermark = new Watermark(properties.allowedLateness(), properties.maxClockSkew());
+            registerWatermarkMetrics(i, watermark);
+            compositeDisposable.add(flow.contextWrite(Context.of(Watermark.class, watermark)).subscribe(
                 null,
                 error -> {
                     if (error instanceof InterruptedException) {
@@ -74,6 +87,23 @@ public class SQSListener {
         }
     }
 
+    private void registerWatermarkMetrics(int poller, Watermark watermark) {
+        Tags tags = Tags.of("queue", properties.queueUrl(), "poller", String.valueOf(poller));
+        Gauge.builder("sqs.listener.watermark.lag", watermark, w -> w.lag(Instant.now()).toMillis() / 1000.0)
+                .description("Time elapsed since the event-time watermark of the poller")
+                .baseUnit("seconds")
+                .tags(tags)
+                .register(meterRegistry);
+        FunctionCounter.builder("sqs.listener.events.late", watermark, Watermark::lateEvents)
+                .description("Events applied as corrective deltas to already flushed buckets")
+                .tags(tags)
+                .register(meterRegistry);
+        FunctionCounter.builder("sqs.listener.events.expired", watermark, Watermark::expiredEvents)
+                .description("Events past the allowed lateness, counted in the running total only")
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
     private boolean isRunning() {
         return this.running;
     }
@@ -113,7 +143,8 @@ public class SQSListener {
                 .flatMap(request -> Mono.fromFuture(client.deleteMessage(request)))
                 .doOnError(e -> logger.error("SQS Confirm: Failed to delete message [id={}]. It will be reprocessed. Error: {}",
                         message.messageId(), e.getMessage(), e))
-                .then();
+                .then()
+                .doOnSuccess(ignored -> ingestLatency.acknowledged(message));
     }
 
     Flux<Message> getMessages() {
@@ -131,6 +162,7 @@ public class SQSListener {
                 .maxNumberOfMessages(properties.maxNumberOfMessages())
                 .waitTimeSeconds(properties.waitTimeSeconds())
                 .visibilityTimeout(properties.visibilityTimeoutSeconds())
+                .messageSystemAttributeNames(MessageSystemAttributeName.SENT_TIMESTAMP)
                 .build();
     }
 
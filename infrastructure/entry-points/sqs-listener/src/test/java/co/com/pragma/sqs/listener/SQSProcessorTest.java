@@ -1,8 +1,11 @@
 package co.com.pragma.sqs.listener;
 
 import co.com.pragma.model.logs.gateways.LoggerPort;
+import co.com.pragma.model.metric.Approval;
 import co.com.pragma.model.metric.Metric;
+import co.com.pragma.model.metric.Watermark;
 import co.com.pragma.sqs.listener.dto.MetricDTO;
+import co.com.pragma.sqs.listener.helper.IngestLatency;
 import co.com.pragma.usecase.metric.MetricUseCase;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -13,12 +16,20 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.util.context.Context;
 import software.amazon.awssdk.services.sqs.model.Message;
 
 import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +44,9 @@ class SQSProcessorTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private IngestLatency ingestLatency;
+
     @InjectMocks
     private SQSProcessor sqsProcessor;
 
@@ -42,12 +56,11 @@ class SQSProcessorTest {
         String validJson = "{\"name\":\"test-metric\",\"value\":123.45}";
         Message message = Message.builder().body(validJson).build();
 
-        MetricDTO metricDTO = new MetricDTO("test-metric", new BigDecimal("123.45"));
-        Metric metric = Metric.builder().name("test-metric").value(new BigDecimal("123.45")).build();
+        MetricDTO metricDTO = MetricDTO.builder().name("test-metric").value(new BigDecimal("123.45")).build();
 
         // Mock dependencies
         when(objectMapper.readValue(validJson, MetricDTO.class)).thenReturn(metricDTO);
-        when(metricUseCase.saveMetric(any(Metric.class))).thenReturn(Mono.just(metric));
+        when(metricUseCase.saveMetric(any(Metric.class))).thenReturn(Mono.empty());
 
         // --- Act ---
         Mono<Void> result = sqsProcessor.apply(message);
@@ -57,10 +70,114 @@ class SQSProcessorTest {
                 .verifyComplete();
 
         // Verify interactions
-        verify(logger).info("Processing message {}", validJson);
+        verify(logger).infoSampled("message-received", "Processing message {}", validJson);
         verify(metricUseCase).saveMetric(argThat(m ->
                 m.getName().equals("test-metric") && m.getValue().compareTo(new BigDecimal("123.45")) == 0
         ));
+        verify(ingestLatency).persisted(eq(message), eq(List.of("test-metric")), any(Instant.class));
+    }
+
+    @Test
+    void apply_whenEventIsBehindWatermark_shouldApplyItAsCorrectiveDelta() throws JsonProcessingException {
+        // --- Arrange ---
+        String lateJson = "{\"name\":\"quantity\",\"value\":1,\"timestamp\":\"2025-03-01T11:15:00Z\"}";
+        Message message = Message.builder().body(lateJson).build();
+        Instant eventTime = Instant.parse("2025-03-01T11:15:00Z");
+
+        MetricDTO metricDTO = MetricDTO.builder().name("quantity").value(BigDecimal.ONE).timestamp(eventTime).build();
+        when(objectMapper.readValue(lateJson, MetricDTO.class)).thenReturn(metricDTO);
+        when(metricUseCase.saveMetric(any(Metric.class))).thenReturn(Mono.empty());
+
+        Watermark watermark = new Watermark(Duration.ofMinutes(30));
+        watermark.advance(Instant.parse("2025-03-01T12:00:00Z"));
+
+        // --- Act ---
+        Mono<Void> result = sqsProcessor.apply(message).contextWrite(Context.of(Watermark.class, watermark));
+
+        // --- Assert ---
+        StepVerifier.create(result)
+                .verifyComplete();
+
+        assertEquals(1, watermark.lateEvents());
+        verify(metricUseCase).saveMetric(argThat(m -> eventTime.equals(m.getEventTime())));
+        verify(logger).warn(anyString(), eq(Instant.parse("2025-03-01T11:00:00Z")), eq(Instant.parse("2025-03-01T11:30:00Z")));
+    }
+
+    @Test
+    void apply_whenBucketIsClosed_shouldAddToTheTotalOnly() throws JsonProcessingException {
+        // --- Arrange ---
+        String expiredJson = "{\"name\":\"quantity\",\"value\":1,\"timestamp\":\"2025-03-01T10:15:00Z\"}";
+        Message message = Message.builder().body(expiredJson).build();
+        Instant eventTime = Instant.parse("2025-03-01T10:15:00Z");
+
+        MetricDTO metricDTO = MetricDTO.builder().name("quantity").value(BigDecimal.ONE).timestamp(eventTime).build();
+        when(objectMapper.readValue(expiredJson, MetricDTO.class)).thenReturn(metricDTO);
+        when(metricUseCase.saveMetric(any(Metric.class))).thenReturn(Mono.empty());
+
+        Watermark watermark = new Watermark(Duration.ofMinutes(30));
+        watermark.advance(Instant.parse("2025-03-01T12:00:00Z"));
+
+        // --- Act ---
+        Mono<Void> result = sqsProcessor.apply(message).contextWrite(Context.of(Watermark.class, watermark));
+
+        // --- Assert ---
+        StepVerifier.create(result)
+                .verifyComplete();
+
+        assertEquals(1, watermark.expiredEvents());
+        assertEquals(0, watermark.lateEvents());
+        verify(metricUseCase).saveMetric(argThat(m -> m.getName().equals("quantity") && m.getEventTime() == null));
+        verify(ingestLatency).persisted(message, List.of("quantity"), eventTime);
+    }
+
+    @Test
+    void apply_whenEventTimeIsInTheFuture_shouldClampItToTheClockSkew() throws JsonProcessingException {
+        // --- Arrange ---
+        String futureJson = "{\"name\":\"quantity\",\"value\":1,\"timestamp\":\"2999-01-01T00:00:00Z\"}";
+        Message message = Message.builder().body(futureJson).build();
+
+        MetricDTO metricDTO = MetricDTO.builder().name("quantity").value(BigDecimal.ONE)
+                .timestamp(Instant.parse("2999-01-01T00:00:00Z")).build();
+        when(objectMapper.readValue(futureJson, MetricDTO.class)).thenReturn(metricDTO);
+        when(metricUseCase.saveMetric(any(Metric.class))).thenReturn(Mono.empty());
+
+        Watermark watermark = new Watermark(Duration.ofMinutes(30), Duration.ofMinutes(1));
+
+        // --- Act ---
+        Mono<Void> result = sqsProcessor.apply(message).contextWrite(Context.of(Watermark.class, watermark));
+
+        // --- Assert ---
+        StepVerifier.create(result)
+                .verifyComplete();
+
+        Instant latest = Instant.now().plus(Duration.ofMinutes(1));
+        verify(metricUseCase).saveMetric(argThat(m -> !m.getEventTime().isAfter(latest)));
+        verify(logger).warn(anyString(), eq(Instant.parse("2999-01-01T00:00:00Z")), any(Instant.class));
+        assertTrue(watermark.current().isBefore(latest));
+    }
+
+    @Test
+    void apply_whenMessageIsApproval_shouldSaveCorrelatedMetricsTogether() throws JsonProcessingException {
+        // --- Arrange ---
+        String approvalJson = "{\"type\":\"approval\",\"value\":2500,\"timestamp\":\"2025-03-01T10:15:00Z\"}";
+        Message message = Message.builder().body(approvalJson).build();
+        Instant eventTime = Instant.parse("2025-03-01T10:15:00Z");
+
+        MetricDTO metricDTO = MetricDTO.builder().type("approval").value(new BigDecimal("2500")).timestamp(eventTime).build();
+        when(objectMapper.readValue(approvalJson, MetricDTO.class)).thenReturn(metricDTO);
+        when(metricUseCase.saveApproval(any(Approval.class))).thenReturn(Mono.empty());
+
+        // --- Act ---
+        Mono<Void> result = sqsProcessor.apply(message);
+
+        // --- Assert ---
+        StepVerifier.create(result)
+                .verifyComplete();
+
+        verify(metricUseCase).saveApproval(argThat(approval ->
+                approval.getAmount().compareTo(new BigDecimal("2500")) == 0 && eventTime.equals(approval.getEventTime())));
+        verify(metricUseCase, never()).saveMetric(any());
+        verify(ingestLatency).persisted(message, List.of("quantity", "amount"), eventTime);
     }
 
     @Test
@@ -81,18 +198,40 @@ class SQSProcessorTest {
                 .verify();
 
         // Verify interactions
-        verify(logger).info("Processing message {}", invalidJson);
+        verify(logger).infoSampled("message-received", "Processing message {}", invalidJson);
         verify(logger).error("Error parsing message body: {}", invalidJson, jsonException);
         verify(metricUseCase, never()).saveMetric(any());
     }
 
+    @Test
+    void apply_whenApprovalHasNoValue_shouldReturnErrorAndLog() throws JsonProcessingException {
+        // --- Arrange ---
+        String approvalJson = "{\"type\":\"approval\",\"timestamp\":\"2025-03-01T10:15:00Z\"}";
+        Message message = Message.builder().body(approvalJson).build();
+
+        MetricDTO metricDTO = MetricDTO.builder().type("approval").timestamp(Instant.parse("2025-03-01T10:15:00Z")).build();
+        when(objectMapper.readValue(approvalJson, MetricDTO.class)).thenReturn(metricDTO);
+
+        // --- Act ---
+        Mono<Void> result = sqsProcessor.apply(message);
+
+        // --- Assert ---
+        StepVerifier.create(result)
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(logger).error("Message without a metric name or value: {}", approvalJson);
+        verify(metricUseCase, never()).saveApproval(any());
+        verifyNoInteractions(ingestLatency);
+    }
+
     @Test
     void apply_whenSaveMetricFails_shouldReturnError() throws JsonProcessingException {
         // --- Arrange ---
         String validJson = "{\"name\":\"test-metric\",\"value\":123.45}";
         Message message = Message.builder().body(validJson).build();
 
-        MetricDTO metricDTO = new MetricDTO("test-metric", new BigDecimal("123.45"));
+        MetricDTO metricDTO = MetricDTO.builder().name("test-metric").value(new BigDecimal("123.45")).build();
         RuntimeException dbException = new RuntimeException("Database is down");
 
         when(objectMapper.readValue(validJson, MetricDTO.class)).thenReturn(metricDTO);
@@ -107,7 +246,8 @@ class SQSProcessorTest {
                 .verify();
 
         // Verify interactions
-        verify(logger).info("Processing message {}", validJson);
+        verify(logger).infoSampled("message-received", "Processing message {}", validJson);
         verify(metricUseCase).saveMetric(any(Metric.class));
+        verify(ingestLatency, never()).persisted(any(), any(), any());
     }
 }
\ No newline at end of file
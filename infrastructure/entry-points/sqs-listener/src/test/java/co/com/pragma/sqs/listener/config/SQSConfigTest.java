@@ -1,6 +1,7 @@
 package co.com.pragma.sqs.listener.config;
 
 import co.com.pragma.model.logs.gateways.LoggerPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -39,7 +40,7 @@ class SQSConfigTest {
 
     @Test
     void configSQSListenerIsNotNull() {
-        assertThat(sqsConfig.sqsListener(sqsAsyncClient, sqsProperties, message -> Mono.empty(), logger)).isNotNull();
+        assertThat(sqsConfig.sqsListener(sqsAsyncClient, sqsProperties, message -> Mono.empty(), logger, new SimpleMeterRegistry())).isNotNull();
     }
 
     @Test
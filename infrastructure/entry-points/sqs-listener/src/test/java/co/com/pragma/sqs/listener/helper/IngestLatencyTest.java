@@ -0,0 +1,105 @@
+package co.com.pragma.sqs.listener.helper;
+
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IngestLatencyTest {
+
+    private static final Instant SENT = Instant.parse("2025-03-01T10:15:00Z");
+
+    private final MockClock clock = new MockClock();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+    private final IngestLatency ingestLatency = new IngestLatency(registry);
+
+    @Test
+    void persisted_shouldRecordTheTimeSinceTheMessageWasSent() {
+        // Arrange
+        clock.add(SENT.toEpochMilli() + 2_500 - clock.wallTime(), TimeUnit.MILLISECONDS);
+
+        // Act
+        ingestLatency.persisted(sent(SENT), List.of("quantity"), SENT.minusSeconds(60));
+        ingestLatency.acknowledged(sent(SENT));
+
+        // Assert
+        var persisted = registry.get("sqs.ingest.latency").tag("stage", "persisted").timer();
+        assertEquals(1, persisted.count());
+        assertEquals(2_500, persisted.totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, registry.get("sqs.ingest.latency").tag("stage", "acknowledged").timer().count());
+    }
+
+    @Test
+    void persisted_shouldExportBucketsAtTheFreshnessObjectives() {
+        clock.add(SENT.toEpochMilli() + 3_000 - clock.wallTime(), TimeUnit.MILLISECONDS);
+
+        ingestLatency.persisted(sent(SENT), List.of("quantity"), SENT);
+
+        var buckets = registry.get("sqs.ingest.latency").tag("stage", "persisted").timer()
+                .takeSnapshot().histogramCounts();
+        assertEquals(7, buckets.length);
+        assertEquals(0, buckets[0].count());
+        assertEquals(1, buckets[1].count());
+    }
+
+    @Test
+    void persisted_shouldKeepTheLatestEventTimePerMetric() {
+        ingestLatency.persisted(sent(SENT), List.of("quantity"), SENT);
+        ingestLatency.persisted(sent(SENT), List.of("quantity"), SENT.minusSeconds(3600));
+        ingestLatency.persisted(sent(SENT), List.of("amount"), SENT.plusSeconds(60));
+
+        assertEquals(SENT.getEpochSecond(),
+                registry.get("sqs.ingest.last.event.time").tag("metric", "quantity").gauge().value());
+        assertEquals(SENT.plusSeconds(60).getEpochSecond(),
+                registry.get("sqs.ingest.last.event.time").tag("metric", "amount").gauge().value());
+    }
+
+    @Test
+    void persisted_whenMessageWritesSeveralMetrics_shouldTrackEachOneAndRecordTheLatencyOnce() {
+        ingestLatency.persisted(sent(SENT), List.of("quantity", "amount"), SENT);
+
+        assertEquals(1, registry.get("sqs.ingest.latency").tag("stage", "persisted").timer().count());
+        assertEquals(SENT.getEpochSecond(),
+                registry.get("sqs.ingest.last.event.time").tag("metric", "quantity").gauge().value());
+        assertEquals(SENT.getEpochSecond(),
+                registry.get("sqs.ingest.last.event.time").tag("metric", "amount").gauge().value());
+    }
+
+    @Test
+    void persisted_shouldStopTrackingNewMetricsPastTheCap() {
+        for (int i = 0; i <= IngestLatency.MAX_TRACKED_METRICS; i++) {
+            ingestLatency.persisted(sent(SENT), List.of("metric-" + i), SENT);
+        }
+
+        assertEquals(IngestLatency.MAX_TRACKED_METRICS, registry.find("sqs.ingest.last.event.time").gauges().size());
+        assertNull(registry.find("sqs.ingest.last.event.time").tag("metric", "metric-" + IngestLatency.MAX_TRACKED_METRICS).gauge());
+    }
+
+    @Test
+    void sentTime_whenAttributeIsMissingOrMalformed_shouldBeEmpty() {
+        assertTrue(IngestLatency.sentTime(Message.builder().build()).isEmpty());
+        assertTrue(IngestLatency.sentTime(Message.builder()
+                .attributes(Map.of(MessageSystemAttributeName.SENT_TIMESTAMP, "not-a-number")).build()).isEmpty());
+
+        ingestLatency.acknowledged(Message.builder().build());
+
+        assertEquals(0, registry.get("sqs.ingest.latency").tag("stage", "acknowledged").timer().count());
+    }
+
+    private static Message sent(Instant sentAt) {
+        return Message.builder()
+                .attributes(Map.of(MessageSystemAttributeName.SENT_TIMESTAMP, String.valueOf(sentAt.toEpochMilli())))
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import co.com.pragma.model.logs.gateways.LoggerPort;
 import co.com.pragma.sqs.listener.config.SQSProperties;
 import co.com.pragma.usecase.metric.MetricUseCase;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +19,8 @@ import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.model.*;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -105,6 +108,29 @@ class SQSListenerTest {
         assertEquals("http://test-queue", captor.getValue().queueUrl());
     }
 
+    @Test
+    void confirm_shouldRecordTheLatencyFromSendToAcknowledgement() {
+        // --- Arrange ---
+        when(sqsProperties.queueUrl()).thenReturn("http://test-queue");
+        var message = Message.builder()
+                .receiptHandle("test-receipt-handle")
+                .attributes(Map.of(MessageSystemAttributeName.SENT_TIMESTAMP, String.valueOf(System.currentTimeMillis())))
+                .build();
+        when(asyncClient.deleteMessage(any(DeleteMessageRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteMessageResponse.builder().build()));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        var sqsListener = SQSListener.builder().client(asyncClient).properties(sqsProperties).logger(logger)
+                .ingestLatency(new IngestLatency(registry)).build();
+
+        // --- Act ---
+        StepVerifier.create(sqsListener.confirm(message)).verifyComplete();
+
+        // --- Assert ---
+        assertEquals(1, registry.get("sqs.ingest.latency").tag("stage", "acknowledged").timer().count());
+        assertEquals(0, registry.get("sqs.ingest.latency").tag("stage", "persisted").timer().count());
+    }
+
     @Test
     void confirm_whenClientFails_shouldPropagateError() {
         when(sqsProperties.queueUrl()).thenReturn("http://test-queue");
@@ -161,6 +187,7 @@ class SQSListenerTest {
         assertEquals(5, capturedRequest.maxNumberOfMessages());
         assertEquals(10, capturedRequest.waitTimeSeconds());
         assertEquals(30, capturedRequest.visibilityTimeout());
+        assertEquals(List.of(MessageSystemAttributeName.SENT_TIMESTAMP), capturedRequest.messageSystemAttributeNames());
     }
 
     @Test
@@ -243,6 +270,7 @@ class SQSListenerTest {
                 .properties(sqsProperties)
                 .processor(mock(Function.class))
                 .logger(logger)
+                .meterRegistry(new SimpleMeterRegistry())
                 .build();
         SQSListener spyListener = spy(realListener);
 
@@ -263,6 +291,32 @@ class SQSListenerTest {
         assertEquals(false, ((reactor.core.Disposable) subscription).isDisposed());
     }
 
+    @Test
+    void start_shouldRegisterWatermarkMetricsPerPoller() {
+        // --- Arrange ---
+        when(sqsProperties.queueUrl()).thenReturn("http://test-queue");
+        when(sqsProperties.numberOfThreads()).thenReturn(2);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        SQSListener spyListener = spy(SQSListener.builder()
+                .client(asyncClient)
+                .properties(sqsProperties)
+                .processor(processor)
+                .logger(logger)
+                .meterRegistry(registry)
+                .build());
+        doReturn(Flux.never()).when(spyListener).listenRetryRepeat();
+
+        // --- Act ---
+        spyListener.start();
+
+        // --- Assert ---
+        assertEquals(2, registry.find("sqs.listener.watermark.lag").gauges().size());
+        assertEquals(2, registry.find("sqs.listener.events.late").functionCounters().size());
+        assertEquals(2, registry.find("sqs.listener.events.expired").functionCounters().size());
+        spyListener.stop();
+    }
+
     @Test
     void listenRetryRepeat_shouldRepeatWithDelay() {
         // --- Arrange ---
@@ -302,6 +356,7 @@ class SQSListenerTest {
                 .properties(sqsProperties)
                 .processor(processor)
                 .logger(logger)
+                .meterRegistry(new SimpleMeterRegistry())
                 .build();
         SQSListener spyListener = spy(realListener);
 
@@ -331,7 +386,8 @@ class SQSListenerTest {
         when(sqsProperties.queueUrl()).thenReturn("http://test-queue");
         when(sqsProperties.numberOfThreads()).thenReturn(1);
 
-        SQSListener realListener = SQSListener.builder().client(asyncClient).properties(sqsProperties).processor(processor).logger(logger).build();
+        SQSListener realListener = SQSListener.builder().client(asyncClient).properties(sqsProperties).processor(processor).logger(logger)
+                .meterRegistry(new SimpleMeterRegistry()).build();
         SQSListener spyListener = spy(realListener);
 
         doReturn(Flux.error(unexpectedError)).when(spyListener).listenRetryRepeat();
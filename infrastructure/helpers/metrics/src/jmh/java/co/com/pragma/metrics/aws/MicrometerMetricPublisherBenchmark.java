@@ -0,0 +1,87 @@
+package co.com.pragma.metrics.aws;
+
+import co.com.pragma.metrics.config.AwsMetricsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.metrics.MetricCategory;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricCollector;
+import software.amazon.awssdk.metrics.MetricLevel;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of recording one SDK call, shaped like a DynamoDB GetItem: service and operation tags,
+ * a success flag, two durations and a retry count. {@code cachedHandles} is the publisher's
+ * path; {@code registryLookup} rebuilds the tags and asks the registry for each meter, as the
+ * publisher used to. Run with {@code ./gradlew :metrics:jmh} and compare time and
+ * {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MicrometerMetricPublisherBenchmark {
+
+    private static final SdkMetric<String> SERVICE =
+            SdkMetric.create("ServiceId", String.class, MetricLevel.INFO, MetricCategory.CORE);
+    private static final SdkMetric<String> OPERATION =
+            SdkMetric.create("OperationName", String.class, MetricLevel.INFO, MetricCategory.CORE);
+    private static final SdkMetric<Boolean> SUCCEEDED =
+            SdkMetric.create("ApiCallSuccessful", Boolean.class, MetricLevel.INFO, MetricCategory.CORE);
+    private static final SdkMetric<Duration> CALL_DURATION =
+            SdkMetric.create("ApiCallDuration", Duration.class, MetricLevel.INFO, MetricCategory.CORE);
+    private static final SdkMetric<Duration> MARSHALLING =
+            SdkMetric.create("MarshallingDuration", Duration.class, MetricLevel.INFO, MetricCategory.CORE);
+    private static final SdkMetric<Integer> RETRIES =
+            SdkMetric.create("RetryCount", Integer.class, MetricLevel.INFO, MetricCategory.CORE);
+
+    private MeterRegistry registry;
+    private MicrometerMetricPublisher publisher;
+    private MetricCollection collection;
+
+    @Setup
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        publisher = new MicrometerMetricPublisher(registry, AwsMetricsProperties.defaults());
+        MetricCollector collector = MetricCollector.create("ApiCall");
+        collector.reportMetric(SERVICE, "DynamoDB");
+        collector.reportMetric(OPERATION, "GetItem");
+        collector.reportMetric(SUCCEEDED, true);
+        collector.reportMetric(CALL_DURATION, Duration.ofMillis(12));
+        collector.reportMetric(MARSHALLING, Duration.ofNanos(35_000));
+        collector.reportMetric(RETRIES, 0);
+        collection = collector.collect();
+    }
+
+    @TearDown
+    public void tearDown() {
+        publisher.close();
+    }
+
+    @Benchmark
+    public void cachedHandles() {
+        publisher.record(collection);
+    }
+
+    @Benchmark
+    public void registryLookup() {
+        List<Tag> tags = collection.stream()
+                .filter(record -> record.value() instanceof String || record.value() instanceof Boolean)
+                .map(record -> Tag.of(record.metric().name(), record.value().toString()))
+                .collect(Collectors.toList());
+        collection.stream()
+                .forEach(record -> {
+                    if (record.value() instanceof Duration duration) {
+                        registry.timer(record.metric().name(), tags).record(duration);
+                    } else if (record.value() instanceof Integer count) {
+                        registry.counter(record.metric().name(), tags).increment(count);
+                    }
+                });
+    }
+}
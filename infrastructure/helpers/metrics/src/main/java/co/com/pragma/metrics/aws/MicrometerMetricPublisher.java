@@ -1,49 +1,185 @@
 package co.com.pragma.metrics.aws;
 
+import co.com.pragma.metrics.config.AwsMetricsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Tag;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.metrics.MetricCollection;
 import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.MetricRecord;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
+/**
+ * Records the timings and counts the AWS SDK reports for each call. Collections are handed to
+ * one background thread through a bounded queue; when the queue is full the collection is
+ * dropped and counted instead of piling up behind a slow registry. Meters are resolved once per
+ * name and tag combination and reused, so a steady stream of calls does not look them up again.
+ * <p>
+ * Only the configured SDK values become tags, which keeps request ids and endpoints out of the
+ * series. The number of tag combinations of each meter is capped as well: once a meter reaches
+ * it, a new combination of that meter is recorded with every tag set to {@value #OVERFLOW} and
+ * counted, so the registry and each scrape stay the same size however many distinct values the
+ * SDK reports. The cap is kept per meter, so a meter reported with many combinations does not
+ * push the new combinations of the others into overflow.
+ */
 @Component
-@AllArgsConstructor
 public class MicrometerMetricPublisher implements MetricPublisher {
-    private final ExecutorService service = Executors.newFixedThreadPool(10);
+
+    static final String OVERFLOW = "overflow";
+
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
     private final MeterRegistry registry;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Series<Timer>> timers = new ConcurrentHashMap<>();
+    private final Map<String, Series<Counter>> counters = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final Set<String> allowedTags;
+    private final Set<String> deniedTags;
+    private final int maxTagCombinations;
+
+    public MicrometerMetricPublisher(MeterRegistry registry, AwsMetricsProperties properties) {
+        this.registry = registry;
+        this.allowedTags = properties.allowedTags();
+        this.deniedTags = properties.deniedTags();
+        this.maxTagCombinations = properties.maxTagCombinations();
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueSize()),
+                task -> {
+                    Thread thread = new Thread(task, "aws-metrics");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> {
+                    // Once closed there is no queue left to wait on, so the caller records it
+                    if (pool.isShutdown()) task.run();
+                    else dropped.increment();
+                });
+        FunctionCounter.builder("aws.sdk.metrics.dropped", dropped, LongAdder::doubleValue)
+                .description("SDK metric collections dropped because the publish queue was full")
+                .register(registry);
+        FunctionCounter.builder("aws.sdk.metrics.tags.overflow", overflowed, LongAdder::doubleValue)
+                .description("SDK metric values recorded under the overflow tags because of the combination cap")
+                .register(registry);
+    }
 
     @Override
     public void publish(MetricCollection metricCollection) {
-        service.submit(() -> {
-            List<Tag> tags = buildTags(metricCollection);
-            metricCollection.stream()
-                    .filter(record -> record.value() instanceof Duration || record.value() instanceof Integer)
-                    .forEach(record -> {
-                        if (record.value() instanceof Duration) {
-                            registry.timer(record.metric().name(), tags).record((Duration) record.value());
-                        } else if (record.value() instanceof Integer) {
-                            registry.counter(record.metric().name(), tags).increment((Integer) record.value());
-                        }
-                    });
-        });
+        executor.execute(() -> record(metricCollection));
     }
 
+    /**
+     * Stops taking collections and waits for the queued ones to be recorded. Collections
+     * published afterwards are recorded on the caller thread.
+     */
     @Override
     public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void record(MetricCollection metricCollection) {
+        List<String> key = tagKey(metricCollection);
+        for (MetricRecord<?> record : metricCollection) {
+            String name = record.metric().name();
+            if (record.value() instanceof Duration duration) {
+                timers(name).meter(key).record(duration);
+            } else if (record.value() instanceof Integer count) {
+                counters(name).meter(key).increment(count);
+            }
+        }
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    long overflowed() {
+        return overflowed.sum();
+    }
 
+    private List<String> tagKey(MetricCollection metricCollection) {
+        List<String> key = new ArrayList<>();
+        for (MetricRecord<?> record : metricCollection) {
+            if ((record.value() instanceof String || record.value() instanceof Boolean)
+                    && isTag(record.metric().name())) {
+                key.add(record.metric().name());
+                key.add(record.value().toString());
+            }
+        }
+        return key;
     }
 
-    private List<Tag> buildTags(MetricCollection metricCollection) {
-        return metricCollection.stream()
-                .filter(record -> record.value() instanceof String || record.value() instanceof Boolean)
-                .map(record -> Tag.of(record.metric().name(), record.value().toString()))
-                .collect(Collectors.toList());
+    private Series<Timer> timers(String name) {
+        Series<Timer> series = timers.get(name);
+        return series != null ? series : timers.computeIfAbsent(name, meter -> new Series<>(tags -> registry.timer(meter, tags)));
+    }
+
+    private Series<Counter> counters(String name) {
+        Series<Counter> series = counters.get(name);
+        return series != null ? series : counters.computeIfAbsent(name, meter -> new Series<>(tags -> registry.counter(meter, tags)));
+    }
+
+    private boolean isTag(String name) {
+        return allowedTags.isEmpty() ? !deniedTags.contains(name) : allowedTags.contains(name);
+    }
+
+    private static Tags tagsOf(List<String> key) {
+        return Tags.of(key.toArray(String[]::new));
+    }
+
+    private static List<String> overflowKey(List<String> key) {
+        List<String> overflow = new ArrayList<>(key);
+        for (int i = 1; i < overflow.size(); i += 2) overflow.set(i, OVERFLOW);
+        return overflow;
+    }
+
+    /**
+     * The meters of one name, one per tag combination, with the combination cap counted for
+     * this name alone.
+     */
+    private final class Series<M> {
+        private final Function<Tags, M> register;
+        private final Map<List<String>, M> meters = new ConcurrentHashMap<>();
+        private final AtomicInteger combinations = new AtomicInteger();
+
+        private Series(Function<Tags, M> register) {
+            this.register = register;
+        }
+
+        private M meter(List<String> key) {
+            M cached = meters.get(key);
+            if (cached != null) return cached;
+            // Returning null leaves the combination out of the map, so a capped one takes no memory
+            M admitted = meters.computeIfAbsent(key, combination ->
+                    combinations.get() < maxTagCombinations && combinations.incrementAndGet() <= maxTagCombinations
+                            ? register.apply(tagsOf(combination)) : null);
+            if (admitted != null) return admitted;
+            overflowed.increment();
+            return meters.computeIfAbsent(overflowKey(key), combination -> register.apply(tagsOf(combination)));
+        }
     }
 }
@@ -0,0 +1,29 @@
+package co.com.pragma.metrics.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Set;
+
+/**
+ * Settings of the AWS SDK metric publisher. Only SDK values named in {@code allowedTags} become
+ * tags; with an empty allowlist every value except the {@code deniedTags} does. Past
+ * {@code maxTagCombinations} distinct tag sets, new ones are recorded under an overflow set.
+ */
+@ConfigurationProperties(prefix = "adapters.aws-metrics")
+public record AwsMetricsProperties(
+        @DefaultValue("1024") int queueSize,
+        Set<String> allowedTags,
+        @DefaultValue({"AwsRequestId", "AwsExtendedRequestId", "ServiceEndpoint"}) Set<String> deniedTags,
+        @DefaultValue("100") int maxTagCombinations) {
+
+    public AwsMetricsProperties {
+        allowedTags = allowedTags == null ? Set.of() : Set.copyOf(allowedTags);
+        deniedTags = deniedTags == null ? Set.of() : Set.copyOf(deniedTags);
+    }
+
+    public static AwsMetricsProperties defaults() {
+        return new AwsMetricsProperties(1024, Set.of(),
+                Set.of("AwsRequestId", "AwsExtendedRequestId", "ServiceEndpoint"), 100);
+    }
+}
@@ -1,24 +1,45 @@
 package co.com.pragma.metrics.aws;
 
+import co.com.pragma.metrics.config.AwsMetricsProperties;
 import io.micrometer.core.instrument.logging.LoggingMeterRegistry;
 import io.micrometer.core.instrument.logging.LoggingRegistryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.metrics.MetricCategory;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricCollector;
+import software.amazon.awssdk.metrics.MetricLevel;
+import software.amazon.awssdk.metrics.SdkMetric;
 import software.amazon.awssdk.metrics.internal.EmptyMetricCollection;
 
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @ExtendWith(MockitoExtension.class)
 class MicrometerMetricPublisherTest {
 
+    private static final SdkMetric<String> OPERATION =
+            SdkMetric.create("TestOperationName", String.class, MetricLevel.INFO, MetricCategory.CORE);
+    private static final SdkMetric<String> REQUEST_ID =
+            SdkMetric.create("TestAwsRequestId", String.class, MetricLevel.INFO, MetricCategory.CORE);
+    private static final SdkMetric<Duration> DURATION =
+            SdkMetric.create("TestApiCallDuration", Duration.class, MetricLevel.INFO, MetricCategory.CORE);
+    private static final SdkMetric<Integer> RETRIES =
+            SdkMetric.create("TestRetryCount", Integer.class, MetricLevel.INFO, MetricCategory.CORE);
+
     @Test
     void metricTest() {
         LoggingMeterRegistry loggingMeterRegistry = LoggingMeterRegistry
             .builder(LoggingRegistryConfig.DEFAULT)
             .build();
 
-        MicrometerMetricPublisher micrometerMetricPublisher = new MicrometerMetricPublisher(loggingMeterRegistry);
+        MicrometerMetricPublisher micrometerMetricPublisher = new MicrometerMetricPublisher(loggingMeterRegistry, AwsMetricsProperties.defaults());
 
         micrometerMetricPublisher.publish(EmptyMetricCollection.create());
         micrometerMetricPublisher.close();
@@ -26,4 +47,119 @@ class MicrometerMetricPublisherTest {
         assertNotNull(micrometerMetricPublisher);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void record_shouldReuseTheMetersOfATagCombination() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMetricPublisher publisher = new MicrometerMetricPublisher(registry, AwsMetricsProperties.defaults());
+
+        // Act
+        publisher.record(call("GetItem", 20, 1));
+        publisher.record(call("GetItem", 30, 0));
+        publisher.record(call("PutItem", 10, 2));
+
+        // Assert
+        assertEquals(2, registry.get("TestApiCallDuration").tag("TestOperationName", "GetItem").timer().count());
+        assertEquals(1.0, registry.get("TestRetryCount").tag("TestOperationName", "GetItem").counter().count());
+        assertEquals(2.0, registry.get("TestRetryCount").tag("TestOperationName", "PutItem").counter().count());
+        assertEquals(2, registry.find("TestApiCallDuration").timers().size());
+        publisher.close();
+    }
+
+    @Test
+    void close_shouldRecordWhatIsQueuedAndThenRecordInline() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMetricPublisher publisher = new MicrometerMetricPublisher(registry, AwsMetricsProperties.defaults());
+        for (int i = 0; i < 10; i++) publisher.publish(call("Query", 5, 0));
+
+        // Act
+        publisher.close();
+        publisher.publish(call("Query", 5, 0));
+
+        // Assert
+        assertEquals(11, registry.get("TestApiCallDuration").tag("TestOperationName", "Query").timer().count());
+        assertEquals(0, publisher.dropped());
+        assertEquals(0.0, registry.get("aws.sdk.metrics.dropped").functionCounter().count());
+    }
+
+    @Test
+    void record_shouldOnlyTagWithAllowedValues() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMetricPublisher publisher = new MicrometerMetricPublisher(registry,
+                new AwsMetricsProperties(16, Set.of(), Set.of("TestAwsRequestId"), 100));
+
+        // Act
+        for (int i = 0; i < 5; i++) publisher.record(call("GetItem", 20, 0, "request-" + i));
+
+        // Assert
+        assertEquals(1, registry.find("TestApiCallDuration").timers().size());
+        assertEquals(5, registry.get("TestApiCallDuration").tag("TestOperationName", "GetItem").timer().count());
+        assertNull(registry.get("TestApiCallDuration").timer().getId().getTag("TestAwsRequestId"));
+        publisher.close();
+    }
+
+    @Test
+    void record_pastTheCombinationCap_shouldUseTheOverflowTags() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMetricPublisher publisher = new MicrometerMetricPublisher(registry,
+                new AwsMetricsProperties(16, Set.of("TestOperationName"), Set.of(), 2));
+
+        // Act
+        for (int i = 0; i < 10; i++) publisher.record(call("Operation" + i, 20, 0, "request-" + i));
+        publisher.record(call("Operation0", 20, 0, "request-10"));
+
+        // Assert
+        assertEquals(3, registry.find("TestApiCallDuration").timers().size());
+        assertEquals(2, registry.get("TestApiCallDuration").tag("TestOperationName", "Operation0").timer().count());
+        assertEquals(8, registry.get("TestApiCallDuration")
+                .tag("TestOperationName", MicrometerMetricPublisher.OVERFLOW).timer().count());
+        assertEquals(16, publisher.overflowed());
+        assertEquals(16.0, registry.get("aws.sdk.metrics.tags.overflow").functionCounter().count());
+        publisher.close();
+    }
+
+    @Test
+    void record_whenOneMeterReachesTheCap_shouldStillAdmitNewCombinationsOfTheOthers() {
+        // Arrange: durations are reported for many operations, retries only for one
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMetricPublisher publisher = new MicrometerMetricPublisher(registry,
+                new AwsMetricsProperties(16, Set.of("TestOperationName"), Set.of(), 2));
+        for (int i = 0; i < 5; i++) publisher.record(timed("Operation" + i));
+
+        // Act
+        publisher.record(call("Query", 20, 3));
+
+        // Assert
+        assertEquals(3.0, registry.get("TestRetryCount").tag("TestOperationName", "Query").counter().count());
+        assertEquals(4, publisher.overflowed());
+        publisher.close();
+    }
+
+    private static MetricCollection call(String operation, long millis, int retries, String requestId) {
+        MetricCollector collector = MetricCollector.create("ApiCall");
+        collector.reportMetric(OPERATION, operation);
+        collector.reportMetric(REQUEST_ID, requestId);
+        collector.reportMetric(DURATION, Duration.ofMillis(millis));
+        collector.reportMetric(RETRIES, retries);
+        return collector.collect();
+    }
+
+    private static MetricCollection timed(String operation) {
+        MetricCollector collector = MetricCollector.create("ApiCall");
+        collector.reportMetric(OPERATION, operation);
+        collector.reportMetric(DURATION, Duration.ofMillis(20));
+        return collector.collect();
+    }
+
+    private static MetricCollection call(String operation, long millis, int retries) {
+        MetricCollector collector = MetricCollector.create("ApiCall");
+        collector.reportMetric(OPERATION, operation);
+        collector.reportMetric(DURATION, Duration.ofMillis(millis));
+        collector.reportMetric(RETRIES, retries);
+        return collector.collect();
+    }
+}